@@ -0,0 +1,109 @@
+package com.rydio.admin.dto;
+
+import java.util.Map;
+
+public class DashboardStats {
+
+    private long totalUsers;
+    private long newUsersThisMonth;
+    private long totalVehicles;
+    private Map<String, Long> vehiclesByStatus;
+    private long activeBookings;
+    private long bookingsThisMonth;
+    // Bookings per rental start day, from 30 days ago through the next 30 days, oldest first
+    private Map<String, Long> bookingsPerDay;
+    private double totalRevenue;
+    private double revenueThisMonth;
+    private double utilization;
+    private String reconciledAt;
+
+    public DashboardStats() {}
+
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public void setTotalUsers(long totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+
+    public long getNewUsersThisMonth() {
+        return newUsersThisMonth;
+    }
+
+    public void setNewUsersThisMonth(long newUsersThisMonth) {
+        this.newUsersThisMonth = newUsersThisMonth;
+    }
+
+    public long getTotalVehicles() {
+        return totalVehicles;
+    }
+
+    public void setTotalVehicles(long totalVehicles) {
+        this.totalVehicles = totalVehicles;
+    }
+
+    public Map<String, Long> getVehiclesByStatus() {
+        return vehiclesByStatus;
+    }
+
+    public void setVehiclesByStatus(Map<String, Long> vehiclesByStatus) {
+        this.vehiclesByStatus = vehiclesByStatus;
+    }
+
+    public long getActiveBookings() {
+        return activeBookings;
+    }
+
+    public void setActiveBookings(long activeBookings) {
+        this.activeBookings = activeBookings;
+    }
+
+    public long getBookingsThisMonth() {
+        return bookingsThisMonth;
+    }
+
+    public void setBookingsThisMonth(long bookingsThisMonth) {
+        this.bookingsThisMonth = bookingsThisMonth;
+    }
+
+    public Map<String, Long> getBookingsPerDay() {
+        return bookingsPerDay;
+    }
+
+    public void setBookingsPerDay(Map<String, Long> bookingsPerDay) {
+        this.bookingsPerDay = bookingsPerDay;
+    }
+
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public void setTotalRevenue(double totalRevenue) {
+        this.totalRevenue = totalRevenue;
+    }
+
+    public double getRevenueThisMonth() {
+        return revenueThisMonth;
+    }
+
+    public void setRevenueThisMonth(double revenueThisMonth) {
+        this.revenueThisMonth = revenueThisMonth;
+    }
+
+    public double getUtilization() {
+        return utilization;
+    }
+
+    public void setUtilization(double utilization) {
+        this.utilization = utilization;
+    }
+
+    public String getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(String reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
@@ -0,0 +1,274 @@
+package com.rydio.admin.service;
+
+import com.rydio.admin.dto.DashboardStats;
+import com.rydio.booking.entity.Booking;
+import com.rydio.booking.entity.BookingEvent;
+import com.rydio.booking.entity.BookingSnapshot;
+import com.rydio.booking.repository.BookingRepository;
+import com.rydio.booking.service.BookingProjection;
+import com.rydio.booking.service.DayAvailabilityIndex;
+import com.rydio.user.repository.UserRepository;
+import com.rydio.vehicle.entity.Vehicle;
+import com.rydio.vehicle.repository.VehicleRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admin dashboard numbers kept in memory, so the dashboard is answered without queries.
+ * Booking counts and revenue follow the booking event log; vehicle and user counts are
+ * updated by the services that change them, once their transaction commits.
+ *
+ * Changes made elsewhere (other instances, direct SQL) are not seen here, so every few
+ * minutes each group is recounted from the database with one grouped query and swapped in.
+ * An update that lands between the recount and the swap can be lost or counted twice until
+ * the next recount.
+ */
+@Service
+public class AdminStatsService implements BookingProjection {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminStatsService.class);
+
+    private static final int CHART_DAYS = 30;
+    private static final int UPCOMING_CHART_DAYS = 30;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DayAvailabilityIndex dayIndex;
+
+    @Value("${app.admin.stats.reconcile-minutes:10}")
+    private long reconcileMinutes;
+
+    private volatile BookingTotals bookings = new BookingTotals();
+    private volatile Map<Vehicle.VehicleStatus, LongAdder> vehicles = new ConcurrentHashMap<>();
+    private volatile ConcurrentNavigableMap<LocalDate, LongAdder> registrations = new ConcurrentSkipListMap<>();
+    private volatile LocalDateTime reconciledAt;
+    private ScheduledExecutorService reconciler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconcile();
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "admin-stats-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcileSafely, reconcileMinutes, reconcileMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+    }
+
+    public DashboardStats dashboard() {
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+        BookingTotals current = bookings;
+
+        Map<String, Long> vehiclesByStatus = new LinkedHashMap<>();
+        long totalVehicles = 0;
+        for (Vehicle.VehicleStatus status : Vehicle.VehicleStatus.values()) {
+            LongAdder count = vehicles.get(status);
+            long value = count == null ? 0 : count.sum();
+            vehiclesByStatus.put(status.name(), value);
+            totalVehicles += value;
+        }
+
+        Map<String, Long> bookingsPerDay = new LinkedHashMap<>();
+        LocalDate chartEnd = today.plusDays(UPCOMING_CHART_DAYS);
+        for (LocalDate day = today.minusDays(CHART_DAYS - 1); !day.isAfter(chartEnd); day = day.plusDays(1)) {
+            DayTotals totals = current.days.get(day);
+            bookingsPerDay.put(day.toString(), totals == null ? 0 : totals.bookings.sum());
+        }
+
+        long bookingsThisMonth = 0;
+        double revenueThisMonth = 0;
+        for (DayTotals totals : current.days.subMap(monthStart, monthStart.plusMonths(1)).values()) {
+            bookingsThisMonth += totals.bookings.sum();
+            revenueThisMonth += totals.revenue.sum();
+        }
+        double totalRevenue = current.days.values().stream().mapToDouble(totals -> totals.revenue.sum()).sum();
+
+        DashboardStats stats = new DashboardStats();
+        stats.setTotalUsers(registrations.values().stream().mapToLong(LongAdder::sum).sum());
+        stats.setNewUsersThisMonth(registrations.tailMap(monthStart).values().stream().mapToLong(LongAdder::sum).sum());
+        stats.setTotalVehicles(totalVehicles);
+        stats.setVehiclesByStatus(vehiclesByStatus);
+        stats.setActiveBookings(current.active.sum());
+        stats.setBookingsThisMonth(bookingsThisMonth);
+        stats.setBookingsPerDay(bookingsPerDay);
+        stats.setTotalRevenue(round(totalRevenue));
+        stats.setRevenueThisMonth(round(revenueThisMonth));
+        stats.setUtilization(utilization(today, vehiclesByStatus));
+        stats.setReconciledAt(reconciledAt == null ? null : reconciledAt.toString());
+        return stats;
+    }
+
+    // Null on either side means the vehicle was created or deleted
+    public void vehicleStatusChanged(Vehicle.VehicleStatus from, Vehicle.VehicleStatus to) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(() -> {
+            if (from != null) {
+                vehicles.computeIfAbsent(from, status -> new LongAdder()).decrement();
+            }
+            if (to != null) {
+                vehicles.computeIfAbsent(to, status -> new LongAdder()).increment();
+            }
+        });
+    }
+
+    public void userRegistered(LocalDateTime createdAt) {
+        LocalDate day = createdAt == null ? LocalDate.now() : createdAt.toLocalDate();
+        afterCommit(() -> registrations.computeIfAbsent(day, d -> new LongAdder()).increment());
+    }
+
+    @Override
+    public void reset() {
+        bookings = new BookingTotals();
+    }
+
+    @Override
+    public void load(BookingSnapshot snapshot) {
+        bookings.add(snapshot.getStartDate(), null, snapshot.getStatus(), snapshot.getAmount());
+    }
+
+    @Override
+    public void apply(BookingEvent event) {
+        bookings.add(event.getStartDate(), event.getPreviousStatus(), event.getStatus(), event.getAmount());
+    }
+
+    public void reconcile() {
+        BookingTotals bookingTotals = new BookingTotals();
+        List<Booking.BookingStatus> counted = Arrays.stream(Booking.BookingStatus.values())
+                .filter(AdminStatsService::isCounted).toList();
+        List<Booking.BookingStatus> revenue = Arrays.stream(Booking.BookingStatus.values())
+                .filter(Booking.BookingStatus::isRevenue).toList();
+        List<Booking.BookingStatus> active = Arrays.stream(Booking.BookingStatus.values())
+                .filter(Booking.BookingStatus::blocksVehicle).toList();
+        for (Object[] row : bookingRepository.sumPerStartDay(counted, revenue)) {
+            DayTotals totals = bookingTotals.day((LocalDate) row[0]);
+            totals.bookings.add((Long) row[1]);
+            totals.revenue.add(((Number) row[2]).doubleValue());
+        }
+        bookingTotals.active.add(bookingRepository.countByStatusIn(active));
+
+        Map<Vehicle.VehicleStatus, LongAdder> vehicleCounts = new ConcurrentHashMap<>();
+        for (Object[] row : vehicleRepository.countPerStatus()) {
+            vehicleCounts.computeIfAbsent((Vehicle.VehicleStatus) row[0], status -> new LongAdder()).add((Long) row[1]);
+        }
+
+        ConcurrentNavigableMap<LocalDate, LongAdder> registrationCounts = new ConcurrentSkipListMap<>();
+        for (Object[] row : userRepository.countRegistrationsPerDay()) {
+            if (row[0] != null) {
+                registrationCounts.computeIfAbsent((LocalDate) row[0], day -> new LongAdder()).add((Long) row[1]);
+            }
+        }
+
+        bookings = bookingTotals;
+        vehicles = vehicleCounts;
+        registrations = registrationCounts;
+        reconciledAt = LocalDateTime.now();
+    }
+
+    // A change made inside a transaction is counted only if it commits; outside one it already has
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("Admin stats reconciliation failed", e);
+        }
+    }
+
+    // Share of bookable vehicles with a booking touching today
+    private double utilization(LocalDate today, Map<String, Long> vehiclesByStatus) {
+        long bookable = vehiclesByStatus.get(Vehicle.VehicleStatus.AVAILABLE.name())
+                + vehiclesByStatus.get(Vehicle.VehicleStatus.RENTED.name());
+        if (bookable <= 0) {
+            return 0.0;
+        }
+        long booked = dayIndex.bookedBetween(today, today.plusDays(1)).getLongCardinality();
+        return Math.round(Math.min(1.0, (double) booked / bookable) * 10000) / 10000.0;
+    }
+
+    // Cancelled and expired bookings are not counted as bookings at all
+    private static boolean isCounted(Booking.BookingStatus status) {
+        return status != Booking.BookingStatus.CANCELLED && status != Booking.BookingStatus.EXPIRED;
+    }
+
+    private static int flag(boolean condition) {
+        return condition ? 1 : 0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static final class BookingTotals {
+        private final ConcurrentNavigableMap<LocalDate, DayTotals> days = new ConcurrentSkipListMap<>();
+        private final LongAdder active = new LongAdder();
+
+        DayTotals day(LocalDate day) {
+            return days.computeIfAbsent(day, d -> new DayTotals());
+        }
+
+        void add(LocalDateTime start, Booking.BookingStatus from, Booking.BookingStatus to, double amount) {
+            DayTotals totals = day(start.toLocalDate());
+            totals.bookings.add(flag(isCounted(to)) - flag(from != null && isCounted(from)));
+            totals.revenue.add((flag(to.isRevenue()) - flag(from != null && from.isRevenue())) * amount);
+            active.add(flag(to.blocksVehicle()) - flag(from != null && from.blocksVehicle()));
+        }
+    }
+
+    private static final class DayTotals {
+        private final LongAdder bookings = new LongAdder();
+        private final DoubleAdder revenue = new DoubleAdder();
+    }
+}
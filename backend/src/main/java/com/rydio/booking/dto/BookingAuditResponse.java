@@ -0,0 +1,56 @@
+package com.rydio.booking.dto;
+
+import com.rydio.booking.entity.Booking;
+
+import java.util.List;
+
+// A booking's state as reconstructed from the event log, with every event that led to it
+public class BookingAuditResponse {
+
+    private Long bookingId;
+    private Booking.BookingStatus status;
+    private Long lastEventId;
+    private List<BookingEventResponse> events;
+
+    public BookingAuditResponse() {}
+
+    public BookingAuditResponse(Long bookingId, Booking.BookingStatus status, Long lastEventId,
+                                List<BookingEventResponse> events) {
+        this.bookingId = bookingId;
+        this.status = status;
+        this.lastEventId = lastEventId;
+        this.events = events;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Booking.BookingStatus status) {
+        this.status = status;
+    }
+
+    public Long getLastEventId() {
+        return lastEventId;
+    }
+
+    public void setLastEventId(Long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    public List<BookingEventResponse> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<BookingEventResponse> events) {
+        this.events = events;
+    }
+}
@@ -0,0 +1,83 @@
+package com.rydio.booking.dto;
+
+import com.rydio.booking.entity.Booking;
+import com.rydio.booking.entity.BookingEvent;
+
+public class BookingEventResponse {
+
+    private Long id;
+    private Booking.BookingStatus previousStatus;
+    private Booking.BookingStatus status;
+    private String startDate;
+    private String endDate;
+    private Double amount;
+    private String occurredAt;
+
+    public BookingEventResponse() {}
+
+    public BookingEventResponse(BookingEvent event) {
+        this.id = event.getId();
+        this.previousStatus = event.getPreviousStatus();
+        this.status = event.getStatus();
+        this.startDate = event.getStartDate().toString();
+        this.endDate = event.getEndDate().toString();
+        this.amount = event.getAmount();
+        this.occurredAt = event.getOccurredAt().toString();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Booking.BookingStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(Booking.BookingStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Booking.BookingStatus status) {
+        this.status = status;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(String occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
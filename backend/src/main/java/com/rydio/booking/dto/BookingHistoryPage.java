@@ -0,0 +1,23 @@
+package com.rydio.booking.dto;
+
+import java.util.List;
+
+public class BookingHistoryPage {
+
+    private final List<BookingSummary> bookings;
+    // Opaque position after the last booking, or null on the last page
+    private final String nextCursor;
+
+    public BookingHistoryPage(List<BookingSummary> bookings, String nextCursor) {
+        this.bookings = bookings;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BookingSummary> getBookings() {
+        return bookings;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,37 @@
+package com.rydio.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * The part of a booking the availability indexes care about: which vehicle, and when.
+ */
+public class BookingInterval {
+
+    private final Long bookingId;
+    private final Long vehicleId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public BookingInterval(Long bookingId, Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        this.bookingId = bookingId;
+        this.vehicleId = vehicleId;
+        this.start = start;
+        this.end = end;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+}
@@ -0,0 +1,158 @@
+package com.rydio.booking.dto;
+
+import com.rydio.booking.entity.Booking;
+
+public class BookingResponse {
+
+    private Long id;
+    private Long vehicleId;
+    private String vehicleBrand;
+    private String vehicleModel;
+    private Long userId;
+    private String startDate;
+    private String endDate;
+    private String pickupLocation;
+    private String dropLocation;
+    private Booking.BookingStatus status;
+    private Double totalAmount;
+    private String notes;
+    private String bookingDate;
+    private String holdExpiresAt;
+
+    // Constructors
+    public BookingResponse() {}
+
+    public BookingResponse(Booking booking) {
+        this.id = booking.getId();
+        this.vehicleId = booking.getVehicle().getId();
+        this.vehicleBrand = booking.getVehicle().getBrand();
+        this.vehicleModel = booking.getVehicle().getModel();
+        this.userId = booking.getUser().getId();
+        this.startDate = booking.getStartDate().toString();
+        this.endDate = booking.getEndDate().toString();
+        this.pickupLocation = booking.getPickupLocation();
+        this.dropLocation = booking.getDropLocation();
+        this.status = booking.getStatus();
+        this.totalAmount = booking.getTotalAmount();
+        this.notes = booking.getNotes();
+        if (booking.getCreatedAt() != null) {
+            this.bookingDate = booking.getCreatedAt().toString();
+        }
+        if (booking.getHoldExpiresAt() != null) {
+            this.holdExpiresAt = booking.getHoldExpiresAt().toString();
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
+    public String getVehicleBrand() {
+        return vehicleBrand;
+    }
+
+    public void setVehicleBrand(String vehicleBrand) {
+        this.vehicleBrand = vehicleBrand;
+    }
+
+    public String getVehicleModel() {
+        return vehicleModel;
+    }
+
+    public void setVehicleModel(String vehicleModel) {
+        this.vehicleModel = vehicleModel;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getPickupLocation() {
+        return pickupLocation;
+    }
+
+    public void setPickupLocation(String pickupLocation) {
+        this.pickupLocation = pickupLocation;
+    }
+
+    public String getDropLocation() {
+        return dropLocation;
+    }
+
+    public void setDropLocation(String dropLocation) {
+        this.dropLocation = dropLocation;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Booking.BookingStatus status) {
+        this.status = status;
+    }
+
+    public Double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public String getBookingDate() {
+        return bookingDate;
+    }
+
+    public void setBookingDate(String bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+
+    public String getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public void setHoldExpiresAt(String holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+}
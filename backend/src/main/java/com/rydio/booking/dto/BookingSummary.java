@@ -0,0 +1,119 @@
+package com.rydio.booking.dto;
+
+import com.rydio.booking.entity.Booking;
+
+import java.time.LocalDateTime;
+
+// Row of a user's booking history, selected directly by the history query
+public class BookingSummary {
+
+    private Long id;
+    private Long vehicleId;
+    private String vehicleBrand;
+    private String vehicleModel;
+    private String startDate;
+    private String endDate;
+    private Booking.BookingStatus status;
+    private Double totalAmount;
+    private String pickupLocation;
+    private String dropLocation;
+
+    // Constructors
+    public BookingSummary() {}
+
+    public BookingSummary(Long id, Long vehicleId, String vehicleBrand, String vehicleModel,
+                          LocalDateTime startDate, LocalDateTime endDate, Booking.BookingStatus status,
+                          Double totalAmount, String pickupLocation, String dropLocation) {
+        this.id = id;
+        this.vehicleId = vehicleId;
+        this.vehicleBrand = vehicleBrand;
+        this.vehicleModel = vehicleModel;
+        this.startDate = startDate.toString();
+        this.endDate = endDate.toString();
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.pickupLocation = pickupLocation;
+        this.dropLocation = dropLocation;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
+    public String getVehicleBrand() {
+        return vehicleBrand;
+    }
+
+    public void setVehicleBrand(String vehicleBrand) {
+        this.vehicleBrand = vehicleBrand;
+    }
+
+    public String getVehicleModel() {
+        return vehicleModel;
+    }
+
+    public void setVehicleModel(String vehicleModel) {
+        this.vehicleModel = vehicleModel;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Booking.BookingStatus status) {
+        this.status = status;
+    }
+
+    public Double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getPickupLocation() {
+        return pickupLocation;
+    }
+
+    public void setPickupLocation(String pickupLocation) {
+        this.pickupLocation = pickupLocation;
+    }
+
+    public String getDropLocation() {
+        return dropLocation;
+    }
+
+    public void setDropLocation(String dropLocation) {
+        this.dropLocation = dropLocation;
+    }
+}
@@ -0,0 +1,79 @@
+package com.rydio.booking.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class CreateBookingRequest {
+
+    @NotNull(message = "Vehicle is required")
+    private Long vehicleId;
+
+    // ISO date ("2025-10-01"), local date-time or UTC instant ("2025-10-01T09:00:00.000Z")
+    @NotBlank(message = "Start date is required")
+    private String startDate;
+
+    @NotBlank(message = "End date is required")
+    private String endDate;
+
+    @NotBlank(message = "Pickup location is required")
+    private String pickupLocation;
+
+    @NotBlank(message = "Drop location is required")
+    private String dropLocation;
+
+    @Size(max = 500, message = "Notes cannot exceed 500 characters")
+    private String notes;
+
+    // Constructors
+    public CreateBookingRequest() {}
+
+    // Getters and Setters
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getPickupLocation() {
+        return pickupLocation;
+    }
+
+    public void setPickupLocation(String pickupLocation) {
+        this.pickupLocation = pickupLocation;
+    }
+
+    public String getDropLocation() {
+        return dropLocation;
+    }
+
+    public void setDropLocation(String dropLocation) {
+        this.dropLocation = dropLocation;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
@@ -0,0 +1,50 @@
+package com.rydio.booking.dto;
+
+public class UserBookingSummary {
+
+    private Long userId;
+    private long totalBookings;
+    private long activeBookings;
+    private Double totalSpent;
+
+    public UserBookingSummary() {}
+
+    public UserBookingSummary(Long userId, long totalBookings, long activeBookings, Double totalSpent) {
+        this.userId = userId;
+        this.totalBookings = totalBookings;
+        this.activeBookings = activeBookings;
+        this.totalSpent = totalSpent;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getTotalBookings() {
+        return totalBookings;
+    }
+
+    public void setTotalBookings(long totalBookings) {
+        this.totalBookings = totalBookings;
+    }
+
+    public long getActiveBookings() {
+        return activeBookings;
+    }
+
+    public void setActiveBookings(long activeBookings) {
+        this.activeBookings = activeBookings;
+    }
+
+    public Double getTotalSpent() {
+        return totalSpent;
+    }
+
+    public void setTotalSpent(Double totalSpent) {
+        this.totalSpent = totalSpent;
+    }
+}
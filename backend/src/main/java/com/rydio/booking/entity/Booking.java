@@ -0,0 +1,165 @@
+package com.rydio.booking.entity;
+
+import com.rydio.common.entity.AuditedEntity;
+import com.rydio.common.id.SnowflakeId;
+import com.rydio.user.entity.User;
+import com.rydio.vehicle.entity.Vehicle;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "bookings", indexes = {
+    @Index(name = "idx_bookings_vehicle_start", columnList = "vehicle_id, start_date"),
+    // Seek and order of the history query, plus every bookings column it projects, so a page is
+    // read from the index alone; vehicle brand and model still come from one lookup per row
+    @Index(name = "idx_bookings_user_history", columnList =
+            "user_id, start_date, id, vehicle_id, end_date, status, total_amount, pickup_location, drop_location"),
+    @Index(name = "idx_bookings_hold_expires", columnList = "hold_expires_at")
+})
+public class Booking extends AuditedEntity {
+
+    // Assigned in memory, so ids are time-ordered and known without an insert round trip
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "vehicle_id", nullable = false)
+    private Vehicle vehicle;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDateTime startDate;
+
+    @Column(nullable = false)
+    private LocalDateTime endDate;
+
+    @Column(nullable = false)
+    private String pickupLocation;
+
+    @Column(nullable = false)
+    private String dropLocation;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status = BookingStatus.CONFIRMED;
+
+    @Column(nullable = false)
+    private Double totalAmount;
+
+    @Column(length = 500)
+    private String notes;
+
+    // Set while the booking is an unpaid hold; the hold is released at this time
+    private LocalDateTime holdExpiresAt;
+
+    // Constructors
+    public Booking() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    public void setVehicle(Vehicle vehicle) {
+        this.vehicle = vehicle;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getPickupLocation() {
+        return pickupLocation;
+    }
+
+    public void setPickupLocation(String pickupLocation) {
+        this.pickupLocation = pickupLocation;
+    }
+
+    public String getDropLocation() {
+        return dropLocation;
+    }
+
+    public void setDropLocation(String dropLocation) {
+        this.dropLocation = dropLocation;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BookingStatus status) {
+        this.status = status;
+    }
+
+    public Double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+
+    public enum BookingStatus {
+        PENDING, CONFIRMED, ACTIVE, COMPLETED, CANCELLED, EXPIRED;
+
+        // Statuses that occupy the vehicle for the booked period
+        public boolean blocksVehicle() {
+            return this == PENDING || this == CONFIRMED || this == ACTIVE;
+        }
+
+        // Statuses whose amount counts as earned revenue
+        public boolean isRevenue() {
+            return this == CONFIRMED || this == ACTIVE || this == COMPLETED;
+        }
+    }
+}
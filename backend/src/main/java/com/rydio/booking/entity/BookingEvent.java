@@ -0,0 +1,122 @@
+package com.rydio.booking.entity;
+
+import com.rydio.common.id.SnowflakeIds;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// One state change of a booking. Rows are only ever inserted; ids are taken when the change
+// is appended, so ordering by id replays a booking's changes in the order they happened.
+@Entity
+@Immutable
+@Table(name = "booking_events", indexes = {
+    @Index(name = "idx_booking_events_booking_id", columnList = "booking_id, id")
+})
+public class BookingEvent implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private Long vehicleId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // Null for the event that created the booking
+    @Enumerated(EnumType.STRING)
+    private Booking.BookingStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Booking.BookingStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime startDate;
+
+    @Column(nullable = false)
+    private LocalDateTime endDate;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Stays new until loaded, so a batch that failed to commit is inserted again on retry
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public BookingEvent() {}
+
+    public BookingEvent(Booking booking, Booking.BookingStatus previousStatus) {
+        this.id = SnowflakeIds.next();
+        this.bookingId = booking.getId();
+        this.vehicleId = booking.getVehicle().getId();
+        this.userId = booking.getUser().getId();
+        this.previousStatus = previousStatus;
+        this.status = booking.getStatus();
+        this.startDate = booking.getStartDate();
+        this.endDate = booking.getEndDate();
+        this.amount = booking.getTotalAmount();
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    // Getters
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Booking.BookingStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
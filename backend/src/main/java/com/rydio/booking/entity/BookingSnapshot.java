@@ -0,0 +1,109 @@
+package com.rydio.booking.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// State of a booking after all its events up to lastEventId, folded by the ledger compactor
+@Entity
+@Table(name = "booking_snapshots", indexes = {
+    @Index(name = "idx_booking_snapshots_last_event", columnList = "last_event_id")
+})
+public class BookingSnapshot implements Persistable<Long> {
+
+    @Id
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private Long vehicleId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Booking.BookingStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime startDate;
+
+    @Column(nullable = false)
+    private LocalDateTime endDate;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+    // Keys are the booking ids, so tell Spring Data to insert rather than merge
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public BookingSnapshot() {}
+
+    public BookingSnapshot(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public void apply(BookingEvent event) {
+        this.vehicleId = event.getVehicleId();
+        this.userId = event.getUserId();
+        this.status = event.getStatus();
+        this.startDate = event.getStartDate();
+        this.endDate = event.getEndDate();
+        this.amount = event.getAmount();
+        this.lastEventId = event.getId();
+    }
+
+    @Override
+    public Long getId() {
+        return bookingId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    // Getters
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public Long getLastEventId() {
+        return lastEventId;
+    }
+}
@@ -0,0 +1,36 @@
+package com.rydio.booking.repository;
+
+import com.rydio.booking.entity.BookingEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    
+    List<BookingEvent> findByBookingIdOrderByIdAsc(Long bookingId);
+    
+    List<BookingEvent> findByBookingIdAndIdGreaterThanOrderByIdAsc(Long bookingId, Long afterId);
+    
+    List<BookingEvent> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    
+    List<BookingEvent> findByIdGreaterThanAndIdLessThanOrderByIdAsc(Long afterId, Long beforeId, Limit limit);
+    
+    @Query("SELECT MAX(e.id) FROM BookingEvent e")
+    Optional<Long> findMaxId();
+
+    @Query("SELECT MAX(e.occurredAt) FROM BookingEvent e")
+    Optional<LocalDateTime> findLastOccurredAt();
+    
+    // Status after the latest event of each booking; seeks idx_booking_events_booking_id
+    @Query("SELECT e.bookingId, e.status FROM BookingEvent e WHERE e.bookingId IN :bookingIds " +
+           "AND e.id = (SELECT MAX(l.id) FROM BookingEvent l WHERE l.bookingId = e.bookingId)")
+    List<Object[]> findLatestStatuses(@Param("bookingIds") Collection<Long> bookingIds);
+}
@@ -0,0 +1,82 @@
+package com.rydio.booking.repository;
+
+import com.rydio.booking.dto.BookingInterval;
+import com.rydio.booking.dto.BookingSummary;
+import com.rydio.booking.entity.Booking;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+    
+    @Query("SELECT new com.rydio.booking.dto.BookingInterval(b.id, b.vehicle.id, b.startDate, b.endDate) " +
+           "FROM Booking b WHERE b.status IN :statuses AND b.endDate > :after")
+    List<BookingInterval> findIntervals(@Param("statuses") Collection<Booking.BookingStatus> statuses,
+                                        @Param("after") LocalDateTime after);
+    
+    @Query("SELECT new com.rydio.booking.dto.BookingInterval(b.id, b.vehicle.id, b.startDate, b.endDate) " +
+           "FROM Booking b WHERE b.vehicle.id = :vehicleId AND b.status IN :statuses AND b.endDate > :after")
+    List<BookingInterval> findVehicleIntervals(@Param("vehicleId") Long vehicleId,
+                                               @Param("statuses") Collection<Booking.BookingStatus> statuses,
+                                               @Param("after") LocalDateTime after);
+    
+    @Query("SELECT MAX(b.id) FROM Booking b")
+    Optional<Long> findMaxId();
+    
+    @Query("SELECT b.vehicle.id FROM Booking b WHERE b.id = :id")
+    Optional<Long> findVehicleId(@Param("id") Long id);
+    
+    // History pages seek on idx_bookings_user_history, which also holds every bookings column selected here
+    @Query("SELECT new com.rydio.booking.dto.BookingSummary(b.id, v.id, v.brand, v.model, b.startDate, b.endDate, " +
+           "b.status, b.totalAmount, b.pickupLocation, b.dropLocation) " +
+           "FROM Booking b JOIN b.vehicle v WHERE b.user.id = :userId " +
+           "ORDER BY b.startDate DESC, b.id DESC")
+    List<BookingSummary> findHistory(@Param("userId") Long userId, Limit limit);
+    
+    @Query("SELECT new com.rydio.booking.dto.BookingSummary(b.id, v.id, v.brand, v.model, b.startDate, b.endDate, " +
+           "b.status, b.totalAmount, b.pickupLocation, b.dropLocation) " +
+           "FROM Booking b JOIN b.vehicle v WHERE b.user.id = :userId " +
+           "AND (b.startDate < :startDate OR (b.startDate = :startDate AND b.id < :id)) " +
+           "ORDER BY b.startDate DESC, b.id DESC")
+    List<BookingSummary> findHistoryAfter(@Param("userId") Long userId,
+                                          @Param("startDate") LocalDateTime startDate,
+                                          @Param("id") Long id,
+                                          Limit limit);
+    
+    @Query("SELECT b.id, b.holdExpiresAt FROM Booking b WHERE b.status = :status AND b.holdExpiresAt IS NOT NULL")
+    List<Object[]> findHolds(@Param("status") Booking.BookingStatus status);
+    
+    @Query("SELECT b.id FROM Booking b WHERE b.status = :status AND b.holdExpiresAt < :now ORDER BY b.holdExpiresAt")
+    List<Long> findHoldsExpiredBefore(@Param("status") Booking.BookingStatus status,
+                                      @Param("now") LocalDateTime now,
+                                      Limit limit);
+    
+    // Bookings and revenue per rental start day, for the admin dashboard
+    @Query("SELECT CAST(b.startDate AS LocalDate), COUNT(b), " +
+           "SUM(CASE WHEN b.status IN :revenueStatuses THEN b.totalAmount ELSE 0 END) " +
+           "FROM Booking b WHERE b.status IN :statuses GROUP BY CAST(b.startDate AS LocalDate)")
+    List<Object[]> sumPerStartDay(@Param("statuses") Collection<Booking.BookingStatus> statuses,
+                                  @Param("revenueStatuses") Collection<Booking.BookingStatus> revenueStatuses);
+    
+    long countByStatusIn(Collection<Booking.BookingStatus> statuses);
+    
+    boolean existsByIdAndUserId(Long id, Long userId);
+    
+    boolean existsByVehicleId(Long vehicleId);
+    
+    boolean existsByVehicleIdAndStatusInAndEndDateAfter(Long vehicleId, Collection<Booking.BookingStatus> statuses,
+                                                       LocalDateTime after);
+    
+    List<Booking> findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(LocalDateTime since, Long afterId, Limit limit);
+    
+    @Query("SELECT b FROM Booking b JOIN FETCH b.vehicle WHERE b.id = :id AND b.user.id = :userId")
+    Optional<Booking> findWithVehicleByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+}
@@ -0,0 +1,20 @@
+package com.rydio.booking.repository;
+
+import com.rydio.booking.entity.BookingSnapshot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingSnapshotRepository extends JpaRepository<BookingSnapshot, Long> {
+    
+    // Every event up to this id is folded into the snapshots
+    @Query("SELECT MAX(s.lastEventId) FROM BookingSnapshot s")
+    Optional<Long> findCheckpoint();
+    
+    List<BookingSnapshot> findByBookingIdGreaterThanOrderByBookingIdAsc(Long afterBookingId, Limit limit);
+}
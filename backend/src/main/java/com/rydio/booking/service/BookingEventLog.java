@@ -0,0 +1,226 @@
+package com.rydio.booking.service;
+
+import com.rydio.booking.entity.Booking;
+import com.rydio.booking.entity.BookingEvent;
+import com.rydio.booking.entity.BookingSnapshot;
+import com.rydio.booking.repository.BookingEventRepository;
+import com.rydio.booking.repository.BookingRepository;
+import com.rydio.booking.repository.BookingSnapshotRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only log of booking state changes. {@link BookingService} appends an event after
+ * each committed change, and a single writer thread inserts queued events in batches, then
+ * hands them to the {@link BookingProjection}s in order.
+ *
+ * Events are written behind the booking transaction, so a crash can lose the last few
+ * unwritten events. At startup, bookings changed since the last written event are compared
+ * with their latest event, and a booking whose status differs gets one event from the logged
+ * status to its current one. The bookings table only holds current state, so if several
+ * changes of one booking were lost (say PENDING to CONFIRMED to CANCELLED), the recovered
+ * event records a single jump (PENDING to CANCELLED) and the steps in between are not
+ * reconstructed.
+ */
+@Service
+public class BookingEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingEventLog.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Autowired
+    private BookingEventRepository eventRepository;
+
+    @Autowired
+    private BookingSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private List<BookingProjection> projections;
+
+    @Value("${app.booking.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.booking.events.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.booking.events.queue-capacity:100000}")
+    private int queueCapacity;
+
+    private BlockingQueue<BookingEvent> queue;
+    // Ids of events queued or being written; they keep the ids they got at creation, however
+    // long the write takes
+    private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+    private Thread writer;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void init() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        rebuildProjections();
+        appendMissedEvents();
+        writer = new Thread(this::writeLoop, "booking-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // The writer drains the queue before it exits
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    // Blocks when the writer falls too far behind
+    public void append(BookingEvent event) {
+        pending.add(event.getId());
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            pending.remove(event.getId());
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while logging {} event for booking {}", event.getStatus(), event.getBookingId());
+        }
+    }
+
+    /**
+     * Smallest id of an event that was appended but is not written yet, or Long.MAX_VALUE if
+     * there is none. Events below it are all in the table.
+     */
+    public long lowWaterMark() {
+        Long first = pending.ceiling(Long.MIN_VALUE);
+        return first != null ? first : Long.MAX_VALUE;
+    }
+
+    public List<BookingEvent> history(Long bookingId) {
+        return eventRepository.findByBookingIdOrderByIdAsc(bookingId);
+    }
+
+    private void writeLoop() {
+        List<BookingEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                BookingEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to dispatch booking events", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<BookingEvent> batch) throws InterruptedException {
+        write(batch);
+        batch.forEach(event -> pending.remove(event.getId()));
+        batch.forEach(event -> projections.forEach(projection -> projection.apply(event)));
+    }
+
+    // Keeps retrying: dropping the batch would leave a gap in the log
+    private void write(List<BookingEvent> batch) throws InterruptedException {
+        for (long backoffMs = 100; ; backoffMs = Math.min(backoffMs * 2, 10_000)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> eventRepository.saveAll(batch));
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} booking events, retrying in {} ms", batch.size(), backoffMs, e);
+                Thread.sleep(backoffMs);
+            }
+        }
+    }
+
+    // Also used after bookings were bulk loaded behind the log's back, together with their snapshots
+    public void rebuildProjections() {
+        projections.forEach(BookingProjection::reset);
+        long checkpoint = snapshotRepository.findCheckpoint().orElse(0L);
+
+        int snapshots = 0;
+        long lastBookingId = Long.MIN_VALUE;
+        List<BookingSnapshot> snapshotChunk;
+        while (!(snapshotChunk = snapshotRepository.findByBookingIdGreaterThanOrderByBookingIdAsc(
+                lastBookingId, Limit.of(CHUNK_SIZE))).isEmpty()) {
+            snapshotChunk.forEach(snapshot -> projections.forEach(projection -> projection.load(snapshot)));
+            snapshots += snapshotChunk.size();
+            lastBookingId = snapshotChunk.get(snapshotChunk.size() - 1).getBookingId();
+        }
+
+        // Only events after the snapshots are replayed
+        int events = 0;
+        List<BookingEvent> eventChunk;
+        while (!(eventChunk = eventRepository.findByIdGreaterThanOrderByIdAsc(checkpoint, Limit.of(CHUNK_SIZE))).isEmpty()) {
+            eventChunk.forEach(event -> projections.forEach(projection -> projection.apply(event)));
+            events += eventChunk.size();
+            checkpoint = eventChunk.get(eventChunk.size() - 1).getId();
+        }
+        log.info("Booking projections rebuilt from {} snapshots and {} events", snapshots, events);
+    }
+
+    // Written directly, a chunk at a time: the writer has not started yet, so queuing a backlog
+    // larger than the queue would block startup
+    private void appendMissedEvents() {
+        // Bookings saved shortly before the last written event may still have had events queued
+        LocalDateTime since = eventRepository.findLastOccurredAt().map(last -> last.minusMinutes(1)).orElse(BEGINNING);
+        int appended = 0;
+        long lastId = Long.MIN_VALUE;
+        List<Booking> chunk;
+        while (!(chunk = bookingRepository.findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+                since, lastId, Limit.of(CHUNK_SIZE))).isEmpty()) {
+            Map<Long, Booking.BookingStatus> logged = new HashMap<>();
+            for (Object[] row : eventRepository.findLatestStatuses(chunk.stream().map(Booking::getId).toList())) {
+                logged.put((Long) row[0], (Booking.BookingStatus) row[1]);
+            }
+            List<BookingEvent> missing = new ArrayList<>();
+            for (Booking booking : chunk) {
+                Booking.BookingStatus previous = logged.get(booking.getId());
+                if (previous != booking.getStatus()) {
+                    missing.add(new BookingEvent(booking, previous));
+                }
+            }
+            if (!missing.isEmpty()) {
+                try {
+                    dispatch(missing);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while appending missed booking events", e);
+                }
+                appended += missing.size();
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
+        }
+        if (appended > 0) {
+            log.warn("Appended {} booking events missing from the log", appended);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.rydio.booking.service;
+
+import com.rydio.booking.dto.BookingResponse;
+import com.rydio.booking.dto.CreateBookingRequest;
+import com.rydio.booking.entity.Booking;
+import com.rydio.common.exception.ResourceNotFoundException;
+import com.rydio.common.scheduling.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Temporary holds that reserve a vehicle while the customer pays. A hold is a PENDING booking
+ * with an expiry time, so it blocks the vehicle like any booking and survives restarts. Its
+ * expiry is scheduled on a {@link TimingWheel}, and pending holds are scheduled again from the
+ * database at startup. A slow sweep of the bookings table (app.booking.hold-sweep-seconds)
+ * expires overdue holds that are on no wheel, such as those of an instance that has stopped.
+ */
+@Service
+public class BookingHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingHoldService.class);
+
+    private static final long RETRY_DELAY_MS = 1000;
+    private static final int SWEEP_BATCH = 500;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Value("${app.booking.hold-minutes:10}")
+    private long holdMinutes;
+
+    @Value("${app.booking.hold-tick-ms:100}")
+    private long tickMs;
+
+    @Value("${app.booking.hold-expiry-threads:2}")
+    private int expiryThreads;
+
+    @Value("${app.booking.hold-sweep-seconds:60}")
+    private long sweepSeconds;
+
+    private final Map<Long, TimingWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+    private ExecutorService expiryExecutor;
+    private TimingWheel wheel;
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        expiryExecutor = Executors.newFixedThreadPool(expiryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        wheel = new TimingWheel("hold-timer", tickMs, TimeUnit.MILLISECONDS, 64, 4, expiryExecutor);
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepOverdue, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+        wheel.stop();
+        expiryExecutor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleStoredHolds() {
+        List<Object[]> holds = bookingService.findPendingHolds();
+        for (Object[] hold : holds) {
+            schedule((Long) hold[0], (LocalDateTime) hold[1]);
+        }
+        log.info("Scheduled expiry of {} pending holds", holds.size());
+    }
+
+    public BookingResponse createHold(CreateBookingRequest request, Long userId) {
+        BookingResponse hold = bookingService.createHold(request, userId, LocalDateTime.now().plusMinutes(holdMinutes));
+        schedule(hold.getId(), LocalDateTime.parse(hold.getHoldExpiresAt()));
+        return hold;
+    }
+
+    public BookingResponse confirmHold(Long bookingId, Long userId) {
+        BookingResponse booking = bookingService.confirmHold(bookingId, userId);
+        TimingWheel.Timeout timeout = timeouts.remove(bookingId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        return booking;
+    }
+
+    private void schedule(Long bookingId, LocalDateTime expiresAt) {
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toMillis());
+        scheduleIn(bookingId, delayMs);
+    }
+
+    private void scheduleIn(Long bookingId, long delayMs) {
+        TimingWheel.Timeout previous = timeouts.put(bookingId,
+                wheel.schedule(() -> expire(bookingId), delayMs, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    // Holds already on this wheel are left to it; the rest are expired now
+    private void sweepOverdue() {
+        try {
+            int swept = 0;
+            for (Long bookingId : bookingService.findOverdueHolds(LocalDateTime.now(), SWEEP_BATCH)) {
+                if (!timeouts.containsKey(bookingId)) {
+                    expiryExecutor.execute(() -> expire(bookingId));
+                    swept++;
+                }
+            }
+            if (swept > 0) {
+                log.info("Expiring {} overdue holds found by the sweep", swept);
+            }
+        } catch (Exception e) {
+            log.warn("Hold sweep failed", e);
+        }
+    }
+
+    private void expire(Long bookingId) {
+        timeouts.remove(bookingId);
+        try {
+            BookingResponse booking = bookingService.expireHold(bookingId);
+            // The wall clock can lag the wheel slightly; check again once the hold is really due
+            if (booking.getStatus() == Booking.BookingStatus.PENDING && booking.getHoldExpiresAt() != null) {
+                schedule(bookingId, LocalDateTime.parse(booking.getHoldExpiresAt()));
+            }
+        } catch (ResourceNotFoundException e) {
+            log.debug("Hold {} no longer exists", bookingId);
+        } catch (Exception e) {
+            log.warn("Could not expire hold {}, retrying", bookingId, e);
+            scheduleIn(bookingId, RETRY_DELAY_MS);
+        }
+    }
+}
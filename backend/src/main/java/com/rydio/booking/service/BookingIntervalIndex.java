@@ -0,0 +1,162 @@
+package com.rydio.booking.service;
+
+import com.rydio.booking.dto.BookingInterval;
+import com.rydio.booking.entity.Booking;
+import com.rydio.booking.repository.BookingRepository;
+import com.rydio.vehicle.repository.VehicleRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory calendar of committed bookings per vehicle, used for conflict checks instead of
+ * querying the bookings table.
+ *
+ * Bookings of one vehicle never overlap, so each vehicle's calendar is a set of disjoint
+ * ranges sorted by start. The only range that can overlap [start, end) is the last one
+ * starting before {@code end}, which makes a conflict check a single O(log n) lookup.
+ *
+ * Each calendar remembers the vehicle's booking version it reflects. {@link BookingService}
+ * only books against a calendar whose version still matches the database, and changes
+ * calendars while holding the vehicle's lock, after the database change committed.
+ */
+@Component
+public class BookingIntervalIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingIntervalIndex.class);
+
+    public static final long UNKNOWN_VERSION = -1;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private DayAvailabilityIndex dayIndex;
+
+    private final Map<Long, Calendar> calendars = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        calendars.clear();
+        dayIndex.clear();
+        // Versions are read before bookings: a booking committed in between only makes a
+        // calendar look stale, which is resolved by reloading that vehicle
+        for (Object[] row : vehicleRepository.findAllBookingVersions()) {
+            calendars.put((Long) row[0], new Calendar((Long) row[1]));
+        }
+        List<BookingInterval> intervals = bookingRepository.findIntervals(blockingStatuses(), LocalDateTime.now());
+        for (BookingInterval interval : intervals) {
+            calendars.computeIfAbsent(interval.getVehicleId(), id -> new Calendar(UNKNOWN_VERSION))
+                    .bookings.put(interval.getStart(), interval);
+        }
+        intervals.forEach(this::syncDays);
+        log.info("Booking interval index rebuilt with {} bookings across {} vehicles",
+                intervals.size(), calendars.size());
+    }
+
+    public static List<Booking.BookingStatus> blockingStatuses() {
+        return Arrays.stream(Booking.BookingStatus.values())
+                .filter(Booking.BookingStatus::blocksVehicle)
+                .toList();
+    }
+
+    public boolean isAvailable(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        return findConflict(vehicleId, start, end) == null;
+    }
+
+    public BookingInterval findConflict(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        Calendar calendar = calendars.get(vehicleId);
+        if (calendar == null) {
+            return null;
+        }
+        Map.Entry<LocalDateTime, BookingInterval> candidate = calendar.bookings.lowerEntry(end);
+        if (candidate != null && candidate.getValue().getEnd().isAfter(start)) {
+            return candidate.getValue();
+        }
+        return null;
+    }
+
+    public long version(Long vehicleId) {
+        Calendar calendar = calendars.get(vehicleId);
+        return calendar == null ? UNKNOWN_VERSION : calendar.version;
+    }
+
+    public void add(BookingInterval interval, long version) {
+        Calendar calendar = calendars.computeIfAbsent(interval.getVehicleId(), id -> new Calendar(UNKNOWN_VERSION));
+        calendar.bookings.put(interval.getStart(), interval);
+        calendar.version = version;
+        syncDays(interval);
+    }
+
+    public void remove(BookingInterval interval, long version) {
+        Calendar calendar = calendars.get(interval.getVehicleId());
+        if (calendar != null) {
+            // Only remove the entry if it still belongs to this booking
+            calendar.bookings.computeIfPresent(interval.getStart(),
+                    (start, existing) -> existing.getBookingId().equals(interval.getBookingId()) ? null : existing);
+            calendar.version = version;
+            syncDays(interval);
+        }
+    }
+
+    // Records a calendar change that kept the same bookings, such as a hold being confirmed
+    public void advance(Long vehicleId, long version) {
+        Calendar calendar = calendars.get(vehicleId);
+        if (calendar != null) {
+            calendar.version = version;
+        }
+    }
+
+    public void replace(Long vehicleId, long version, Collection<BookingInterval> intervals) {
+        Calendar calendar = new Calendar(version);
+        intervals.forEach(interval -> calendar.bookings.put(interval.getStart(), interval));
+        Calendar previous = calendars.put(vehicleId, calendar);
+        if (previous != null) {
+            previous.bookings.values().forEach(this::syncDays);
+        }
+        intervals.forEach(this::syncDays);
+    }
+
+    // Drops a deleted vehicle's calendar and its bits in the day index
+    public void removeVehicle(Long vehicleId) {
+        Calendar previous = calendars.remove(vehicleId);
+        if (previous != null) {
+            previous.bookings.values().forEach(this::syncDays);
+        }
+    }
+
+    public List<BookingInterval> bookingsFor(Long vehicleId) {
+        Calendar calendar = calendars.get(vehicleId);
+        return calendar == null ? List.of() : List.copyOf(calendar.bookings.values());
+    }
+
+    // Days of the interval stay marked in the day index while any booking still touches them
+    private void syncDays(BookingInterval interval) {
+        Long vehicleId = interval.getVehicleId();
+        dayIndex.update(vehicleId, interval.getStart(), interval.getEnd(),
+                day -> findConflict(vehicleId, day.atStartOfDay(), day.plusDays(1).atStartOfDay()) != null);
+    }
+
+    private static final class Calendar {
+        private final ConcurrentNavigableMap<LocalDateTime, BookingInterval> bookings = new ConcurrentSkipListMap<>();
+        private volatile long version;
+
+        Calendar(long version) {
+            this.version = version;
+        }
+    }
+}
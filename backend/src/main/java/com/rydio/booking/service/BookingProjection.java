@@ -0,0 +1,18 @@
+package com.rydio.booking.service;
+
+import com.rydio.booking.entity.BookingEvent;
+import com.rydio.booking.entity.BookingSnapshot;
+
+/**
+ * Read model derived from the booking event log. At startup a projection is rebuilt from
+ * the snapshots plus the events after them; from then on it receives each event once it is
+ * written. All calls come from a single thread, but reads may happen on any thread.
+ */
+public interface BookingProjection {
+
+    void reset();
+
+    void load(BookingSnapshot snapshot);
+
+    void apply(BookingEvent event);
+}
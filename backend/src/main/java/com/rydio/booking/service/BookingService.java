@@ -0,0 +1,368 @@
+package com.rydio.booking.service;
+
+import com.rydio.booking.dto.BookingAuditResponse;
+import com.rydio.booking.dto.BookingEventResponse;
+import com.rydio.booking.dto.BookingHistoryPage;
+import com.rydio.booking.dto.BookingInterval;
+import com.rydio.booking.dto.BookingResponse;
+import com.rydio.booking.dto.BookingSummary;
+import com.rydio.booking.dto.CreateBookingRequest;
+import com.rydio.booking.dto.UserBookingSummary;
+import com.rydio.booking.entity.Booking;
+import com.rydio.booking.entity.BookingEvent;
+import com.rydio.booking.repository.BookingRepository;
+import com.rydio.common.exception.BadRequestException;
+import com.rydio.common.exception.ConflictException;
+import com.rydio.common.exception.ResourceNotFoundException;
+import com.rydio.common.util.DateTimes;
+import com.rydio.pricing.service.PricingService;
+import com.rydio.user.entity.User;
+import com.rydio.user.repository.UserRepository;
+import com.rydio.vehicle.entity.Vehicle;
+import com.rydio.vehicle.repository.VehicleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Creates and cancels bookings. Changes to one vehicle's calendar are serialized by a striped
+ * lock held across the whole transaction, including the index update after commit, so
+ * bookings of different vehicles never wait on each other. The lock only covers this node:
+ * the final arbiter is a conditional update of the vehicle's booking version, which fails if
+ * any other writer changed the calendar since this node's index last saw it.
+ */
+@Service
+public class BookingService {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+
+    @Autowired
+    private VehicleLocks vehicleLocks;
+
+    @Autowired
+    private BookingEventLog eventLog;
+
+    @Autowired
+    private BookingSnapshotService snapshotService;
+
+    @Autowired
+    private UserBookingHistoryProjection historyProjection;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public BookingResponse createBooking(CreateBookingRequest request, Long userId) {
+        return create(request, userId, null);
+    }
+
+    // A hold occupies the vehicle like a booking but stays PENDING until confirmed or expired
+    public BookingResponse createHold(CreateBookingRequest request, Long userId, LocalDateTime holdExpiresAt) {
+        return create(request, userId, holdExpiresAt);
+    }
+
+    public BookingResponse confirmHold(Long bookingId, Long userId) {
+        Long vehicleId = bookingRepository.findVehicleId(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+        return changeCalendar(vehicleId, () -> tryConfirm(bookingId, userId));
+    }
+
+    // Releases the vehicle if the booking is still an expired hold; otherwise leaves it alone
+    public BookingResponse expireHold(Long bookingId) {
+        Long vehicleId = bookingRepository.findVehicleId(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+        return changeCalendar(vehicleId, () -> tryExpire(bookingId));
+    }
+
+    public List<Object[]> findPendingHolds() {
+        return bookingRepository.findHolds(Booking.BookingStatus.PENDING);
+    }
+
+    public List<Long> findOverdueHolds(LocalDateTime now, int limit) {
+        return bookingRepository.findHoldsExpiredBefore(Booking.BookingStatus.PENDING, now, Limit.of(limit));
+    }
+
+    private BookingResponse create(CreateBookingRequest request, Long userId, LocalDateTime holdExpiresAt) {
+        LocalDateTime start = DateTimes.parse(request.getStartDate());
+        LocalDateTime end = DateTimes.parse(request.getEndDate());
+        if (!end.isAfter(start)) {
+            throw new BadRequestException("End date must be after start date");
+        }
+        if (end.isBefore(LocalDateTime.now())) {
+            throw new BadRequestException("Booking period has already ended");
+        }
+        return changeCalendar(request.getVehicleId(), () -> tryCreate(request, userId, start, end, holdExpiresAt));
+    }
+
+    public BookingHistoryPage getUserBookings(Long userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // One extra row tells whether another page follows
+        Limit fetch = Limit.of(pageSize + 1);
+        List<BookingSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = bookingRepository.findHistory(userId, fetch);
+        } else {
+            String[] position = decodeCursor(cursor);
+            rows = bookingRepository.findHistoryAfter(userId, LocalDateTime.parse(position[0]),
+                    Long.parseLong(position[1]), fetch);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new BookingHistoryPage(rows, null);
+        }
+        List<BookingSummary> page = rows.subList(0, pageSize);
+        BookingSummary last = page.get(pageSize - 1);
+        return new BookingHistoryPage(page, encodeCursor(last.getStartDate(), last.getId()));
+    }
+
+    public BookingResponse getBookingDetails(Long bookingId, Long userId) {
+        return bookingRepository.findWithVehicleByIdAndUserId(bookingId, userId)
+                .map(BookingResponse::new)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+    }
+
+    public BookingAuditResponse getBookingAudit(Long bookingId, Long userId) {
+        if (!bookingRepository.existsByIdAndUserId(bookingId, userId)) {
+            throw new ResourceNotFoundException("Booking not found with id: " + bookingId);
+        }
+        List<BookingEventResponse> events = eventLog.history(bookingId).stream().map(BookingEventResponse::new).toList();
+        return snapshotService.currentState(bookingId)
+                .map(state -> new BookingAuditResponse(bookingId, state.getStatus(), state.getLastEventId(), events))
+                .orElseGet(() -> new BookingAuditResponse(bookingId, null, null, events));
+    }
+
+    public UserBookingSummary getUserSummary(Long userId) {
+        return historyProjection.summary(userId);
+    }
+
+    public BookingResponse cancelBooking(Long bookingId, Long userId) {
+        Long vehicleId = bookingRepository.findVehicleId(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+        return changeCalendar(vehicleId, () -> tryCancel(bookingId, userId));
+    }
+
+    // Runs one calendar change under the vehicle's lock. An attempt returns null when the
+    // index turned out to be stale; the calendar is then reloaded and the change retried.
+    private BookingResponse changeCalendar(Long vehicleId, Supplier<BookingResponse> attempt) {
+        ReentrantLock lock = vehicleLocks.acquire(vehicleId);
+        try {
+            for (int i = 0; i < MAX_ATTEMPTS; i++) {
+                BookingResponse response = transactionTemplate.execute(status -> attempt.get());
+                if (response != null) {
+                    return response;
+                }
+                reloadCalendar(vehicleId);
+            }
+            throw new ConflictException("Vehicle calendar is changing, please retry");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private BookingResponse tryCreate(CreateBookingRequest request, Long userId,
+                                      LocalDateTime start, LocalDateTime end, LocalDateTime holdExpiresAt) {
+        Vehicle vehicle = vehicleRepository.findById(request.getVehicleId())
+                .orElseThrow(() -> new ResourceNotFoundException("Vehicle not found with id: " + request.getVehicleId()));
+        if (vehicle.getStatus() == Vehicle.VehicleStatus.MAINTENANCE
+                || vehicle.getStatus() == Vehicle.VehicleStatus.INACTIVE) {
+            throw new BadRequestException("Vehicle is not available for booking");
+        }
+
+        long version = intervalIndex.version(vehicle.getId());
+        // Conflict check against the in-memory calendar, not the bookings table. A stale calendar
+        // fails the conditional update below, but may also show a conflict that is already gone,
+        // so the version is checked before refusing. The cached vehicle's copy of it may be old.
+        if (!intervalIndex.isAvailable(vehicle.getId(), start, end)) {
+            long current = vehicleRepository.findBookingVersion(vehicle.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Vehicle not found with id: " + vehicle.getId()));
+            if (current != version) {
+                return null;
+            }
+            throw new ConflictException("Vehicle is already booked for the selected dates");
+        }
+        if (vehicleRepository.advanceBookingVersion(vehicle.getId(), version) == 0) {
+            return null;
+        }
+
+        User user = userRepository.getReferenceById(userId);
+
+        Booking booking = new Booking();
+        booking.setVehicle(vehicle);
+        booking.setUser(user);
+        booking.setStartDate(start);
+        booking.setEndDate(end);
+        booking.setPickupLocation(request.getPickupLocation());
+        booking.setDropLocation(request.getDropLocation());
+        booking.setNotes(request.getNotes());
+        booking.setStatus(holdExpiresAt == null ? Booking.BookingStatus.CONFIRMED : Booking.BookingStatus.PENDING);
+        booking.setHoldExpiresAt(holdExpiresAt);
+        booking.setTotalAmount(pricingService.quote(vehicle, start, end).getTotalAmount());
+
+        Booking savedBooking = bookingRepository.save(booking);
+        BookingInterval interval = toInterval(savedBooking);
+        BookingEvent event = new BookingEvent(savedBooking, null);
+        afterCommit(() -> {
+            intervalIndex.add(interval, version + 1);
+            eventLog.append(event);
+        });
+        return new BookingResponse(savedBooking);
+    }
+
+    private BookingResponse tryCancel(Long bookingId, Long userId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+
+        if (!booking.getUser().getId().equals(userId)) {
+            throw new BadRequestException("You can only cancel your own bookings");
+        }
+        if (!booking.getStatus().blocksVehicle()) {
+            throw new BadRequestException("Booking cannot be cancelled in status " + booking.getStatus());
+        }
+
+        Long vehicleId = booking.getVehicle().getId();
+        long version = intervalIndex.version(vehicleId);
+        if (vehicleRepository.advanceBookingVersion(vehicleId, version) == 0) {
+            return null;
+        }
+
+        Booking.BookingStatus previousStatus = booking.getStatus();
+        booking.setStatus(Booking.BookingStatus.CANCELLED);
+        booking.setHoldExpiresAt(null);
+        Booking savedBooking = bookingRepository.save(booking);
+        BookingInterval interval = toInterval(savedBooking);
+        BookingEvent event = new BookingEvent(savedBooking, previousStatus);
+        afterCommit(() -> {
+            intervalIndex.remove(interval, version + 1);
+            eventLog.append(event);
+        });
+        return new BookingResponse(savedBooking);
+    }
+
+    // Confirming does not change the calendar, but still advances the version so that a
+    // confirmation and an expiry of the same hold on different nodes cannot both succeed
+    private BookingResponse tryConfirm(Long bookingId, Long userId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+
+        if (!booking.getUser().getId().equals(userId)) {
+            throw new BadRequestException("You can only confirm your own bookings");
+        }
+        if (booking.getStatus() != Booking.BookingStatus.PENDING || booking.getHoldExpiresAt() == null) {
+            throw new BadRequestException("Booking is not an active hold");
+        }
+        if (!booking.getHoldExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new ConflictException("Hold has expired");
+        }
+
+        Long vehicleId = booking.getVehicle().getId();
+        long version = intervalIndex.version(vehicleId);
+        if (vehicleRepository.advanceBookingVersion(vehicleId, version) == 0) {
+            return null;
+        }
+
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        booking.setHoldExpiresAt(null);
+        Booking savedBooking = bookingRepository.save(booking);
+        BookingEvent event = new BookingEvent(savedBooking, Booking.BookingStatus.PENDING);
+        afterCommit(() -> {
+            intervalIndex.advance(vehicleId, version + 1);
+            eventLog.append(event);
+        });
+        return new BookingResponse(savedBooking);
+    }
+
+    private BookingResponse tryExpire(Long bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+        if (booking.getStatus() != Booking.BookingStatus.PENDING || booking.getHoldExpiresAt() == null
+                || booking.getHoldExpiresAt().isAfter(LocalDateTime.now())) {
+            return new BookingResponse(booking);
+        }
+
+        Long vehicleId = booking.getVehicle().getId();
+        long version = intervalIndex.version(vehicleId);
+        if (vehicleRepository.advanceBookingVersion(vehicleId, version) == 0) {
+            return null;
+        }
+
+        booking.setStatus(Booking.BookingStatus.EXPIRED);
+        Booking savedBooking = bookingRepository.save(booking);
+        BookingInterval interval = toInterval(savedBooking);
+        BookingEvent event = new BookingEvent(savedBooking, Booking.BookingStatus.PENDING);
+        afterCommit(() -> {
+            intervalIndex.remove(interval, version + 1);
+            eventLog.append(event);
+        });
+        return new BookingResponse(savedBooking);
+    }
+
+    private void reloadCalendar(Long vehicleId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Version first: a booking committed in between makes the calendar look stale, never fresh
+            long version = vehicleRepository.findBookingVersion(vehicleId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Vehicle not found with id: " + vehicleId));
+            List<BookingInterval> intervals = bookingRepository.findVehicleIntervals(
+                    vehicleId, BookingIntervalIndex.blockingStatuses(), LocalDateTime.now());
+            intervalIndex.replace(vehicleId, version, intervals);
+        });
+    }
+
+    // Index changes are applied only once the database change is durable
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String encodeCursor(String startDate, Long id) {
+        String position = startDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    private BookingInterval toInterval(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getVehicle().getId(),
+                booking.getStartDate(), booking.getEndDate());
+    }
+}
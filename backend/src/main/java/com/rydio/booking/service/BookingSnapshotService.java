@@ -0,0 +1,142 @@
+package com.rydio.booking.service;
+
+import com.rydio.booking.entity.BookingEvent;
+import com.rydio.booking.entity.BookingSnapshot;
+import com.rydio.booking.repository.BookingEventRepository;
+import com.rydio.booking.repository.BookingSnapshotRepository;
+import com.rydio.common.id.SnowflakeIds;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically folds new booking events into one snapshot row per booking, so reading a
+ * booking's current state, or rebuilding the projections, only replays the events written
+ * since the last compaction. Events themselves are kept as the audit trail.
+ */
+@Service
+public class BookingSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSnapshotService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    // Covers events whose ids are taken but which are not appended to the log yet; those
+    // already appended are held back by the log's low-water mark
+    private static final Duration SETTLE_TIME = Duration.ofMinutes(1);
+
+    @Autowired
+    private BookingEventRepository eventRepository;
+
+    @Autowired
+    private BookingSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingEventLog eventLog;
+
+    @Value("${app.booking.events.snapshot-interval-minutes:5}")
+    private long snapshotIntervalMinutes;
+
+    private ScheduledExecutorService compactor;
+
+    @PostConstruct
+    public void init() {
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactSafely, snapshotIntervalMinutes, snapshotIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+
+    // Snapshot plus the booking's events after it; empty if the booking has no events yet
+    public Optional<BookingSnapshot> currentState(Long bookingId) {
+        Optional<BookingSnapshot> snapshot = snapshotRepository.findById(bookingId);
+        List<BookingEvent> events = snapshot
+                .map(s -> eventRepository.findByBookingIdAndIdGreaterThanOrderByIdAsc(bookingId, s.getLastEventId()))
+                .orElseGet(() -> eventRepository.findByBookingIdOrderByIdAsc(bookingId));
+        if (events.isEmpty()) {
+            return snapshot;
+        }
+        BookingSnapshot state = snapshot.orElseGet(() -> new BookingSnapshot(bookingId));
+        events.forEach(state::apply);
+        return Optional.of(state);
+    }
+
+    public int compact() {
+        int folded = 0;
+        // Events are written in batches, and a failed batch is retried until the database is
+        // back, so an unwritten event can be far older than the settle time. The checkpoint must
+        // not pass it, or replays after the checkpoint would never see it.
+        long before = Math.min(SnowflakeIds.firstIdAt(Instant.now().minus(SETTLE_TIME)), eventLog.lowWaterMark());
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> compactChunk(before));
+            if (count == null || count == 0) {
+                return folded;
+            }
+            folded += count;
+        }
+    }
+
+    private int compactChunk(long before) {
+        long checkpoint = snapshotRepository.findCheckpoint().orElse(0L);
+        List<BookingEvent> events = eventRepository.findByIdGreaterThanAndIdLessThanOrderByIdAsc(
+                checkpoint, before, Limit.of(CHUNK_SIZE));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        Map<Long, BookingSnapshot> snapshots = snapshotRepository
+                .findAllById(events.stream().map(BookingEvent::getBookingId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(BookingSnapshot::getBookingId, Function.identity()));
+
+        List<BookingSnapshot> created = new ArrayList<>();
+        for (BookingEvent event : events) {
+            BookingSnapshot snapshot = snapshots.computeIfAbsent(event.getBookingId(), id -> {
+                BookingSnapshot fresh = new BookingSnapshot(id);
+                created.add(fresh);
+                return fresh;
+            });
+            snapshot.apply(event);
+        }
+        // Loaded snapshots are updated on flush; new ones are inserted
+        snapshotRepository.saveAll(created);
+        return events.size();
+    }
+
+    private void compactSafely() {
+        try {
+            int folded = compact();
+            if (folded > 0) {
+                log.info("Folded {} booking events into snapshots", folded);
+            }
+        } catch (Exception e) {
+            log.warn("Booking snapshot compaction failed", e);
+        }
+    }
+}
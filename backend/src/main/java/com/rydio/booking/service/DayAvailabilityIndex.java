@@ -0,0 +1,100 @@
+package com.rydio.booking.service;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * One compressed bitmap of vehicle ids per calendar day, with a bit set when the vehicle has
+ * any booking touching that day. "Free from X to Y" is the union of the days' bitmaps
+ * subtracted from the candidate vehicles, so a date-range search costs a few bitmap
+ * operations regardless of how many bookings exist.
+ *
+ * Each day's bitmap is changed in place under that day's write lock, and readers take the
+ * read lock only while they OR or probe it, so a booking costs one bit flip per day rather
+ * than a copy of the whole fleet's bitmap. Kept in step with {@link BookingIntervalIndex}.
+ */
+@Component
+public class DayAvailabilityIndex {
+
+    private final ConcurrentNavigableMap<LocalDate, Day> bookedByDay = new ConcurrentSkipListMap<>();
+
+    public void clear() {
+        bookedByDay.clear();
+    }
+
+    // Re-evaluates every day touched by [start, end) against the vehicle's calendar. Days stay
+    // in the map once created, even when their bitmap empties, so no writer is left holding a
+    // day that has been replaced.
+    public void update(Long vehicleId, LocalDateTime start, LocalDateTime end, Predicate<LocalDate> booked) {
+        int id = bitOf(vehicleId);
+        LocalDate last = lastDay(end);
+        for (LocalDate day = start.toLocalDate(); !day.isAfter(last); day = day.plusDays(1)) {
+            boolean set = booked.test(day);
+            Day entry = set ? bookedByDay.computeIfAbsent(day, d -> new Day()) : bookedByDay.get(day);
+            if (entry == null) {
+                continue;
+            }
+            entry.lock.writeLock().lock();
+            try {
+                if (set) {
+                    entry.vehicles.add(id);
+                } else {
+                    entry.vehicles.remove(id);
+                }
+            } finally {
+                entry.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Vehicles with a booking on any day in [from, toExclusive)
+    public RoaringBitmap bookedBetween(LocalDate from, LocalDate toExclusive) {
+        RoaringBitmap booked = new RoaringBitmap();
+        for (Day entry : bookedByDay.subMap(from, true, toExclusive, false).values()) {
+            entry.lock.readLock().lock();
+            try {
+                booked.or(entry.vehicles);
+            } finally {
+                entry.lock.readLock().unlock();
+            }
+        }
+        return booked;
+    }
+
+    public boolean isFree(Long vehicleId, LocalDate from, LocalDate toExclusive) {
+        int id = bitOf(vehicleId);
+        for (Day entry : bookedByDay.subMap(from, true, toExclusive, false).values()) {
+            entry.lock.readLock().lock();
+            try {
+                if (entry.vehicles.contains(id)) {
+                    return false;
+                }
+            } finally {
+                entry.lock.readLock().unlock();
+            }
+        }
+        return true;
+    }
+
+    public static int bitOf(Long vehicleId) {
+        return Math.toIntExact(vehicleId);
+    }
+
+    // A booking ending exactly at midnight does not touch that day
+    private static LocalDate lastDay(LocalDateTime end) {
+        return end.minusNanos(1).toLocalDate();
+    }
+
+    private static final class Day {
+        private final RoaringBitmap vehicles = new RoaringBitmap();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+}
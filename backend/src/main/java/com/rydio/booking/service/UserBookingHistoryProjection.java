@@ -0,0 +1,62 @@
+package com.rydio.booking.service;
+
+import com.rydio.booking.dto.UserBookingSummary;
+import com.rydio.booking.entity.Booking;
+import com.rydio.booking.entity.BookingEvent;
+import com.rydio.booking.entity.BookingSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-user booking counts and spend, kept current from the booking event log
+@Component
+public class UserBookingHistoryProjection implements BookingProjection {
+
+    private final Map<Long, Totals> totals = new ConcurrentHashMap<>();
+
+    @Override
+    public void reset() {
+        totals.clear();
+    }
+
+    @Override
+    public void load(BookingSnapshot snapshot) {
+        add(snapshot.getUserId(), null, snapshot.getStatus(), snapshot.getAmount());
+    }
+
+    @Override
+    public void apply(BookingEvent event) {
+        add(event.getUserId(), event.getPreviousStatus(), event.getStatus(), event.getAmount());
+    }
+
+    public UserBookingSummary summary(Long userId) {
+        Totals user = totals.get(userId);
+        if (user == null) {
+            return new UserBookingSummary(userId, 0, 0, 0.0);
+        }
+        return new UserBookingSummary(userId, user.bookings.sum(), user.active.sum(),
+                Math.round(user.spent.sum() * 100) / 100.0);
+    }
+
+    private void add(Long userId, Booking.BookingStatus from, Booking.BookingStatus to, double amount) {
+        Totals user = totals.computeIfAbsent(userId, id -> new Totals());
+        if (from == null) {
+            user.bookings.increment();
+        }
+        user.active.add(count(to.blocksVehicle()) - count(from != null && from.blocksVehicle()));
+        user.spent.add((count(to.isRevenue()) - count(from != null && from.isRevenue())) * amount);
+    }
+
+    private static int count(boolean condition) {
+        return condition ? 1 : 0;
+    }
+
+    private static final class Totals {
+        private final LongAdder bookings = new LongAdder();
+        private final LongAdder active = new LongAdder();
+        private final DoubleAdder spent = new DoubleAdder();
+    }
+}
@@ -0,0 +1,57 @@
+package com.rydio.booking.service;
+
+import com.rydio.common.exception.ConflictException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks that serialize calendar changes of one vehicle while bookings of different
+ * vehicles proceed in parallel. A fixed array of locks is shared by all vehicles, so memory
+ * stays constant however large the fleet grows; two vehicles only contend when they hash
+ * to the same stripe.
+ */
+@Component
+public class VehicleLocks {
+
+    @Value("${app.booking.lock-stripes:1024}")
+    private int stripeCount;
+
+    @Value("${app.booking.lock-timeout-ms:5000}")
+    private long lockTimeoutMillis;
+
+    private ReentrantLock[] stripes;
+    private int mask;
+
+    @PostConstruct
+    public void init() {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    public ReentrantLock acquire(Long vehicleId) {
+        ReentrantLock lock = stripeFor(vehicleId);
+        try {
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ConflictException("Vehicle is busy with other bookings, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for vehicle");
+        }
+        return lock;
+    }
+
+    private ReentrantLock stripeFor(Long vehicleId) {
+        // Spread sequential ids so neighbouring vehicles land on unrelated stripes
+        int hash = Long.hashCode(vehicleId) * 0x9E3779B9;
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
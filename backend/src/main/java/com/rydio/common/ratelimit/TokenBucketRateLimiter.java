@@ -0,0 +1,118 @@
+package com.rydio.common.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process token bucket keyed by an arbitrary client key (IP, username, ...).
+ *
+ * Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time"
+ * (GCRA form of the token bucket), so acquiring a token is one CAS and never takes a lock.
+ * Buckets live in a fixed number of independent stripes; each stripe is bounded and
+ * drops buckets that have fully refilled, so idle clients cost no memory. A bucket that is
+ * still throttling is never dropped: when a stripe is full of them, new clients share one
+ * overflow bucket, so cycling through keys cannot buy a fresh allowance.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 16;
+    // A full stripe is swept for refilled buckets at most this often
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxBucketsPerStripe;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * @param capacity     maximum burst size in requests
+     * @param refillTokens tokens added per refill period
+     * @param refillPeriod refill period length
+     * @param unit         unit of the refill period
+     * @param maxBuckets   upper bound on the number of tracked clients
+     */
+    public TokenBucketRateLimiter(int capacity, int refillTokens, long refillPeriod, TimeUnit unit, int maxBuckets) {
+        if (capacity <= 0 || refillTokens <= 0 || refillPeriod <= 0 || maxBuckets <= 0) {
+            throw new IllegalArgumentException("Rate limit parameters must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, unit.toNanos(refillPeriod) / refillTokens);
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.maxBucketsPerStripe = Math.max(1, maxBuckets / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(System.nanoTime());
+        }
+    }
+
+    /**
+     * Tries to take one token for the given key.
+     *
+     * @return 0 if the request is allowed, otherwise the number of nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket == null) {
+            bucket = stripe.newBucket(key, now, maxBucketsPerStripe);
+        }
+
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + emissionIntervalNanos;
+            long allowAt = newTat - emissionIntervalNanos - burstToleranceNanos;
+            if (allowAt > now) {
+                return allowAt - now;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    public int trackedClients() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.buckets.size();
+        }
+        return total;
+    }
+
+    private static final class Stripe {
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow;
+        private final AtomicBoolean sweeping = new AtomicBoolean();
+        private volatile long nextSweepAt;
+
+        Stripe(long now) {
+            this.overflow = new AtomicLong(now);
+            this.nextSweepAt = now;
+        }
+
+        AtomicLong newBucket(String key, long now, int limit) {
+            if (buckets.size() >= limit) {
+                sweep(now);
+                if (buckets.size() >= limit) {
+                    return overflow;
+                }
+            }
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        // Only one thread sweeps a given stripe, and not more than once per interval, so a
+        // stripe kept full costs an O(n) scan per second rather than one per request.
+        private void sweep(long now) {
+            if (now - nextSweepAt < 0 || !sweeping.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                // Buckets whose arrival time has passed are full again and carry no state.
+                buckets.values().removeIf(tat -> tat.get() <= now);
+                nextSweepAt = now + SWEEP_INTERVAL_NANOS;
+            } finally {
+                sweeping.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.rydio.common.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical timing wheel for large numbers of timeouts that are mostly cancelled or fire
+ * late by at most one tick.
+ *
+ * Level 0 has one bucket per tick. Each higher level covers a whole rotation of the level
+ * below per bucket, so four levels of 64 buckets at 100 ms reach about 19 days. Scheduling
+ * and cancelling are O(1). A timeout moves down at most once per level before it fires, so
+ * the cost per expiration is O(levels), independent of how many timeouts are pending.
+ *
+ * A single ticker thread owns the buckets. Callers hand new timeouts over through a
+ * lock-free queue, and due tasks run on the supplied executor so slow tasks never delay the
+ * wheel.
+ */
+public class TimingWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(TimingWheel.class);
+
+    private final long tickNanos;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final long maxDelayTicks;
+    private final Executor executor;
+
+    private final Queue<Timeout>[][] buckets;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final long startNanos;
+    private final Thread ticker;
+
+    // Last processed tick; only written by the ticker thread
+    private volatile long currentTick;
+    private volatile boolean running = true;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize, int levels, Executor executor) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.maxDelayTicks = (1L << (bits * levels)) - 1;
+        this.executor = executor;
+
+        this.buckets = new Queue[levels][wheelSize];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                buckets[level][slot] = new ArrayDeque<>();
+            }
+        }
+
+        this.startNanos = System.nanoTime();
+        this.ticker = new Thread(this::run, name);
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(0, delay)) - startNanos;
+        // Round up so a task never fires early
+        Timeout timeout = new Timeout(task, (deadline + tickNanos - 1) / tickNanos);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    public void stop() {
+        running = false;
+        ticker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long next = currentTick + 1;
+            long sleep = startNanos + next * tickNanos - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+                continue;
+            }
+            try {
+                transferPending(next);
+                cascade(next);
+                expire(buckets[0][(int) (next & mask)], next);
+            } catch (Throwable t) {
+                log.error("Timing wheel tick {} failed", next, t);
+            }
+            currentTick = next;
+        }
+    }
+
+    private void transferPending(long now) {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (!timeout.isCancelled()) {
+                place(timeout, now);
+            }
+        }
+    }
+
+    // When a lower level completes a rotation, the next bucket of the level above is due
+    // to be spread over the levels below it
+    private void cascade(long now) {
+        for (int level = 1; level < levels; level++) {
+            if ((now & ((1L << (bits * level)) - 1)) != 0) {
+                break;
+            }
+            Queue<Timeout> bucket = buckets[level][(int) ((now >>> (bits * level)) & mask)];
+            int size = bucket.size();
+            for (int i = 0; i < size; i++) {
+                Timeout timeout = bucket.poll();
+                if (!timeout.isCancelled()) {
+                    place(timeout, now);
+                }
+            }
+        }
+    }
+
+    private void place(Timeout timeout, long now) {
+        long deadline = Math.max(timeout.deadlineTick, now);
+        long delta = Math.min(deadline - now, maxDelayTicks);
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        // Deadlines past the top level are parked at its furthest bucket and placed again later
+        long slotTick = deadline - now > maxDelayTicks ? now + maxDelayTicks : deadline;
+        buckets[level][(int) ((slotTick >>> (bits * level)) & mask)].add(timeout);
+    }
+
+    private void expire(Queue<Timeout> bucket, long now) {
+        int size = bucket.size();
+        for (int i = 0; i < size; i++) {
+            Timeout timeout = bucket.poll();
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            if (timeout.deadlineTick > now) {
+                place(timeout, now);
+                continue;
+            }
+            try {
+                executor.execute(timeout.task);
+            } catch (RuntimeException e) {
+                log.error("Could not run expired timeout", e);
+            }
+        }
+    }
+
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        // Cancelled timeouts are dropped when the wheel next reaches them
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
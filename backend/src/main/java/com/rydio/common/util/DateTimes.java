@@ -0,0 +1,29 @@
+package com.rydio.common.util;
+
+import com.rydio.common.exception.BadRequestException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+public final class DateTimes {
+
+    private DateTimes() {}
+
+    // Accepts a date (start of day), a local date-time, or a date-time with an offset
+    public static LocalDateTime parse(String value) {
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            if (value.endsWith("Z") || value.matches(".*[+-]\\d{2}:\\d{2}$")) {
+                return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid date: " + value, e);
+        }
+    }
+}
@@ -7,10 +7,13 @@ import com.rydio.vehicle.dto.CreateVehicleRequest;
 import com.rydio.vehicle.entity.Vehicle;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+// The fleet profile seeds a large synthetic dataset instead (FleetDataGenerator)
 @Component
+@Profile("!fleet")
 public class DataInitializer implements CommandLineRunner {
     
     @Autowired
@@ -0,0 +1,452 @@
+package com.rydio.config;
+
+import com.rydio.booking.entity.Booking;
+import com.rydio.booking.service.BookingEventLog;
+import com.rydio.booking.service.BookingIntervalIndex;
+import com.rydio.common.id.SnowflakeIds;
+import com.rydio.user.entity.User;
+import com.rydio.vehicle.entity.Vehicle;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Fills an empty database with a large synthetic fleet for benchmarks and load tests, in place
+ * of {@link DataInitializer}: N users, M vehicles with weighted type, model, fuel, price and
+ * city mixes, and K bookings that never overlap on a vehicle. Rows are written with JDBC batch
+ * inserts, one transaction per chunk, by several threads at once. Each booking also gets its
+ * creation event and a snapshot, so the event log and projections look as if it had been
+ * booked through the API.
+ *
+ * Output depends only on the sizes and the seed. Users are fleetuser0..N-1 and all share
+ * app.fleet.password; fleetuser0 is an admin.
+ */
+@Component
+@Profile("fleet")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FleetDataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetDataGenerator.class);
+
+    private static final String USERNAME_PREFIX = "fleetuser";
+    // Bookings span this many days before and after startup
+    private static final int HISTORY_DAYS = 180;
+    private static final int FUTURE_DAYS = 90;
+
+    private static final String INSERT_USER = "INSERT INTO users (username, email, password, first_name, last_name, "
+            + "phone_number, date_of_birth, driver_license_number, driver_license_expiry, address, role, active, "
+            + "email_verified, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_VEHICLE = "INSERT INTO vehicles (license_plate, brand, model, vehicle_year, "
+            + "color, vehicle_type, fuel_type, engine_capacity, seat_count, daily_rate, hourly_rate, mileage, status, "
+            + "location, description, features, owner_id, booking_version, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+    private static final String INSERT_BOOKING = "INSERT INTO bookings (id, vehicle_id, user_id, start_date, end_date, "
+            + "pickup_location, drop_location, status, total_amount, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_EVENT = "INSERT INTO booking_events (id, booking_id, vehicle_id, user_id, "
+            + "status, start_date, end_date, amount, occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SNAPSHOT = "INSERT INTO booking_snapshots (booking_id, vehicle_id, user_id, "
+            + "status, start_date, end_date, amount, last_event_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Vivaan", "Aditya", "Arjun", "Sai", "Rohan", "Ishaan",
+            "Kabir", "Ananya", "Diya", "Priya", "Saanvi", "Aadhya", "Kavya", "Meera", "Nisha", "Rahul", "Vikram",
+            "Neha", "Pooja"};
+    private static final String[] LAST_NAMES = {"Sharma", "Patel", "Singh", "Kumar", "Gupta", "Reddy", "Iyer",
+            "Nair", "Mehta", "Joshi", "Rao", "Das", "Khan", "Verma", "Chopra", "Bose"};
+    private static final String[] COLORS = {"White", "Black", "Silver", "Grey", "Red", "Blue", "Brown", "Green"};
+    private static final String[] AREAS = {"Central", "North", "South", "East", "West", "Airport"};
+
+    private static final Weighted<City> CITIES = new Weighted<City>()
+            .add(18, new City("Mumbai", "MH")).add(16, new City("Delhi", "DL")).add(14, new City("Bangalore", "KA"))
+            .add(9, new City("Hyderabad", "TS")).add(8, new City("Chennai", "TN")).add(8, new City("Pune", "MH"))
+            .add(7, new City("Kolkata", "WB")).add(5, new City("Ahmedabad", "GJ")).add(4, new City("Jaipur", "RJ"))
+            .add(3, new City("Goa", "GA")).add(3, new City("Kochi", "KL")).add(2, new City("Chandigarh", "CH"))
+            .add(2, new City("Lucknow", "UP")).add(1, new City("Indore", "MP"));
+
+    // Type shares follow the app's traffic; within a type, popular models dominate
+    private static final Weighted<Weighted<Model>> MODELS = new Weighted<Weighted<Model>>()
+            .add(35, new Weighted<Model>()
+                    .add(30, new Model(Vehicle.VehicleType.SCOOTER, "Honda", "Activa 6G", Vehicle.FuelType.PETROL, "110cc", 2, 450, 50))
+                    .add(20, new Model(Vehicle.VehicleType.SCOOTER, "TVS", "Jupiter", Vehicle.FuelType.PETROL, "110cc", 2, 420, 50))
+                    .add(15, new Model(Vehicle.VehicleType.SCOOTER, "Suzuki", "Access 125", Vehicle.FuelType.PETROL, "125cc", 2, 480, 45))
+                    .add(10, new Model(Vehicle.VehicleType.SCOOTER, "Ather", "450X", Vehicle.FuelType.ELECTRIC, "6.4kW", 2, 650, 110))
+                    .add(10, new Model(Vehicle.VehicleType.SCOOTER, "Ola", "S1 Pro", Vehicle.FuelType.ELECTRIC, "8.5kW", 2, 600, 180)))
+            .add(30, new Weighted<Model>()
+                    .add(30, new Model(Vehicle.VehicleType.BIKE, "Hero", "Splendor Plus", Vehicle.FuelType.PETROL, "97cc", 2, 480, 65))
+                    .add(25, new Model(Vehicle.VehicleType.BIKE, "Bajaj", "Pulsar 150", Vehicle.FuelType.PETROL, "150cc", 2, 650, 45))
+                    .add(15, new Model(Vehicle.VehicleType.BIKE, "Royal Enfield", "Classic 350", Vehicle.FuelType.PETROL, "349cc", 2, 1200, 35))
+                    .add(15, new Model(Vehicle.VehicleType.BIKE, "TVS", "Apache RTR 160", Vehicle.FuelType.PETROL, "160cc", 2, 700, 45))
+                    .add(10, new Model(Vehicle.VehicleType.BIKE, "Yamaha", "FZ-S", Vehicle.FuelType.PETROL, "149cc", 2, 680, 45)))
+            .add(30, new Weighted<Model>()
+                    .add(25, new Model(Vehicle.VehicleType.CAR, "Maruti", "Swift", Vehicle.FuelType.PETROL, "1200cc", 5, 1800, 20))
+                    .add(15, new Model(Vehicle.VehicleType.CAR, "Maruti", "Dzire", Vehicle.FuelType.CNG, "1200cc", 5, 1900, 30))
+                    .add(15, new Model(Vehicle.VehicleType.CAR, "Hyundai", "i20", Vehicle.FuelType.PETROL, "1200cc", 5, 2200, 19))
+                    .add(10, new Model(Vehicle.VehicleType.CAR, "Hyundai", "Creta", Vehicle.FuelType.DIESEL, "1500cc", 5, 3200, 18))
+                    .add(10, new Model(Vehicle.VehicleType.CAR, "Tata", "Nexon EV", Vehicle.FuelType.ELECTRIC, "30kWh", 5, 3000, 300))
+                    .add(10, new Model(Vehicle.VehicleType.CAR, "Mahindra", "XUV700", Vehicle.FuelType.DIESEL, "2200cc", 7, 4500, 15))
+                    .add(10, new Model(Vehicle.VehicleType.CAR, "Toyota", "Innova Hycross", Vehicle.FuelType.HYBRID, "2000cc", 7, 5000, 21))
+                    .add(5, new Model(Vehicle.VehicleType.CAR, "Honda", "City", Vehicle.FuelType.PETROL, "1500cc", 5, 2800, 17)))
+            .add(5, new Weighted<Model>()
+                    .add(60, new Model(Vehicle.VehicleType.BICYCLE, "Hero", "Lectro C5", Vehicle.FuelType.ELECTRIC, "250W", 1, 250, 30))
+                    .add(40, new Model(Vehicle.VehicleType.BICYCLE, "EMotorad", "T-Rex", Vehicle.FuelType.ELECTRIC, "250W", 1, 300, 45)));
+
+    private static final Weighted<Vehicle.VehicleStatus> VEHICLE_STATUSES = new Weighted<Vehicle.VehicleStatus>()
+            .add(88, Vehicle.VehicleStatus.AVAILABLE).add(6, Vehicle.VehicleStatus.RENTED)
+            .add(4, Vehicle.VehicleStatus.MAINTENANCE).add(2, Vehicle.VehicleStatus.INACTIVE);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Autowired
+    private BookingEventLog bookingEventLog;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.fleet.users:10000}")
+    private int userCount;
+
+    @Value("${app.fleet.vehicles:100000}")
+    private int vehicleCount;
+
+    @Value("${app.fleet.bookings:200000}")
+    private int bookingCount;
+
+    @Value("${app.fleet.password:password123}")
+    private String password;
+
+    @Value("${app.fleet.seed:42}")
+    private long seed;
+
+    @Value("${app.fleet.threads:4}")
+    private int threads;
+
+    @Value("${app.fleet.batch-size:1000}")
+    private int batchSize;
+
+    private LocalDateTime now;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, USERNAME_PREFIX + 0);
+        if (existing != null && existing > 0) {
+            log.info("Fleet data already present, not generating");
+            return;
+        }
+        log.info("Generating {} users, {} vehicles and {} bookings with {} threads", userCount, vehicleCount,
+                bookingCount, threads);
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            long started = System.nanoTime();
+            // Hashing is deliberately slow, so every generated user shares one hash
+            String passwordHash = passwordEncoder.encode(password);
+            insert(workers, INSERT_USER, userCount, 1, chunk -> users(chunk, passwordHash));
+            long[] userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class)
+                    .stream().mapToLong(Long::longValue).toArray();
+            long usersDone = System.nanoTime();
+
+            insert(workers, INSERT_VEHICLE, vehicleCount, 2, chunk -> vehicles(chunk, userIds));
+            Fleet fleet = loadFleet();
+            long vehiclesDone = System.nanoTime();
+
+            int[] bookingsPerVehicle = bookingsPerVehicle(fleet.ids.length);
+            insertBookings(workers, fleet, userIds, bookingsPerVehicle);
+            long bookingsDone = System.nanoTime();
+
+            log.info("Generated {} users in {} ms, {} vehicles in {} ms, {} bookings in {} ms",
+                    userIds.length, (usersDone - started) / 1_000_000, fleet.ids.length,
+                    (vehiclesDone - usersDone) / 1_000_000, bookingCount, (bookingsDone - vehiclesDone) / 1_000_000);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        // JDBC inserts bypass Hibernate and leave its update timestamps alone, so entities and
+        // query results cached meanwhile, such as a login that found no such user, would stay
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        // The in-memory indexes were built at startup from the then empty tables
+        bookingIntervalIndex.rebuild();
+        bookingEventLog.rebuildProjections();
+    }
+
+    // Generates and inserts rows in chunks of batchSize, each chunk in its own transaction
+    private void insert(ExecutorService workers, String sql, int rows, int table,
+                        IntFunction<List<Object[]>> generator) throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int first = 0; first < rows; first += batchSize) {
+            int chunk = first / batchSize;
+            tasks.add(() -> {
+                List<Object[]> batch = generator.apply(chunk);
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+                return null;
+            });
+        }
+        for (Future<Void> future : workers.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+
+    private List<Object[]> users(int chunk, String passwordHash) {
+        SplittableRandom random = random(1, chunk);
+        int first = chunk * batchSize;
+        int last = Math.min(userCount, first + batchSize);
+        List<Object[]> rows = new ArrayList<>(last - first);
+        for (int i = first; i < last; i++) {
+            String username = USERNAME_PREFIX + i;
+            City city = CITIES.pick(random);
+            LocalDateTime joined = now.minusDays(random.nextInt(3 * 365)).minusMinutes(random.nextInt(24 * 60));
+            rows.add(new Object[] {
+                    username,
+                    username + "@example.com",
+                    passwordHash,
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    String.format("+91%010d", 7_000_000_000L + i),
+                    LocalDate.of(1965 + random.nextInt(40), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    String.format("%s%02d%011d", city.stateCode, random.nextInt(100), i),
+                    now.toLocalDate().plusDays(30 + random.nextInt(10 * 365)),
+                    (1 + random.nextInt(500)) + " " + AREAS[random.nextInt(AREAS.length)] + " Road, " + city.name,
+                    (i == 0 ? User.Role.ADMIN : User.Role.USER).name(),
+                    true,
+                    true,
+                    joined,
+                    joined
+            });
+        }
+        return rows;
+    }
+
+    private List<Object[]> vehicles(int chunk, long[] userIds) {
+        SplittableRandom random = random(2, chunk);
+        int first = chunk * batchSize;
+        int last = Math.min(vehicleCount, first + batchSize);
+        List<Object[]> rows = new ArrayList<>(last - first);
+        for (int i = first; i < last; i++) {
+            Model model = MODELS.pick(random).pick(random);
+            City city = CITIES.pick(random);
+            // Log-normal around the model's typical rate, rounded to 10
+            double dailyRate = Math.max(100, Math.round(model.dailyRate * Math.exp(0.25 * random.nextGaussian()) / 10) * 10.0);
+            int age = Math.min(9, (int) (-3 * Math.log(1 - random.nextDouble())));
+            // A few owners run large fleets, most own one or two vehicles
+            long ownerId = userIds[(int) (userIds.length * Math.pow(random.nextDouble(), 3))];
+            LocalDateTime listed = now.minusDays(random.nextInt(2 * 365)).minusMinutes(random.nextInt(24 * 60));
+            rows.add(new Object[] {
+                    licensePlate(city, i),
+                    model.brand,
+                    model.model,
+                    now.getYear() - age,
+                    COLORS[random.nextInt(COLORS.length)],
+                    model.type.name(),
+                    model.fuel.name(),
+                    model.engineCapacity,
+                    model.seats,
+                    dailyRate,
+                    Math.round(dailyRate / 20),
+                    Math.round(model.mileage * (0.85 + 0.3 * random.nextDouble())),
+                    VEHICLE_STATUSES.pick(random).name(),
+                    city.name + " " + AREAS[random.nextInt(AREAS.length)],
+                    model.brand + " " + model.model + " in " + city.name,
+                    model.fuel == Vehicle.FuelType.ELECTRIC ? "Fast charging, Digital console" : "Well maintained, Insured",
+                    ownerId,
+                    listed,
+                    listed
+            });
+        }
+        return rows;
+    }
+
+    // State code plus a registration number derived from the vehicle's ordinal, so plates are unique
+    private static String licensePlate(City city, int ordinal) {
+        int district = 1 + (ordinal / 6_760_000) % 99;
+        int series = (ordinal / 10_000) % 676;
+        return String.format("%s%02d%c%c%04d", city.stateCode, district,
+                (char) ('A' + series / 26), (char) ('A' + series % 26), ordinal % 10_000);
+    }
+
+    private Fleet loadFleet() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT id, daily_rate, location FROM vehicles ORDER BY id");
+        Fleet fleet = new Fleet(rows.size());
+        Map<String, String> locations = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = rows.get(i);
+            fleet.ids[i] = ((Number) row.get("id")).longValue();
+            fleet.dailyRates[i] = ((Number) row.get("daily_rate")).doubleValue();
+            String location = (String) row.get("location");
+            fleet.locations[i] = locations.computeIfAbsent(location, l -> l);
+        }
+        return fleet;
+    }
+
+    // Spreads the bookings over vehicles with a skew, so some vehicles are far busier than others
+    private int[] bookingsPerVehicle(int vehicles) {
+        int[] counts = new int[vehicles];
+        if (vehicles == 0) {
+            return counts;
+        }
+        SplittableRandom random = random(3, 0);
+        for (int i = 0; i < bookingCount; i++) {
+            counts[(int) (vehicles * Math.pow(random.nextDouble(), 1.5))]++;
+        }
+        return counts;
+    }
+
+    // Each chunk covers a range of vehicles, so the non-overlapping calendars need no coordination
+    private void insertBookings(ExecutorService workers, Fleet fleet, long[] userIds, int[] counts) throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        int firstVehicle = 0;
+        while (firstVehicle < counts.length) {
+            int from = firstVehicle;
+            int bookings = 0;
+            while (firstVehicle < counts.length && (bookings == 0 || bookings + counts[firstVehicle] <= batchSize)) {
+                bookings += counts[firstVehicle++];
+            }
+            int to = firstVehicle;
+            tasks.add(() -> {
+                BookingRows rows = bookings(fleet, userIds, counts, from, to);
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_BOOKING, rows.bookings);
+                    jdbcTemplate.batchUpdate(INSERT_EVENT, rows.events);
+                    jdbcTemplate.batchUpdate(INSERT_SNAPSHOT, rows.snapshots);
+                });
+                return null;
+            });
+        }
+        for (Future<Void> future : workers.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+
+    private BookingRows bookings(Fleet fleet, long[] userIds, int[] counts, int fromVehicle, int toVehicle) {
+        SplittableRandom random = random(4, fromVehicle);
+        BookingRows rows = new BookingRows();
+        for (int v = fromVehicle; v < toVehicle; v++) {
+            if (counts[v] == 0) {
+                continue;
+            }
+            // Bookings are laid out back to back with random gaps, spread over the whole window
+            double slotHours = (HISTORY_DAYS + FUTURE_DAYS) * 24.0 / counts[v];
+            LocalDateTime cursor = now.minusDays(HISTORY_DAYS).plusHours(random.nextInt(24));
+            for (int b = 0; b < counts[v]; b++) {
+                int days = Math.min(14, 1 + (int) (-1.5 * Math.log(1 - random.nextDouble())));
+                long gapHours = 1 + (long) (random.nextDouble() * Math.max(0, 2 * (slotHours - days * 24)));
+                LocalDateTime start = cursor.plusHours(gapHours);
+                LocalDateTime end = start.plusDays(days);
+                cursor = end;
+
+                Booking.BookingStatus status = status(random, start, end);
+                long bookingId = SnowflakeIds.next();
+                long eventId = SnowflakeIds.next();
+                long userId = userIds[random.nextInt(userIds.length)];
+                double amount = days * fleet.dailyRates[v];
+                LocalDateTime booked = start.minusHours(1 + random.nextInt(30 * 24));
+                if (booked.isAfter(now)) {
+                    booked = now.minusHours(1 + random.nextInt(72));
+                }
+                LocalDateTime updated = status == Booking.BookingStatus.COMPLETED ? end : booked;
+                rows.bookings.add(new Object[] {bookingId, fleet.ids[v], userId, start, end, fleet.locations[v],
+                        fleet.locations[v], status.name(), amount, booked, updated});
+                rows.events.add(new Object[] {eventId, bookingId, fleet.ids[v], userId, status.name(), start, end,
+                        amount, updated});
+                rows.snapshots.add(new Object[] {bookingId, fleet.ids[v], userId, status.name(), start, end, amount,
+                        eventId});
+            }
+        }
+        return rows;
+    }
+
+    private Booking.BookingStatus status(SplittableRandom random, LocalDateTime start, LocalDateTime end) {
+        if (random.nextInt(10) == 0) {
+            return Booking.BookingStatus.CANCELLED;
+        }
+        if (!end.isAfter(now)) {
+            return Booking.BookingStatus.COMPLETED;
+        }
+        return start.isAfter(now) ? Booking.BookingStatus.CONFIRMED : Booking.BookingStatus.ACTIVE;
+    }
+
+    private SplittableRandom random(int table, int chunk) {
+        return new SplittableRandom(seed * 1_000_003L + table * 10_000_019L + chunk);
+    }
+
+    private record City(String name, String stateCode) {}
+
+    private record Model(Vehicle.VehicleType type, String brand, String model, Vehicle.FuelType fuel,
+                         String engineCapacity, int seats, double dailyRate, double mileage) {}
+
+    private static final class Fleet {
+        final long[] ids;
+        final double[] dailyRates;
+        final String[] locations;
+
+        Fleet(int size) {
+            ids = new long[size];
+            dailyRates = new double[size];
+            locations = new String[size];
+        }
+    }
+
+    private static final class BookingRows {
+        final List<Object[]> bookings = new ArrayList<>();
+        final List<Object[]> events = new ArrayList<>();
+        final List<Object[]> snapshots = new ArrayList<>();
+    }
+
+    // Values picked with probability proportional to their weight
+    private static final class Weighted<T> {
+        private final List<T> values = new ArrayList<>();
+        private final List<Integer> cumulative = new ArrayList<>();
+        private int total;
+
+        Weighted<T> add(int weight, T value) {
+            total += weight;
+            values.add(value);
+            cumulative.add(total);
+            return this;
+        }
+
+        T pick(SplittableRandom random) {
+            int r = random.nextInt(total);
+            int i = 0;
+            while (cumulative.get(i) <= r) {
+                i++;
+            }
+            return values.get(i);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.rydio.config;
+
+import com.rydio.booking.repository.BookingEventRepository;
+import com.rydio.booking.repository.BookingRepository;
+import com.rydio.common.id.SnowflakeIds;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorConfig.class);
+
+    // Must be unique per running instance that writes to the same database
+    @Value("${app.node-id:0}")
+    private int nodeId;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingEventRepository eventRepository;
+
+    @PostConstruct
+    public void init() {
+        SnowflakeIds.setNodeId(nodeId);
+        // Bookings and their events are the only rows with generated ids
+        Stream.of(bookingRepository.findMaxId(), eventRepository.findMaxId())
+                .flatMap(Optional::stream)
+                .max(Long::compare)
+                .ifPresent(maxId -> {
+                    long lag = SnowflakeIds.clockLagBehind(maxId);
+                    if (lag > 0) {
+                        log.warn("Clock is {} ms behind the newest stored id; new ids continue after it", lag);
+                    }
+                    SnowflakeIds.startAfter(maxId);
+                });
+    }
+}
@@ -1,6 +1,11 @@
 package com.rydio.config;
 
-import com.rydio.user.service.UserService;
+import com.rydio.user.dto.UserProfile;
+import com.rydio.user.service.UserProfileService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,12 +14,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -23,12 +28,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserService userService;
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer authenticatedTimer;
+    private Timer rejectedTimer;
+    private Timer anonymousTimer;
+
+    @PostConstruct
+    public void initMetrics() {
+        authenticatedTimer = timer("authenticated");
+        rejectedTimer = timer("rejected");
+        anonymousTimer = timer("anonymous");
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, 
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
-        
+        // Times token checking only, not the rest of the chain
+        long started = System.nanoTime();
+        Timer outcome = authenticate(request);
+        outcome.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        filterChain.doFilter(request, response);
+    }
+
+    private Timer authenticate(HttpServletRequest request) {
         final String requestTokenHeader = request.getHeader("Authorization");
 
         String username = null;
@@ -38,36 +64,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtUtil.getUsernameFromToken(jwtToken);
+                Claims claims = jwtUtil.getAllClaimsFromToken(jwtToken);
+                if (jwtUtil.isRefreshToken(claims)) {
+                    logger.debug("Refresh token presented as an access token");
+                } else {
+                    username = claims.getSubject();
+                }
             } catch (IllegalArgumentException e) {
-                System.err.println("Unable to get JWT Token");
+                logger.debug("Unable to get JWT Token");
             } catch (Exception e) {
-                System.err.println("JWT Token has expired or is invalid");
+                logger.debug("JWT Token has expired or is invalid");
             }
         } else {
-            logger.warn("JWT Token does not begin with Bearer String");
+            return anonymousTimer;
         }
 
-        // Once we get the token validate it.
+        // The token signature, expiry and type were checked while extracting the username above,
+        // so only the (cached) profile is needed to build the authentication.
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userOptional = userService.findByUsernameOrEmail(username);
+            var profileOptional = userProfileService.findByUsername(username);
             
-            if (userOptional.isPresent()) {
-                UserDetails userDetails = userOptional.get();
-
-                // if token is valid configure Spring Security to manually set authentication
-                if (jwtUtil.validateToken(jwtToken, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = 
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    // After setting the Authentication in the context, we specify
-                    // that the current user is authenticated. So it passes the
-                    // Spring Security Configurations successfully.
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            if (profileOptional.isPresent() && profileOptional.get().isActive()) {
+                UserProfile profile = profileOptional.get();
+                UsernamePasswordAuthenticationToken authToken = 
+                    new UsernamePasswordAuthenticationToken(profile, null, profile.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                
+                // After setting the Authentication in the context, we specify
+                // that the current user is authenticated. So it passes the
+                // Spring Security Configurations successfully.
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                return authenticatedTimer;
             }
         }
-        filterChain.doFilter(request, response);
+        return SecurityContextHolder.getContext().getAuthentication() == null ? rejectedTimer : authenticatedTimer;
+    }
+
+    private Timer timer(String outcome) {
+        return Timer.builder("rydio.auth.jwt")
+                .description("Time to check the bearer token and load the caller's profile")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 }
\ No newline at end of file
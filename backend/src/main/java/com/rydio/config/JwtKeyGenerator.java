@@ -0,0 +1,37 @@
+package com.rydio.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+
+import java.security.KeyPair;
+
+/**
+ * Prints a new signing key as a JWK Set entry for {@code jwt.keyset.file}.
+ *
+ * Usage: {@code JwtKeyGenerator <ed25519|es256|hs256> <kid>}. Merge the printed key into the
+ * front of the existing "keys" array to make it the active signing key.
+ */
+public final class JwtKeyGenerator {
+
+    private JwtKeyGenerator() {}
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: JwtKeyGenerator <ed25519|es256|hs256> <kid>");
+            System.exit(1);
+        }
+        String kid = args[1];
+        Jwk<?> jwk = switch (args[0].toLowerCase()) {
+            case "ed25519" -> keyPairJwk(Jwks.CRV.Ed25519.keyPair().build(), kid);
+            case "es256" -> keyPairJwk(Jwts.SIG.ES256.keyPair().build(), kid);
+            case "hs256" -> Jwks.builder().key(Jwts.SIG.HS256.key().build()).id(kid).build();
+            default -> throw new IllegalArgumentException("Unsupported key type: " + args[0]);
+        };
+        System.out.println("{\"keys\":[" + Jwks.UNSAFE_JSON(jwk) + "]}");
+    }
+
+    private static Jwk<?> keyPairJwk(KeyPair keyPair, String kid) {
+        return Jwks.builder().keyPair(keyPair).id(kid).build();
+    }
+}
@@ -0,0 +1,188 @@
+package com.rydio.config;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PrivateJwk;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and verification keys for JWTs.
+ *
+ * Keys come from a local JWK Set file ({@code jwt.keyset.file}) holding HMAC ("oct"),
+ * EC (ES256/384/512) or Ed25519 ("OKP") keys, each with a {@code kid}. The first key that can
+ * sign (a secret or private key) signs new tokens; every key in the file verifies tokens
+ * carrying its {@code kid}. To rotate, put the new key first and keep the old one until its
+ * tokens expire. Nodes that only verify can be given public keys only.
+ *
+ * The file is re-read when it changes. Each load builds one immutable snapshot with a ready
+ * parser, so requests never construct keys or parsers.
+ *
+ * Without a keyset file the legacy {@code jwt.secret} is used, unchanged, with no {@code kid}.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    @Value("${jwt.secret:mySecretKey}")
+    private String legacySecret;
+
+    @Value("${jwt.keyset.file:}")
+    private String keysetFile;
+
+    @Value("${jwt.keyset.reload-interval-seconds:30}")
+    private long reloadIntervalSeconds;
+
+    // Accept tokens without a kid (signed with jwt.secret) while migrating to a keyset
+    @Value("${jwt.keyset.accept-legacy-tokens:true}")
+    private boolean acceptLegacyTokens;
+
+    private volatile Snapshot current;
+    private volatile FileTime loadedModifiedTime;
+    private ScheduledExecutorService reloader;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (keysetFile == null || keysetFile.isBlank()) {
+            current = legacySnapshot();
+            return;
+        }
+        reload();
+        if (current == null) {
+            throw new IllegalStateException("Could not load JWT keyset from " + keysetFile);
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-keyset-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloader.scheduleWithFixedDelay(this::reloadQuietly, reloadIntervalSeconds, reloadIntervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    public JwtParser parser() {
+        return current.parser;
+    }
+
+    // Kid and key come from the same snapshot, so a concurrent reload cannot mismatch them.
+    // Without a keyset the token has no kid, exactly as before keysets existed.
+    public String sign(JwtBuilder builder) {
+        Snapshot snapshot = current;
+        if (snapshot.signingKey == null) {
+            throw new IllegalStateException("JWT keyset has no signing key; this node can only verify tokens");
+        }
+        if (snapshot.signingKid != null) {
+            builder.header().keyId(snapshot.signingKid);
+        }
+        return builder.signWith(snapshot.signingKey).compact();
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Failed to reload JWT keyset from {}, keeping previous keys", keysetFile, e);
+        }
+    }
+
+    private void reload() throws IOException {
+        Path path = Path.of(keysetFile);
+        FileTime modified = Files.getLastModifiedTime(path);
+        if (modified.equals(loadedModifiedTime)) {
+            return;
+        }
+        String json = Files.readString(path, StandardCharsets.UTF_8);
+        JwkSet jwkSet = Jwks.setParser().build().parse(json);
+
+        Map<String, Key> verificationKeys = new HashMap<>();
+        String signingKid = null;
+        Key signingKey = null;
+        for (Jwk<?> jwk : jwkSet) {
+            String kid = jwk.getId();
+            if (kid == null || kid.isBlank()) {
+                throw new IllegalArgumentException("Every key in the JWT keyset needs a kid");
+            }
+            Key key = jwk.toKey();
+            if (jwk instanceof PrivateJwk<?, ?, ?> privateJwk) {
+                verificationKeys.put(kid, privateJwk.toPublicJwk().toKey());
+            } else {
+                verificationKeys.put(kid, key);
+            }
+            boolean canSign = key instanceof PrivateKey || key instanceof SecretKey;
+            if (signingKey == null && canSign) {
+                signingKid = kid;
+                signingKey = key;
+            }
+        }
+
+        Key legacyKey = acceptLegacyTokens ? legacyKey() : null;
+        current = new Snapshot(verificationKeys, legacyKey, signingKid, signingKey);
+        loadedModifiedTime = modified;
+        log.info("Loaded JWT keyset from {}: {} verification keys, signing kid {}",
+                keysetFile, verificationKeys.size(), signingKid);
+    }
+
+    private Snapshot legacySnapshot() {
+        Key key = legacyKey();
+        return new Snapshot(Collections.emptyMap(), key, null, key);
+    }
+
+    private Key legacyKey() {
+        return Keys.hmacShaKeyFor(legacySecret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Snapshot {
+        private final String signingKid;
+        private final Key signingKey;
+        private final JwtParser parser;
+
+        Snapshot(Map<String, Key> verificationKeys, Key legacyKey, String signingKid, Key signingKey) {
+            this.signingKid = signingKid;
+            this.signingKey = signingKey;
+            Map<String, Key> keys = Map.copyOf(verificationKeys);
+            this.parser = Jwts.parser()
+                    .keyLocator(new LocatorAdapter<Key>() {
+                        @Override
+                        protected Key locate(JwsHeader header) {
+                            String kid = header.getKeyId();
+                            return kid == null ? legacyKey : keys.get(kid);
+                        }
+                    })
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.rydio.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the password encoders used for login and registration.
+ *
+ * New hashes are written as {@code {id}hash} for the configured algorithm and cost. Hashes
+ * written before the prefix existed are plain bcrypt and are still accepted. bcrypt stores its
+ * cost inside the hash; PBKDF2 does not, so its iteration count is part of the id
+ * (e.g. {@code {pbkdf2-310000}}).
+ */
+public final class PasswordEncoders {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private static final int DEFAULT_BCRYPT_COST = 10;
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private PasswordEncoders() {}
+
+    public static DelegatingPasswordEncoder delegating(String algorithm, int cost,
+                                                      Collection<Integer> acceptedPbkdf2Iterations) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt(BCRYPT.equals(algorithm) ? cost : -1));
+        for (Integer iterations : acceptedPbkdf2Iterations) {
+            encoders.put(pbkdf2Id(iterations), pbkdf2(iterations));
+        }
+
+        String idForEncode;
+        if (BCRYPT.equals(algorithm)) {
+            idForEncode = BCRYPT;
+        } else if (PBKDF2.equals(algorithm)) {
+            idForEncode = pbkdf2Id(cost);
+            encoders.put(idForEncode, pbkdf2(cost));
+        } else {
+            throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Legacy hashes were stored without an {id} prefix and are all bcrypt
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return delegating;
+    }
+
+    public static PasswordEncoder single(String algorithm, int cost) {
+        if (BCRYPT.equals(algorithm)) {
+            return bcrypt(cost);
+        }
+        if (PBKDF2.equals(algorithm)) {
+            return pbkdf2(cost);
+        }
+        throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+    }
+
+    private static PasswordEncoder bcrypt(int cost) {
+        int strength = cost > 0 ? cost : DEFAULT_BCRYPT_COST;
+        return new BCryptPasswordEncoder(strength) {
+            // BCryptPasswordEncoder only upgrades hashes weaker than its strength; a lowered cost
+            // should be applied to existing hashes too
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                if (encodedPassword == null) {
+                    return false;
+                }
+                Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+                return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+            }
+        };
+    }
+
+    private static PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    private static String pbkdf2Id(int iterations) {
+        return PBKDF2 + "-" + iterations;
+    }
+}
@@ -0,0 +1,66 @@
+package com.rydio.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rydio.common.dto.ApiResponse;
+import com.rydio.common.ratelimit.TokenBucketRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client-IP throttling for selected routes. Routes and their limits are registered
+ * in {@link SecurityConfig}; unmatched requests pass straight through.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<Route> routes = new ArrayList<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RateLimitFilter limit(String method, String pattern, TokenBucketRateLimiter limiter) {
+        routes.add(new Route(new AntPathRequestMatcher(pattern, method), pattern, limiter));
+        return this;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        for (Route route : routes) {
+            if (route.matcher.matches(request)) {
+                long waitNanos = route.limiter.tryAcquire(route.pattern + "|" + request.getRemoteAddr());
+                if (waitNanos > 0) {
+                    reject(response, waitNanos);
+                    return;
+                }
+                break;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(waitNanos)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Too many requests, please try again later"));
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private record Route(RequestMatcher matcher, String pattern, TokenBucketRateLimiter limiter) {}
+}
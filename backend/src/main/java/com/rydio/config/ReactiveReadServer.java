@@ -0,0 +1,128 @@
+package com.rydio.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rydio.controller.VehicleStreamHandler;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.handler.WebFluxResponseStatusExceptionHandler;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A second HTTP server, on its own port, for the read-only guest browsing routes. It runs on
+ * Reactor Netty with a handful of event-loop threads instead of a thread per request, so a
+ * slow client costs an open connection rather than a blocked thread, and the data path
+ * underneath is R2DBC. Paths are the same as on the main server. Everything else, including
+ * all writes, stays on the servlet stack.
+ *
+ * The routes are public there as well, so Spring Security is not involved. Off unless
+ * app.reactive.enabled is true, and bound to app.reactive.address.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveReadServer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveReadServer.class);
+
+    @Autowired
+    private VehicleStreamHandler vehicleStreamHandler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.reactive.address:127.0.0.1}")
+    private String address;
+
+    @Value("${app.reactive.port:8082}")
+    private int port;
+
+    @Value("${app.reactive.event-loop-threads:2}")
+    private int eventLoopThreads;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    private LoopResources loops;
+    private DisposableServer server;
+
+    // Started once the application is up, so the schema exists before the first query
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler handler = WebHttpHandlerBuilder
+                .webHandler(RouterFunctions.toWebHandler(vehicleStreamHandler.routes(contextPath), strategies))
+                .filter(new CorsWebFilter(corsConfigurationSource()))
+                .exceptionHandler(new WebFluxResponseStatusExceptionHandler())
+                .build();
+
+        loops = LoopResources.create("reactive-read", 1, eventLoopThreads, true);
+        server = HttpServer.create()
+                .host(address)
+                .port(port)
+                .runOn(loops)
+                .metrics(true, this::routeOf)
+                .handle(new ReactorHttpHandlerAdapter(handler))
+                .bindNow();
+        log.info("Reactive read server started on {}:{} with {} event-loop threads", address, server.port(), eventLoopThreads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.disposeNow(Duration.ofSeconds(5));
+        }
+        if (loops != null) {
+            loops.disposeLater().block(Duration.ofSeconds(5));
+        }
+    }
+
+    public int getPort() {
+        return server.port();
+    }
+
+    // Route templates for the request metrics, so vehicle ids do not each become a tag value
+    private String routeOf(String uri) {
+        String vehicles = contextPath + "/vehicles";
+        if (uri.equals(vehicles) || uri.equals(vehicles + "/search")) {
+            return uri;
+        }
+        return uri.startsWith(vehicles + "/") ? vehicles + "/{id}" : "UNKNOWN";
+    }
+
+    private static UrlBasedCorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOriginPatterns(List.of("*"));
+        configuration.setAllowedMethods(List.of("GET", "OPTIONS"));
+        configuration.setAllowedHeaders(List.of("*"));
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+}
@@ -0,0 +1,217 @@
+package com.rydio.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rydio.user.dto.UserProfile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records every API request as one JSON line in app.capture.file, for the load-test harness
+ * to replay: offset from the start of the capture, method, path, query, the authenticated
+ * username, JSON body and the response status. Passwords, card details and tokens in bodies
+ * are replaced. Non-JSON bodies such as uploads are left out, and so are bodies that do not
+ * parse, such as ones cut off at the size limit, since they could not be redacted.
+ *
+ * Lines are queued and written by a background thread; when the queue is full, requests
+ * are not recorded rather than held up. Only active when app.capture.file is set.
+ */
+@Component
+@ConditionalOnProperty(name = "app.capture.file")
+public class RequestCaptureFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestCaptureFilter.class);
+
+    public static final String REDACTED = "<redacted>";
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final Set<String> SECRET_FIELDS = Set.of("password", "currentPassword", "newPassword",
+            "cardNumber", "cvv", "expiryMonth", "expiryYear", "token", "refreshToken");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.capture.file}")
+    private Path file;
+
+    @Value("${app.capture.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private long startedNanos;
+    private BlockingQueue<String> queue;
+    private BufferedWriter out;
+    private Thread writer;
+    private volatile boolean running = true;
+
+    // Tomcat also inspects these callbacks on filters, and rejects them if they throw checked exceptions
+    @PostConstruct
+    public void init() {
+        startedNanos = System.nanoTime();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        try {
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open capture file " + file, e);
+        }
+        writer = new Thread(this::writeLoop, "request-capture");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Capturing requests to {}", file.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            writer.join(5000);
+            out.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Failed to close capture file {}", file, e);
+        }
+        if (dropped.get() > 0) {
+            log.warn("{} requests were not captured because the queue was full", dropped.get());
+        }
+        if (failed.get() > 0) {
+            log.warn("{} requests were not captured because their line could not be written", failed.get());
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long at = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        ContentCachingRequestWrapper wrapper = new ContentCachingRequestWrapper(request, MAX_BODY_BYTES);
+        try {
+            filterChain.doFilter(wrapper, response);
+        } finally {
+            capture(at, wrapper, response.getStatus());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/h2-console");
+    }
+
+    // Runs after the response is complete; a request is never failed for the sake of its capture
+    private void capture(long at, ContentCachingRequestWrapper request, int status) {
+        try {
+            if (!queue.offer(toLine(at, request, status))) {
+                dropped.incrementAndGet();
+            }
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.debug("Could not capture {} {}", request.getMethod(), request.getRequestURI(), e);
+        }
+    }
+
+    private String toLine(long at, ContentCachingRequestWrapper request, int status) throws IOException {
+        ObjectNode line = objectMapper.createObjectNode();
+        line.put("at", at);
+        line.put("method", request.getMethod());
+        line.put("path", request.getRequestURI().substring(request.getContextPath().length()));
+        if (request.getQueryString() != null) {
+            line.put("query", request.getQueryString());
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof UserProfile user) {
+            line.put("user", user.getUsername());
+        }
+        byte[] body = request.getContentAsByteArray();
+        String contentType = request.getContentType();
+        if (body.length > 0 && contentType != null && contentType.contains("json")) {
+            JsonNode json = parse(body);
+            if (json == null) {
+                line.put("bodyOmitted", body.length >= MAX_BODY_BYTES ? "truncated" : "unparseable");
+            } else {
+                redact(json);
+                line.set("body", json);
+            }
+        }
+        line.put("status", status);
+        return objectMapper.writeValueAsString(line);
+    }
+
+    private JsonNode parse(byte[] body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void redact(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            for (String field : SECRET_FIELDS) {
+                if (object.has(field)) {
+                    object.put(field, REDACTED);
+                }
+            }
+            object.elements().forEachRemaining(RequestCaptureFilter::redact);
+        } else if (node.isArray()) {
+            node.elements().forEachRemaining(RequestCaptureFilter::redact);
+        }
+    }
+
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                String first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch);
+                for (String line : batch) {
+                    out.write(line);
+                    out.newLine();
+                }
+                out.flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.warn("Failed to write {} captured requests", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.rydio.config;
 
+import com.rydio.common.ratelimit.TokenBucketRateLimiter;
+import com.rydio.controller.BookingController;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -15,6 +19,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableWebSecurity
@@ -23,9 +29,66 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${app.rate-limit.login.per-ip-per-minute:20}")
+    private int loginPerIpPerMinute;
+
+    @Value("${app.rate-limit.login.per-username-per-minute:5}")
+    private int loginPerUsernamePerMinute;
+
+    @Value("${app.rate-limit.register.per-ip-per-minute:10}")
+    private int registerPerIpPerMinute;
+
+    @Value("${app.rate-limit.recommendations.per-ip-per-minute:60}")
+    private int recommendationsPerIpPerMinute;
+
+    @Value("${app.rate-limit.max-clients:100000}")
+    private int rateLimitMaxClients;
+
+    @Value("${app.security.password.algorithm:bcrypt}")
+    private String passwordAlgorithm;
+
+    // bcrypt log rounds, or PBKDF2 iterations
+    @Value("${app.security.password.cost:10}")
+    private int passwordCost;
+
+    // Older PBKDF2 iteration counts that existing hashes may still use
+    @Value("${app.security.password.pbkdf2-accepted-iterations:}")
+    private List<Integer> acceptedPbkdf2Iterations;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return PasswordEncoders.delegating(passwordAlgorithm, passwordCost, acceptedPbkdf2Iterations);
+    }
+
+    @Bean
+    public TokenBucketRateLimiter loginUsernameRateLimiter() {
+        return perMinute(loginPerUsernamePerMinute);
+    }
+
+    // Per-route, per-client-IP limits. Routes not listed here are not throttled.
+    private RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter()
+            .limit("POST", "/auth/login", perMinute(loginPerIpPerMinute))
+            .limit("POST", "/auth/register", perMinute(registerPerIpPerMinute))
+            .limit("GET", "/recommendations/quick", perMinute(recommendationsPerIpPerMinute))
+            .limit("POST", "/recommendations/smart", perMinute(recommendationsPerIpPerMinute));
+    }
+
+    private TokenBucketRateLimiter perMinute(int requests) {
+        return new TokenBucketRateLimiter(requests, requests, 1, TimeUnit.MINUTES, rateLimitMaxClients);
+    }
+
+    // Actuator endpoints listen on a separate port bound to localhost, for the metrics scraper
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(authz -> authz.anyRequest().permitAll());
+
+        return http.build();
     }
 
     @Bean
@@ -41,9 +104,13 @@ public class SecurityConfig {
                 .requestMatchers("/recommendations/**").permitAll() // Allow recommendations for all users
                 .requestMatchers("/vehicles", "/vehicles/search").permitAll() // Allow vehicle browsing for guests
                 .requestMatchers("/vehicles/{id}").permitAll() // Allow vehicle details for guests
+                .requestMatchers("/pricing/**").permitAll() // Allow price quotes for guests
+                .requestMatchers("/files/download/**", "/files/derived/**").permitAll() // Stored images are public
+                .requestMatchers("/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable())) // For H2 Console
+            .addFilterBefore(rateLimitFilter(), UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
@@ -55,6 +122,7 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(BookingController.NEXT_CURSOR_HEADER, RequestIdFilter.REQUEST_ID_HEADER));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,22 @@
+package com.rydio.controller;
+
+import com.rydio.admin.dto.DashboardStats;
+import com.rydio.admin.service.AdminStatsService;
+import com.rydio.common.dto.ApiResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AdminController {
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @GetMapping("/dashboard")
+    public ResponseEntity<ApiResponse<DashboardStats>> getDashboard() {
+        return ResponseEntity.ok(ApiResponse.success("Dashboard stats retrieved", adminStatsService.dashboard()));
+    }
+}
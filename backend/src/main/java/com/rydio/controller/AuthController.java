@@ -1,10 +1,19 @@
 package com.rydio.controller;
 
 import com.rydio.common.dto.ApiResponse;
+import com.rydio.common.exception.BadRequestException;
+import com.rydio.user.dto.UserProfile;
 import com.rydio.user.entity.User;
+import com.rydio.user.service.UserProfileService;
 import com.rydio.user.service.UserService;
+import com.rydio.common.ratelimit.TokenBucketRateLimiter;
 import com.rydio.config.JwtUtil;
+import com.rydio.config.RateLimitFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -18,20 +27,26 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:3000")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserProfileService userProfileService;
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenBucketRateLimiter loginUsernameRateLimiter;
+
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<Map<String, Object>>> register(@RequestBody Map<String, Object> registerData) {
         try {
-            System.out.println("Registration request received: " + registerData);
-            
             String firstName = (String) registerData.get("firstName");
             String lastName = (String) registerData.get("lastName");
             String email = (String) registerData.get("email");
@@ -46,41 +61,22 @@ public class AuthController {
                 email == null || email.trim().isEmpty() ||
                 username == null || username.trim().isEmpty() ||
                 password == null || password.trim().isEmpty()) {
-                System.out.println("Registration validation failed");
+                log.debug("Registration rejected: missing required fields");
                 return ResponseEntity.badRequest()
                     .body(new ApiResponse<>(false, "All required fields must be provided", null));
             }
             
-            // Check if user already exists
-            if (userService.existsByEmail(email.trim())) {
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, "Email already exists", null));
-            }
-            
-            if (userService.existsByUsername(username.trim())) {
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, "Username already exists", null));
-            }
-            
-            // Create new user
-            User newUser = userService.createUser(
+            // Create new user in a single insert; duplicates are reported by the unique constraints
+            User newUser = userService.registerUser(
                 username.trim(),
                 email.trim(),
                 passwordEncoder.encode(password.trim()), // Hash the password
                 firstName.trim(),
                 lastName.trim(),
-                User.Role.USER
+                phoneNumber != null && !phoneNumber.trim().isEmpty() ? phoneNumber.trim() : null,
+                address != null && !address.trim().isEmpty() ? address.trim() : null
             );
             
-            if (phoneNumber != null && !phoneNumber.trim().isEmpty()) {
-                newUser.setPhoneNumber(phoneNumber.trim());
-            }
-            if (address != null && !address.trim().isEmpty()) {
-                newUser.setAddress(address.trim());
-            }
-            
-            newUser = userService.save(newUser);
-            
             // Generate JWT tokens
             String token = jwtUtil.generateToken(newUser);
             String refreshToken = jwtUtil.generateRefreshToken(newUser);
@@ -96,14 +92,16 @@ public class AuthController {
             userData.put("token", token);
             userData.put("refreshToken", refreshToken);
             
-            System.out.println("Registration successful for: " + email);
+            log.info("Registered user {}", newUser.getId());
             return ResponseEntity.ok(
                 new ApiResponse<>(true, "User registered successfully", userData)
             );
             
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
-            System.out.println("Registration error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Registration failed", e);
             return ResponseEntity.internalServerError()
                 .body(new ApiResponse<>(false, "Registration failed: " + e.getMessage(), null));
         }
@@ -112,8 +110,6 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<Map<String, Object>>> login(@RequestBody Map<String, Object> loginData) {
         try {
-            System.out.println("Login request received: " + loginData);
-            
             String email = (String) loginData.get("email");
             String usernameOrEmail = (String) loginData.get("usernameOrEmail");
             String password = (String) loginData.get("password");
@@ -124,18 +120,25 @@ public class AuthController {
             // Validate required fields
             if (loginIdentifier == null || loginIdentifier.trim().isEmpty() || 
                 password == null || password.trim().isEmpty()) {
-                System.out.println("Validation failed - identifier: " + loginIdentifier + ", password: " + (password != null ? "[PROVIDED]" : "[NULL]"));
+                log.debug("Login rejected: missing identifier or password");
                 return ResponseEntity.badRequest()
                     .body(new ApiResponse<>(false, "Email/Username and password are required", null));
             }
             
-            System.out.println("Attempting login for: " + loginIdentifier);
+            // Per-account throttle on top of the per-IP limit applied in RateLimitFilter
+            long waitNanos = loginUsernameRateLimiter.tryAcquire(loginIdentifier.trim().toLowerCase());
+            if (waitNanos > 0) {
+                long retryAfter = RateLimitFilter.retryAfterSeconds(waitNanos);
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(new ApiResponse<>(false, "Too many login attempts, please try again later", null));
+            }
             
             // Find user by username or email
             Optional<User> userOptional = userService.findByUsernameOrEmail(loginIdentifier.trim());
             
             if (userOptional.isEmpty()) {
-                System.out.println("User not found: " + loginIdentifier);
+                log.debug("Login failed: unknown account");
                 return ResponseEntity.status(401)
                     .body(new ApiResponse<>(false, "Invalid credentials", null));
             }
@@ -144,7 +147,7 @@ public class AuthController {
             
             // Check password using password encoder
             if (!passwordEncoder.matches(password.trim(), user.getPassword())) {
-                System.out.println("Invalid password for user: " + loginIdentifier);
+                log.debug("Login failed: wrong password for user {}", user.getId());
                 return ResponseEntity.status(401)
                     .body(new ApiResponse<>(false, "Invalid credentials", null));
             }
@@ -155,6 +158,12 @@ public class AuthController {
                     .body(new ApiResponse<>(false, "Account is disabled", null));
             }
             
+            // Re-hash with the currently configured algorithm/cost while we still have the raw password
+            if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                user.setPassword(passwordEncoder.encode(password.trim()));
+                user = userService.save(user);
+            }
+            
             // Generate JWT tokens
             String token = jwtUtil.generateToken(user);
             String refreshToken = jwtUtil.generateRefreshToken(user);
@@ -170,14 +179,13 @@ public class AuthController {
             userData.put("token", token);
             userData.put("refreshToken", refreshToken);
             
-            System.out.println("Login successful for: " + loginIdentifier);
+            log.debug("Login succeeded for user {}", user.getId());
             return ResponseEntity.ok(
                 new ApiResponse<>(true, "Login successful", userData)
             );
             
         } catch (Exception e) {
-            System.out.println("Login error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Login failed", e);
             return ResponseEntity.internalServerError()
                 .body(new ApiResponse<>(false, "Login failed: " + e.getMessage(), null));
         }
@@ -192,40 +200,21 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getCurrentUser(
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        
-        // Extract user ID from token (simplified for demo)
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            
-            // Extract username from token pattern
-            String username = null;
-            if (token.contains("admin")) {
-                username = "admin";
-            } else if (token.contains("hara")) {
-                username = "hara";
-            } else if (token.contains("testuser")) {
-                username = "testuser";
-            }
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCurrentUser() {
+        Optional<UserProfile> profileOptional = userProfileService.getCurrentProfile();
+        if (profileOptional.isPresent()) {
+            UserProfile profile = profileOptional.get();
+            Map<String, Object> userData = new HashMap<>();
+            userData.put("id", profile.getId());
+            userData.put("firstName", profile.getFirstName());
+            userData.put("lastName", profile.getLastName());
+            userData.put("email", profile.getEmail());
+            userData.put("username", profile.getUsername());
+            userData.put("role", profile.getRole().toString());
             
-            if (username != null) {
-                Optional<User> userOptional = userService.findByUsername(username);
-                if (userOptional.isPresent()) {
-                    User user = userOptional.get();
-                    Map<String, Object> userData = new HashMap<>();
-                    userData.put("id", user.getId());
-                    userData.put("firstName", user.getFirstName());
-                    userData.put("lastName", user.getLastName());
-                    userData.put("email", user.getEmail());
-                    userData.put("username", user.getUsername());
-                    userData.put("role", user.getRole().toString());
-                    
-                    return ResponseEntity.ok(
-                        new ApiResponse<>(true, "User data retrieved", userData)
-                    );
-                }
-            }
+            return ResponseEntity.ok(
+                new ApiResponse<>(true, "User data retrieved", userData)
+            );
         }
         
         return ResponseEntity.status(401)
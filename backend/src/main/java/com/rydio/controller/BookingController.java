@@ -1,105 +1,129 @@
 package com.rydio.controller;
 
+import com.rydio.booking.dto.BookingAuditResponse;
+import com.rydio.booking.dto.BookingHistoryPage;
+import com.rydio.booking.dto.BookingResponse;
+import com.rydio.booking.dto.BookingSummary;
+import com.rydio.booking.dto.CreateBookingRequest;
+import com.rydio.booking.dto.UserBookingSummary;
+import com.rydio.booking.service.BookingHoldService;
+import com.rydio.booking.service.BookingService;
 import com.rydio.common.dto.ApiResponse;
+import com.rydio.idempotency.service.IdempotencyService;
+import com.rydio.user.dto.UserProfile;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 @RestController
 @RequestMapping("/bookings")
 @CrossOrigin(origins = "http://localhost:3000")
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingHoldService bookingHoldService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PostMapping("")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> createBooking(@RequestBody Map<String, Object> bookingData) {
-        try {
-            // Extract booking data
-            String vehicleId = (String) bookingData.get("vehicleId");
-            String startDate = (String) bookingData.get("startDate");
-            String endDate = (String) bookingData.get("endDate");
-            String pickupLocation = (String) bookingData.get("pickupLocation");
-            String dropLocation = (String) bookingData.get("dropLocation");
-            
-            // Validate required fields
-            if (vehicleId == null || startDate == null || endDate == null || 
-                pickupLocation == null || dropLocation == null) {
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, "All booking fields are required", null));
-            }
-            
-            // Mock booking creation
-            Map<String, Object> booking = new HashMap<>();
-            booking.put("id", "booking_" + System.currentTimeMillis());
-            booking.put("vehicleId", vehicleId);
-            booking.put("startDate", startDate);
-            booking.put("endDate", endDate);
-            booking.put("pickupLocation", pickupLocation);
-            booking.put("dropLocation", dropLocation);
-            booking.put("status", "CONFIRMED");
-            booking.put("totalAmount", calculateMockAmount(vehicleId, startDate, endDate));
-            booking.put("bookingDate", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            
-            return ResponseEntity.ok(
-                new ApiResponse<>(true, "Booking created successfully", booking)
-            );
-            
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                .body(new ApiResponse<>(false, "Booking failed: " + e.getMessage(), null));
-        }
+    public ResponseEntity<ApiResponse<BookingResponse>> createBooking(
+            @Valid @RequestBody CreateBookingRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        // Retries with the same key get the original booking back instead of a new one
+        BookingResponse booking = idempotencyKey == null
+                ? bookingService.createBooking(request, currentUser.getId())
+                : idempotencyService.execute("bookings:user:" + currentUser.getId(), idempotencyKey,
+                        request, BookingResponse.class, () -> bookingService.createBooking(request, currentUser.getId()));
+        return ResponseEntity.ok(ApiResponse.success("Booking created successfully", booking));
+    }
+
+    // Reserves the vehicle as a PENDING booking until it is confirmed or the hold expires
+    @PostMapping("/holds")
+    public ResponseEntity<ApiResponse<BookingResponse>> createHold(
+            @Valid @RequestBody CreateBookingRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        BookingResponse hold = idempotencyKey == null
+                ? bookingHoldService.createHold(request, currentUser.getId())
+                : idempotencyService.execute("holds:user:" + currentUser.getId(), idempotencyKey,
+                        request, BookingResponse.class, () -> bookingHoldService.createHold(request, currentUser.getId()));
+        return ResponseEntity.ok(ApiResponse.success("Vehicle held until " + hold.getHoldExpiresAt(), hold));
+    }
+
+    @PutMapping("/{bookingId}/confirm")
+    public ResponseEntity<ApiResponse<BookingResponse>> confirmHold(@PathVariable Long bookingId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        BookingResponse booking = bookingHoldService.confirmHold(bookingId, currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.success("Booking confirmed successfully", booking));
     }
 
+    @PutMapping("/{bookingId}/cancel")
+    public ResponseEntity<ApiResponse<BookingResponse>> cancelBooking(@PathVariable Long bookingId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        BookingResponse booking = bookingService.cancelBooking(bookingId, currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.success("Booking cancelled successfully", booking));
+    }
+
+    // Newest first; pass the X-Next-Cursor value back as "cursor" to get the following page
     @GetMapping("")
-    public ResponseEntity<ApiResponse<String>> getUserBookings() {
-        // Mock user bookings - in real app, get from database based on user
-        String mockBookings = """
-            [
-                {
-                    "id": "booking_1",
-                    "vehicleId": "1",
-                    "vehicleBrand": "Honda",
-                    "vehicleModel": "Activa 6G",
-                    "startDate": "2025-10-01",
-                    "endDate": "2025-10-02",
-                    "status": "CONFIRMED",
-                    "totalAmount": 1200,
-                    "pickupLocation": "Mumbai Central",
-                    "dropLocation": "Mumbai Airport"
-                }
-            ]
-            """;
-        
-        return ResponseEntity.ok(
-            new ApiResponse<>(true, "Bookings retrieved successfully", mockBookings)
-        );
+    public ResponseEntity<ApiResponse<List<BookingSummary>>> getUserBookings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        BookingHistoryPage page = bookingService.getUserBookings(currentUser.getId(), cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(ApiResponse.success("Bookings retrieved successfully", page.getBookings()));
     }
 
-    @GetMapping("/{bookingId}")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getBookingDetails(@PathVariable String bookingId) {
-        // Mock booking details
-        Map<String, Object> booking = new HashMap<>();
-        booking.put("id", bookingId);
-        booking.put("vehicleId", "1");
-        booking.put("vehicleBrand", "Honda");
-        booking.put("vehicleModel", "Activa 6G");
-        booking.put("startDate", "2025-10-01");
-        booking.put("endDate", "2025-10-02");
-        booking.put("status", "CONFIRMED");
-        booking.put("totalAmount", 1200);
-        booking.put("pickupLocation", "Mumbai Central");
-        booking.put("dropLocation", "Mumbai Airport");
-        
-        return ResponseEntity.ok(
-            new ApiResponse<>(true, "Booking details retrieved", booking)
-        );
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse<UserBookingSummary>> getUserSummary() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        UserBookingSummary summary = bookingService.getUserSummary(currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.success("Booking summary retrieved", summary));
+    }
+
+    @GetMapping("/{bookingId}/events")
+    public ResponseEntity<ApiResponse<BookingAuditResponse>> getBookingEvents(@PathVariable Long bookingId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        BookingAuditResponse audit = bookingService.getBookingAudit(bookingId, currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.success("Booking events retrieved", audit));
     }
 
-    private double calculateMockAmount(String vehicleId, String startDate, String endDate) {
-        // Mock calculation - in real app, calculate based on vehicle rate and duration
-        return 1200.0; // Fixed amount for demo
+    @GetMapping("/{bookingId}")
+    public ResponseEntity<ApiResponse<BookingResponse>> getBookingDetails(@PathVariable Long bookingId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        BookingResponse booking = bookingService.getBookingDetails(bookingId, currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.success("Booking details retrieved", booking));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package com.rydio.controller;
+
+import com.rydio.common.dto.ApiResponse;
+import com.rydio.common.exception.ResourceNotFoundException;
+import com.rydio.file.dto.FileUploadResponse;
+import com.rydio.file.dto.InitUploadRequest;
+import com.rydio.file.dto.UploadSessionResponse;
+import com.rydio.file.service.ChunkedUploadService;
+import com.rydio.file.service.FileDownloadService;
+import com.rydio.file.service.FileStorageService;
+import com.rydio.file.service.ImageDerivativeService;
+import com.rydio.file.service.ImageVariant;
+import com.rydio.user.dto.UserProfile;
+import com.rydio.user.entity.User;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/files")
+@CrossOrigin(origins = "http://localhost:3000")
+public class FileController {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private FileDownloadService fileDownloadService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @PostMapping("/upload")
+    public ResponseEntity<ApiResponse<FileUploadResponse>> uploadFile(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "general") String subfolder) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        FileUploadResponse uploaded = fileStorageService.store(file, subfolder, currentUser.getId());
+        String[] location = uploaded.getFileName().split("/");
+        imageDerivativeService.submit(location[0], location[1]);
+        return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", uploaded));
+    }
+
+    // Resumable upload: start a session, PUT chunks at the current offset, then complete it
+    @PostMapping("/uploads")
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> startUpload(@Valid @RequestBody InitUploadRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        UploadSessionResponse session = chunkedUploadService.start(request, currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.success("Upload started", session));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> getUpload(@PathVariable String uploadId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        UploadSessionResponse session = chunkedUploadService.status(uploadId, currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.success("Upload retrieved successfully", session));
+    }
+
+    // The chunk is the raw request body, streamed to disk as it arrives
+    @PutMapping("/uploads/{uploadId}")
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> uploadChunk(@PathVariable String uploadId,
+                                                                          @RequestParam long offset,
+                                                                          HttpServletRequest request) throws IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        UploadSessionResponse session = chunkedUploadService.appendChunk(uploadId, currentUser.getId(), offset,
+                request.getInputStream());
+        return ResponseEntity.ok(ApiResponse.success("Chunk received", session));
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<ApiResponse<FileUploadResponse>> completeUpload(@PathVariable String uploadId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        FileUploadResponse uploaded = chunkedUploadService.complete(uploadId, currentUser.getId());
+        String[] location = uploaded.getFileName().split("/");
+        imageDerivativeService.submit(location[0], location[1]);
+        return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", uploaded));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<ApiResponse<String>> abortUpload(@PathVariable String uploadId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        chunkedUploadService.abort(uploadId, currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.success("Upload cancelled", uploadId));
+    }
+
+    // Public, so stored images can be used directly in <img> tags
+    @GetMapping("/download/{subfolder}/{fileName}")
+    public void downloadFile(@PathVariable String subfolder, @PathVariable String fileName,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = fileStorageService.resolve(subfolder, fileName);
+        fileDownloadService.send(file, FileStorageService.hashOf(fileName), fileStorageService.contentType(fileName),
+                request, response);
+    }
+
+    // Downscaled copy of a stored image; redirects to the original until the copy is ready
+    @GetMapping("/derived/{variant}/{subfolder}/{fileName}")
+    public void downloadVariant(@PathVariable String variant, @PathVariable String subfolder, @PathVariable String fileName,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImageVariant imageVariant = ImageVariant.fromPathName(variant)
+                .orElseThrow(() -> new ResourceNotFoundException("Unknown image variant: " + variant));
+        Optional<Path> file = imageDerivativeService.find(imageVariant, subfolder, fileName);
+        if (file.isEmpty()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.sendRedirect(request.getContextPath() + FileStorageService.DOWNLOAD_PATH + subfolder + "/" + fileName);
+            return;
+        }
+        fileDownloadService.send(file.get(), FileStorageService.hashOf(fileName) + "-" + imageVariant.getPathName(),
+                "image/jpeg", request, response);
+    }
+
+    @DeleteMapping("/delete/{subfolder}/{fileName}")
+    public ResponseEntity<ApiResponse<String>> deleteFile(@PathVariable String subfolder, @PathVariable String fileName) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        fileStorageService.delete(subfolder, fileName, currentUser.getId(), currentUser.getRole() == User.Role.ADMIN);
+        return ResponseEntity.ok(ApiResponse.success("File deleted successfully", subfolder + "/" + fileName));
+    }
+}
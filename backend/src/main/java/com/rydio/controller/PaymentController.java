@@ -0,0 +1,104 @@
+package com.rydio.controller;
+
+import com.rydio.common.dto.ApiResponse;
+import com.rydio.idempotency.service.IdempotencyService;
+import com.rydio.payment.dto.PaymentHistoryPage;
+import com.rydio.payment.dto.PaymentResponse;
+import com.rydio.payment.dto.ProcessPaymentRequest;
+import com.rydio.payment.entity.Payment;
+import com.rydio.payment.service.PaymentService;
+import com.rydio.user.dto.UserProfile;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/payments")
+@CrossOrigin(origins = "http://localhost:3000")
+public class PaymentController {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @PostMapping("/process")
+    public ResponseEntity<ApiResponse<PaymentResponse>> processPayment(
+            @Valid @RequestBody ProcessPaymentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        // A retried request with the same key never charges twice
+        PaymentResponse payment = idempotencyKey == null
+                ? paymentService.processPayment(request, currentUser.getId())
+                : idempotencyService.execute("payments:user:" + currentUser.getId(), idempotencyKey,
+                        request, PaymentResponse.class, () -> paymentService.processPayment(request, currentUser.getId()));
+        if (payment.getStatus() == Payment.PaymentStatus.FAILED) {
+            return ResponseEntity.status(HttpStatus.PAYMENT_REQUIRED)
+                    .body(ApiResponse.error("Payment failed: " + payment.getFailureReason(), payment));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Payment processed successfully", payment));
+    }
+
+    // Newest first; pass the X-Next-Cursor value back as "cursor" to get the following page
+    @GetMapping("/my-payments")
+    public ResponseEntity<ApiResponse<List<PaymentResponse>>> getUserPayments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        PaymentHistoryPage page = paymentService.getUserPayments(currentUser.getId(), cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(BookingController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(ApiResponse.success("Payments retrieved successfully", page.getPayments()));
+    }
+
+    @GetMapping("/my-payments/paged")
+    public ResponseEntity<ApiResponse<PaymentHistoryPage>> getUserPaymentsPaged(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        PaymentHistoryPage page = paymentService.getUserPayments(currentUser.getId(), cursor, size);
+        return ResponseEntity.ok(ApiResponse.success("Payments retrieved successfully", page));
+    }
+
+    @GetMapping("/{paymentId}")
+    public ResponseEntity<ApiResponse<PaymentResponse>> getPayment(@PathVariable Long paymentId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        PaymentResponse payment = paymentService.getPayment(paymentId, currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.success("Payment retrieved successfully", payment));
+    }
+
+    @GetMapping("/transaction/{transactionId}")
+    public ResponseEntity<ApiResponse<PaymentResponse>> getPaymentByTransactionId(@PathVariable String transactionId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        PaymentResponse payment = paymentService.getPaymentByTransactionId(transactionId, currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.success("Payment retrieved successfully", payment));
+    }
+
+    @GetMapping("/booking/{bookingId}")
+    public ResponseEntity<ApiResponse<List<PaymentResponse>>> getBookingPayments(@PathVariable Long bookingId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
+
+        List<PaymentResponse> payments = paymentService.getBookingPayments(bookingId, currentUser.getId());
+        return ResponseEntity.ok(ApiResponse.success("Payments retrieved successfully", payments));
+    }
+}
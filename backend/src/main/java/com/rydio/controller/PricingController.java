@@ -0,0 +1,39 @@
+package com.rydio.controller;
+
+import com.rydio.common.dto.ApiResponse;
+import com.rydio.common.util.DateTimes;
+import com.rydio.pricing.dto.PriceQuote;
+import com.rydio.pricing.dto.QuoteRequest;
+import com.rydio.pricing.service.PricingService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/pricing")
+@CrossOrigin(origins = "http://localhost:3000")
+public class PricingController {
+
+    @Autowired
+    private PricingService pricingService;
+
+    @GetMapping("/quote")
+    public ResponseEntity<ApiResponse<PriceQuote>> getQuote(
+            @RequestParam Long vehicleId,
+            @RequestParam String startDate,
+            @RequestParam String endDate) {
+        PriceQuote quote = pricingService.quote(List.of(vehicleId),
+                DateTimes.parse(startDate), DateTimes.parse(endDate)).get(0);
+        return ResponseEntity.ok(ApiResponse.success("Quote calculated", quote));
+    }
+
+    @PostMapping("/quotes")
+    public ResponseEntity<ApiResponse<List<PriceQuote>>> getQuotes(@Valid @RequestBody QuoteRequest request) {
+        List<PriceQuote> quotes = pricingService.quote(request.getVehicleIds(),
+                DateTimes.parse(request.getStartDate()), DateTimes.parse(request.getEndDate()));
+        return ResponseEntity.ok(ApiResponse.success("Quotes calculated", quotes));
+    }
+}
@@ -1,7 +1,9 @@
 package com.rydio.controller;
 
 import com.rydio.common.dto.ApiResponse;
+import com.rydio.user.dto.UserProfile;
 import com.rydio.user.entity.User;
+import com.rydio.user.service.UserProfileService;
 import com.rydio.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -19,55 +21,34 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserProfileService userProfileService;
+
     @GetMapping("/profile")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getUserProfile(
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            return ResponseEntity.status(401)
-                .body(new ApiResponse<>(false, "Authorization header required", null));
-        }
-        
-        String token = authHeader.substring(7);
-        
-        // Extract username from token pattern (simplified for demo)
-        String username = null;
-        if (token.contains("admin")) {
-            username = "admin";
-        } else if (token.contains("hara")) {
-            username = "hara";
-        } else if (token.contains("testuser")) {
-            username = "testuser";
-        }
-        
-        if (username == null) {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getUserProfile() {
+        Optional<UserProfile> profileOptional = userProfileService.getCurrentProfile();
+        if (profileOptional.isEmpty()) {
             return ResponseEntity.status(401)
-                .body(new ApiResponse<>(false, "Invalid token", null));
+                .body(new ApiResponse<>(false, "Authentication required", null));
         }
         
-        Optional<User> userOptional = userService.findByUsername(username);
-        if (userOptional.isEmpty()) {
-            return ResponseEntity.status(404)
-                .body(new ApiResponse<>(false, "User not found", null));
-        }
-        
-        User user = userOptional.get();
+        UserProfile profile = profileOptional.get();
         Map<String, Object> userProfile = new HashMap<>();
-        userProfile.put("userId", user.getId());
-        userProfile.put("username", user.getUsername());
-        userProfile.put("email", user.getEmail());
-        userProfile.put("firstName", user.getFirstName());
-        userProfile.put("lastName", user.getLastName());
-        userProfile.put("role", user.getRole().toString());
-        userProfile.put("phoneNumber", user.getPhoneNumber());
-        userProfile.put("address", user.getAddress());
-        userProfile.put("dateOfBirth", user.getDateOfBirth());
-        userProfile.put("driverLicenseNumber", user.getDriverLicenseNumber());
-        userProfile.put("driverLicenseExpiry", user.getDriverLicenseExpiry());
-        userProfile.put("emailVerified", user.isEmailVerified());
-        userProfile.put("isActive", user.isActive());
-        userProfile.put("createdAt", user.getCreatedAt());
-        userProfile.put("updatedAt", user.getUpdatedAt());
+        userProfile.put("userId", profile.getId());
+        userProfile.put("username", profile.getUsername());
+        userProfile.put("email", profile.getEmail());
+        userProfile.put("firstName", profile.getFirstName());
+        userProfile.put("lastName", profile.getLastName());
+        userProfile.put("role", profile.getRole().toString());
+        userProfile.put("phoneNumber", profile.getPhoneNumber());
+        userProfile.put("address", profile.getAddress());
+        userProfile.put("dateOfBirth", profile.getDateOfBirth());
+        userProfile.put("driverLicenseNumber", profile.getDriverLicenseNumber());
+        userProfile.put("driverLicenseExpiry", profile.getDriverLicenseExpiry());
+        userProfile.put("emailVerified", profile.isEmailVerified());
+        userProfile.put("isActive", profile.isActive());
+        userProfile.put("createdAt", profile.getCreatedAt());
+        userProfile.put("updatedAt", profile.getUpdatedAt());
         
         return ResponseEntity.ok(
             new ApiResponse<>(true, "Profile retrieved successfully", userProfile)
@@ -76,65 +57,25 @@ public class UserController {
 
     @PutMapping("/profile")
     public ResponseEntity<ApiResponse<Map<String, Object>>> updateUserProfile(
-            @RequestBody Map<String, Object> profileData,
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
-        
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            return ResponseEntity.status(401)
-                .body(new ApiResponse<>(false, "Authorization header required", null));
-        }
-        
-        String token = authHeader.substring(7);
-        
-        // Extract username from token pattern (simplified for demo)
-        String username = null;
-        if (token.contains("admin")) {
-            username = "admin";
-        } else if (token.contains("hara")) {
-            username = "hara";
-        } else if (token.contains("testuser")) {
-            username = "testuser";
-        }
-        
-        if (username == null) {
+            @RequestBody Map<String, Object> profileData) {
+        Optional<UserProfile> profileOptional = userProfileService.getCurrentProfile();
+        if (profileOptional.isEmpty()) {
             return ResponseEntity.status(401)
-                .body(new ApiResponse<>(false, "Invalid token", null));
-        }
-        
-        Optional<User> userOptional = userService.findByUsername(username);
-        if (userOptional.isEmpty()) {
-            return ResponseEntity.status(404)
-                .body(new ApiResponse<>(false, "User not found", null));
-        }
-        
-        User user = userOptional.get();
-        
-        // Update allowed fields
-        if (profileData.containsKey("firstName")) {
-            user.setFirstName((String) profileData.get("firstName"));
-        }
-        if (profileData.containsKey("lastName")) {
-            user.setLastName((String) profileData.get("lastName"));
-        }
-        if (profileData.containsKey("phoneNumber")) {
-            user.setPhoneNumber((String) profileData.get("phoneNumber"));
-        }
-        if (profileData.containsKey("address")) {
-            user.setAddress((String) profileData.get("address"));
+                .body(new ApiResponse<>(false, "Authentication required", null));
         }
         
-        user = userService.save(user);
+        UserProfile profile = userProfileService.updateProfile(profileOptional.get().getId(), profileData);
         
         Map<String, Object> updatedProfile = new HashMap<>();
-        updatedProfile.put("userId", user.getId());
-        updatedProfile.put("username", user.getUsername());
-        updatedProfile.put("email", user.getEmail());
-        updatedProfile.put("firstName", user.getFirstName());
-        updatedProfile.put("lastName", user.getLastName());
-        updatedProfile.put("role", user.getRole().toString());
-        updatedProfile.put("phoneNumber", user.getPhoneNumber());
-        updatedProfile.put("address", user.getAddress());
-        updatedProfile.put("updatedAt", user.getUpdatedAt());
+        updatedProfile.put("userId", profile.getId());
+        updatedProfile.put("username", profile.getUsername());
+        updatedProfile.put("email", profile.getEmail());
+        updatedProfile.put("firstName", profile.getFirstName());
+        updatedProfile.put("lastName", profile.getLastName());
+        updatedProfile.put("role", profile.getRole().toString());
+        updatedProfile.put("phoneNumber", profile.getPhoneNumber());
+        updatedProfile.put("address", profile.getAddress());
+        updatedProfile.put("updatedAt", profile.getUpdatedAt());
         
         return ResponseEntity.ok(
             new ApiResponse<>(true, "Profile updated successfully", updatedProfile)
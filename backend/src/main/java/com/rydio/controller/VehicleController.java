@@ -1,18 +1,22 @@
 package com.rydio.controller;
 
 import com.rydio.common.dto.ApiResponse;
+import com.rydio.common.exception.BadRequestException;
 import com.rydio.vehicle.dto.CreateVehicleRequest;
 import com.rydio.vehicle.dto.VehicleResponse;
+import com.rydio.vehicle.dto.VehicleSearchPage;
 import com.rydio.vehicle.entity.Vehicle;
 import com.rydio.vehicle.service.VehicleService;
-import com.rydio.user.entity.User;
+import com.rydio.user.dto.UserProfile;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -38,7 +42,7 @@ public class VehicleController {
     @GetMapping("/my-vehicles")
     public ResponseEntity<ApiResponse<List<VehicleResponse>>> getMyVehicles() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) auth.getPrincipal();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
         
         List<VehicleResponse> vehicles = vehicleService.getVehiclesByOwner(currentUser.getId());
         return ResponseEntity.ok(ApiResponse.success("Your vehicles retrieved successfully", vehicles));
@@ -47,7 +51,7 @@ public class VehicleController {
     @PostMapping
     public ResponseEntity<ApiResponse<VehicleResponse>> createVehicle(@Valid @RequestBody CreateVehicleRequest request) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) auth.getPrincipal();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
         
         VehicleResponse vehicle = vehicleService.createVehicle(request, currentUser.getId());
         return ResponseEntity.ok(ApiResponse.success("Vehicle created successfully", vehicle));
@@ -58,7 +62,7 @@ public class VehicleController {
             @PathVariable Long id, 
             @Valid @RequestBody CreateVehicleRequest request) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) auth.getPrincipal();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
         
         VehicleResponse vehicle = vehicleService.updateVehicle(id, request, currentUser.getId());
         return ResponseEntity.ok(ApiResponse.success("Vehicle updated successfully", vehicle));
@@ -67,9 +71,11 @@ public class VehicleController {
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<String>> deleteVehicle(@PathVariable Long id) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) auth.getPrincipal();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
         
-        vehicleService.deleteVehicle(id, currentUser.getId());
+        if (!vehicleService.deleteVehicle(id, currentUser.getId())) {
+            return ResponseEntity.ok(ApiResponse.success("Vehicle retired; its booking history is kept", "Vehicle inactive"));
+        }
         return ResponseEntity.ok(ApiResponse.success("Vehicle deleted successfully", "Vehicle removed"));
     }
     
@@ -78,21 +84,39 @@ public class VehicleController {
             @PathVariable Long id, 
             @RequestParam Vehicle.VehicleStatus status) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) auth.getPrincipal();
+        UserProfile currentUser = (UserProfile) auth.getPrincipal();
         
         VehicleResponse vehicle = vehicleService.updateVehicleStatus(id, status, currentUser.getId());
         return ResponseEntity.ok(ApiResponse.success("Vehicle status updated successfully", vehicle));
     }
     
+    // With startDate/endDate only vehicles free for the whole range are returned, a page at a time
+    // in id order; pass the X-Next-Cursor value back as "cursor" to get the following page
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<VehicleResponse>>> searchVehicles(
             @RequestParam(required = false) String vehicleType,
             @RequestParam(required = false) String location,
             @RequestParam(required = false) Double minPrice,
-            @RequestParam(required = false) Double maxPrice) {
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         
         Vehicle.VehicleType type = vehicleType != null ? Vehicle.VehicleType.valueOf(vehicleType.toUpperCase()) : null;
-        List<VehicleResponse> vehicles = vehicleService.searchVehicles(type, location, minPrice, maxPrice);
-        return ResponseEntity.ok(ApiResponse.success("Vehicles found", vehicles));
+        if ((startDate == null) != (endDate == null)) {
+            throw new BadRequestException("Both startDate and endDate are required for an availability search");
+        }
+        if (startDate == null) {
+            return ResponseEntity.ok(ApiResponse.success("Vehicles found",
+                    vehicleService.searchVehicles(type, location, minPrice, maxPrice)));
+        }
+        VehicleSearchPage page = vehicleService.searchAvailableVehicles(type, location, minPrice, maxPrice,
+                startDate, endDate, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(BookingController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(ApiResponse.success("Vehicles found", page.getVehicles()));
     }
-}
\ No newline at end of file
+}
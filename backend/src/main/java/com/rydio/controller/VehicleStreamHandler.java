@@ -0,0 +1,158 @@
+package com.rydio.controller;
+
+import com.rydio.booking.service.DayAvailabilityIndex;
+import com.rydio.common.dto.ApiResponse;
+import com.rydio.common.exception.BadRequestException;
+import com.rydio.vehicle.dto.VehicleResponse;
+import com.rydio.vehicle.entity.Vehicle;
+import com.rydio.vehicle.repository.ReactiveVehicleRepository;
+import com.rydio.vehicle.service.VehicleService;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The guest browsing routes of {@link VehicleController}, served by the reactive read server
+ * from {@link ReactiveVehicleRepository}. Lists are streamed as they are read: a JSON array by
+ * default, or one vehicle per line for {@code Accept: application/x-ndjson}. Single vehicles
+ * and errors keep the usual {@link ApiResponse} envelope.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class VehicleStreamHandler {
+
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 50;
+
+    @Autowired
+    private ReactiveVehicleRepository reactiveVehicleRepository;
+
+    @Autowired
+    private DayAvailabilityIndex dayAvailabilityIndex;
+
+    public RouterFunction<ServerResponse> routes(String contextPath) {
+        return RouterFunctions.route()
+                .path(contextPath + "/vehicles", builder -> builder
+                        .GET("", this::getAllVehicles)
+                        .GET("/search", this::searchVehicles)
+                        .GET("/{id}", this::getVehicleById))
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(BadRequestException.class, e -> error(HttpStatus.BAD_REQUEST, e.getMessage())))
+                .build();
+    }
+
+    private Mono<ServerResponse> getAllVehicles(ServerRequest request) {
+        return stream(request, reactiveVehicleRepository.findByStatus(Vehicle.VehicleStatus.AVAILABLE));
+    }
+
+    private Mono<ServerResponse> getVehicleById(ServerRequest request) {
+        Long id = parse(request.pathVariable("id"), "id", Long::valueOf);
+        return reactiveVehicleRepository.findById(id)
+                .flatMap(vehicle -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(ApiResponse.success("Vehicle retrieved successfully", vehicle)))
+                .switchIfEmpty(Mono.defer(() -> error(HttpStatus.NOT_FOUND, "Vehicle not found with id: " + id)));
+    }
+
+    private Mono<ServerResponse> searchVehicles(ServerRequest request) {
+        Vehicle.VehicleType type = param(request, "vehicleType", value -> Vehicle.VehicleType.valueOf(value.toUpperCase()));
+        String location = request.queryParam("location").orElse(null);
+        Double minPrice = param(request, "minPrice", Double::valueOf);
+        Double maxPrice = param(request, "maxPrice", Double::valueOf);
+        LocalDate startDate = param(request, "startDate", LocalDate::parse);
+        LocalDate endDate = param(request, "endDate", LocalDate::parse);
+        if ((startDate == null) != (endDate == null)) {
+            throw new BadRequestException("Both startDate and endDate are required for an availability search");
+        }
+        if (startDate == null) {
+            return stream(request, reactiveVehicleRepository.findWithFilters(type, location, minPrice, maxPrice));
+        }
+
+        // Paged like VehicleController: candidate ids are checked against the day bitmaps and
+        // only the page's vehicles are read
+        VehicleService.checkSearchRange(startDate, endDate);
+        int pageSize = VehicleService.searchPageSize(param(request, "limit", Integer::valueOf, DEFAULT_SEARCH_PAGE_SIZE));
+        long afterId = VehicleService.decodeSearchCursor(request.queryParam("cursor").orElse(null));
+        RoaringBitmap booked = dayAvailabilityIndex.bookedBetween(startDate, endDate);
+        return freeIds(type, location, minPrice, maxPrice, booked, afterId, pageSize, new ArrayList<>())
+                .flatMap(ids -> {
+                    ServerResponse.BodyBuilder response = ServerResponse.ok();
+                    if (ids.size() == pageSize) {
+                        response.header(BookingController.NEXT_CURSOR_HEADER, String.valueOf(ids.get(pageSize - 1)));
+                    }
+                    return stream(request, response, reactiveVehicleRepository.findByIds(ids));
+                });
+    }
+
+    // Reads candidate ids a batch at a time until the page is full or the candidates run out
+    private Mono<List<Long>> freeIds(Vehicle.VehicleType type, String location, Double minPrice, Double maxPrice,
+                                     RoaringBitmap booked, long afterId, int pageSize, List<Long> page) {
+        return reactiveVehicleRepository.findBookableIds(type, location, minPrice, maxPrice, afterId,
+                        VehicleService.SEARCH_SCAN_BATCH)
+                .collectList()
+                .flatMap(batch -> {
+                    long last = afterId;
+                    for (Long id : batch) {
+                        last = id;
+                        if (!booked.contains(DayAvailabilityIndex.bitOf(id))) {
+                            page.add(id);
+                            if (page.size() == pageSize) {
+                                return Mono.just(page);
+                            }
+                        }
+                    }
+                    if (batch.size() < VehicleService.SEARCH_SCAN_BATCH) {
+                        return Mono.just(page);
+                    }
+                    return freeIds(type, location, minPrice, maxPrice, booked, last, pageSize, page);
+                });
+    }
+
+    private static Mono<ServerResponse> stream(ServerRequest request, Flux<VehicleResponse> vehicles) {
+        return stream(request, ServerResponse.ok(), vehicles);
+    }
+
+    private static Mono<ServerResponse> stream(ServerRequest request, ServerResponse.BodyBuilder response,
+                                               Flux<VehicleResponse> vehicles) {
+        MediaType type = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return response.contentType(type).body(vehicles, VehicleResponse.class);
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.error(message));
+    }
+
+    private static <T> T param(ServerRequest request, String name, Function<String, T> parser) {
+        return param(request, name, parser, null);
+    }
+
+    private static <T> T param(ServerRequest request, String name, Function<String, T> parser, T defaultValue) {
+        return request.queryParam(name).map(value -> parse(value, name, parser)).orElse(defaultValue);
+    }
+
+    private static <T> T parse(String value, String name, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid value for " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.rydio.file.dto;
+
+public class FileUploadResponse {
+
+    // "<subfolder>/<name>", as used by the download and delete endpoints
+    private String fileName;
+    private String originalFileName;
+    private String contentType;
+    private long size;
+    private String uploadPath;
+    // True when identical content was already stored and is shared
+    private boolean deduplicated;
+
+    // Constructors
+    public FileUploadResponse() {}
+
+    public FileUploadResponse(String fileName, String originalFileName, String contentType, long size,
+                              String uploadPath, boolean deduplicated) {
+        this.fileName = fileName;
+        this.originalFileName = originalFileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.uploadPath = uploadPath;
+        this.deduplicated = deduplicated;
+    }
+
+    // Getters and Setters
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getOriginalFileName() {
+        return originalFileName;
+    }
+
+    public void setOriginalFileName(String originalFileName) {
+        this.originalFileName = originalFileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getUploadPath() {
+        return uploadPath;
+    }
+
+    public void setUploadPath(String uploadPath) {
+        this.uploadPath = uploadPath;
+    }
+
+    public boolean isDeduplicated() {
+        return deduplicated;
+    }
+
+    public void setDeduplicated(boolean deduplicated) {
+        this.deduplicated = deduplicated;
+    }
+}
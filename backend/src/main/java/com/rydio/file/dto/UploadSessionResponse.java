@@ -0,0 +1,75 @@
+package com.rydio.file.dto;
+
+import com.rydio.file.entity.UploadSession;
+
+public class UploadSessionResponse {
+
+    private String uploadId;
+    private String fileName;
+    private long size;
+    // Where the next chunk must start
+    private long offset;
+    private long maxChunkSize;
+    private String expiresAt;
+
+    // Constructors
+    public UploadSessionResponse() {}
+
+    public UploadSessionResponse(UploadSession session, long maxChunkSize) {
+        this.uploadId = session.getId();
+        this.fileName = session.getOriginalFileName();
+        this.size = session.getSize();
+        this.offset = session.getReceivedBytes();
+        this.maxChunkSize = maxChunkSize;
+        this.expiresAt = session.getExpiresAt().toString();
+    }
+
+    // Getters and Setters
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public long getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    public void setMaxChunkSize(long maxChunkSize) {
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    public String getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(String expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,94 @@
+package com.rydio.file.entity;
+
+import com.rydio.common.entity.BaseEntity;
+import jakarta.persistence.*;
+
+// One user's reference to an uploaded file; identical uploads share the file on disk
+@Entity
+@Table(name = "stored_files", indexes = {
+    @Index(name = "idx_stored_files_content_hash", columnList = "content_hash")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = StoredFile.UK_PATH_OWNER, columnNames = {"path", "owner_id"})
+})
+public class StoredFile extends BaseEntity {
+
+    public static final String UK_PATH_OWNER = "uk_stored_files_path_owner";
+
+    // "<subfolder>/<sha-256>.<extension>" relative to the upload directory
+    @Column(nullable = false, length = 120)
+    private String path;
+
+    // The <sha-256> part of the path; the same content can be stored under several paths
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(nullable = false)
+    private String originalFileName;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Column(nullable = false)
+    private Long size;
+
+    // Constructors
+    public StoredFile() {}
+
+    public StoredFile(String path, Long ownerId, String originalFileName, String contentType, Long size) {
+        setPath(path);
+        this.ownerId = ownerId;
+        this.originalFileName = originalFileName;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+    // Getters and Setters
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+        this.contentHash = fileName.substring(0, fileName.indexOf('.'));
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getOriginalFileName() {
+        return originalFileName;
+    }
+
+    public void setOriginalFileName(String originalFileName) {
+        this.originalFileName = originalFileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+}
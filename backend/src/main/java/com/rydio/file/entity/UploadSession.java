@@ -0,0 +1,120 @@
+package com.rydio.file.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// A resumable upload in progress; its bytes live in a preallocated file until completion
+@Entity
+@Table(name = "upload_sessions", indexes = {
+    @Index(name = "idx_upload_sessions_expires_at", columnList = "expires_at")
+})
+public class UploadSession implements Persistable<String> {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private Long ownerId;
+
+    @Column(nullable = false, length = 32)
+    private String subfolder;
+
+    @Column(nullable = false)
+    private String originalFileName;
+
+    @Column(nullable = false)
+    private Long size;
+
+    // Hex SHA-256 the client expects the assembled file to have
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    // Bytes received so far; the next chunk must start here
+    @Column(name = "received_bytes", nullable = false)
+    private Long receivedBytes = 0L;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Ids are assigned here, so tell Spring Data to insert rather than merge
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public UploadSession() {}
+
+    public UploadSession(String id, Long ownerId, String subfolder, String originalFileName, Long size,
+                         String sha256, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.subfolder = subfolder;
+        this.originalFileName = originalFileName;
+        this.size = size;
+        this.sha256 = sha256;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    // Getters and Setters
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public String getSubfolder() {
+        return subfolder;
+    }
+
+    public String getOriginalFileName() {
+        return originalFileName;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public Long getReceivedBytes() {
+        return receivedBytes;
+    }
+
+    public void setReceivedBytes(Long receivedBytes) {
+        this.receivedBytes = receivedBytes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
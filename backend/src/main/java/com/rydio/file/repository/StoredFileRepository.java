@@ -0,0 +1,24 @@
+package com.rydio.file.repository;
+
+import com.rydio.file.entity.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+    
+    Optional<StoredFile> findByPathAndOwnerId(String path, Long ownerId);
+    
+    boolean existsByPath(String path);
+    
+    boolean existsByContentHash(String contentHash);
+    
+    @Modifying
+    @Query("DELETE FROM StoredFile f WHERE f.path = :path")
+    int deleteByPath(@Param("path") String path);
+}
@@ -0,0 +1,27 @@
+package com.rydio.file.repository;
+
+import com.rydio.file.entity.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    
+    // Moves the offset only if no other request has moved it since the chunk started
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.receivedBytes = :newOffset, s.expiresAt = :expiresAt " +
+           "WHERE s.id = :id AND s.receivedBytes = :offset")
+    int advance(@Param("id") String id,
+                @Param("offset") long offset,
+                @Param("newOffset") long newOffset,
+                @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Query("SELECT s.id FROM UploadSession s WHERE s.expiresAt < :now")
+    List<String> findExpiredIds(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,278 @@
+package com.rydio.file.service;
+
+import com.rydio.common.exception.BadRequestException;
+import com.rydio.common.exception.ConflictException;
+import com.rydio.common.exception.ResourceNotFoundException;
+import com.rydio.file.dto.FileUploadResponse;
+import com.rydio.file.dto.InitUploadRequest;
+import com.rydio.file.dto.UploadSessionResponse;
+import com.rydio.file.entity.UploadSession;
+import com.rydio.file.repository.UploadSessionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumable uploads for files too large, or connections too flaky, for one multipart request.
+ * The client opens a session with the size and SHA-256 of the file, sends it in chunks at
+ * increasing offsets and completes the session once every byte is in; after a disconnect it
+ * asks for the current offset and carries on from there.
+ *
+ * Chunks are written with positional writes into a file preallocated at the full size, and
+ * the offset is only advanced once the bytes are on disk, so memory use is constant and a
+ * crash never leaves the offset ahead of the data.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HASH_BUFFER_SIZE = 1024 * 1024;
+
+    @Autowired
+    private UploadSessionRepository sessionRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.upload.chunked.max-file-size-mb:500}")
+    private long maxFileSizeMb;
+
+    @Value("${app.upload.chunked.max-chunk-size-mb:8}")
+    private long maxChunkSizeMb;
+
+    @Value("${app.upload.chunked.expiry-hours:24}")
+    private long expiryHours;
+
+    // Uploads with a request in progress; a second concurrent request for one is refused
+    private final Set<String> busy = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService cleaner;
+
+    @PostConstruct
+    public void init() {
+        cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upload-session-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleaner.scheduleWithFixedDelay(this::purgeExpired, 0, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+    }
+
+    public UploadSessionResponse start(InitUploadRequest request, Long ownerId) {
+        String originalName = fileStorageService.checkUpload(request.getSubfolder(), request.getFileName());
+        if (request.getSize() > maxFileSize()) {
+            throw new BadRequestException("File exceeds the maximum size of " + maxFileSizeMb + " MB");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), ownerId, request.getSubfolder(),
+                originalName, request.getSize(), request.getSha256().toLowerCase(Locale.ROOT), now, now.plusHours(expiryHours));
+
+        // Saved first, so the cleaner never takes the new file for an orphan
+        sessionRepository.save(session);
+        // Reserve the full size up front; chunks then only overwrite
+        Path path = fileStorageService.uploadSessionPath(session.getId());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(1), request.getSize() - 1);
+        } catch (IOException e) {
+            discard(session);
+            throw new UncheckedIOException("Could not start upload of " + originalName, e);
+        }
+        return new UploadSessionResponse(session, maxChunkSize());
+    }
+
+    public UploadSessionResponse status(String uploadId, Long ownerId) {
+        return new UploadSessionResponse(find(uploadId, ownerId), maxChunkSize());
+    }
+
+    /**
+     * Writes one chunk at the given offset, which must be the session's current offset. If the
+     * client drops mid-chunk, the bytes that did arrive are kept and the offset moves past them.
+     */
+    public UploadSessionResponse appendChunk(String uploadId, Long ownerId, long offset, InputStream body) {
+        claim(uploadId);
+        try {
+            UploadSession session = find(uploadId, ownerId);
+            if (offset != session.getReceivedBytes()) {
+                throw new ConflictException("Upload is at offset " + session.getReceivedBytes() + ", not " + offset);
+            }
+            long limit = Math.min(session.getSize(), offset + maxChunkSize());
+            long written = 0;
+            IOException interrupted = null;
+            try (FileChannel channel = FileChannel.open(fileStorageService.uploadSessionPath(uploadId), StandardOpenOption.WRITE)) {
+                byte[] bytes = new byte[BUFFER_SIZE];
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                try {
+                    for (int read; (read = body.read(bytes)) != -1; ) {
+                        if (offset + written + read > limit) {
+                            throw new BadRequestException(offset + written + read > session.getSize()
+                                    ? "Chunk runs past the end of the file"
+                                    : "Chunk exceeds the maximum chunk size of " + maxChunkSize() + " bytes");
+                        }
+                        buffer.clear().limit(read);
+                        while (buffer.hasRemaining()) {
+                            written += channel.write(buffer, offset + written);
+                        }
+                    }
+                } catch (IOException e) {
+                    interrupted = e;
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write chunk of upload " + uploadId, e);
+            }
+
+            long newOffset = offset + written;
+            transactionTemplate.executeWithoutResult(status ->
+                    sessionRepository.advance(uploadId, offset, newOffset, LocalDateTime.now().plusHours(expiryHours)));
+            if (interrupted != null) {
+                log.debug("Upload {} interrupted at offset {}", uploadId, newOffset, interrupted);
+                throw new UncheckedIOException("Upload interrupted at offset " + newOffset, interrupted);
+            }
+            session.setReceivedBytes(newOffset);
+            return new UploadSessionResponse(session, maxChunkSize());
+        } finally {
+            busy.remove(uploadId);
+        }
+    }
+
+    // Verifies the assembled file against the SHA-256 given at the start and moves it into the store
+    public FileUploadResponse complete(String uploadId, Long ownerId) {
+        claim(uploadId);
+        try {
+            UploadSession session = find(uploadId, ownerId);
+            if (session.getReceivedBytes() < session.getSize()) {
+                throw new BadRequestException("Upload is incomplete: " + session.getReceivedBytes()
+                        + " of " + session.getSize() + " bytes received");
+            }
+            Path path = fileStorageService.uploadSessionPath(uploadId);
+            String sha256 = sha256(path);
+            if (!sha256.equals(session.getSha256())) {
+                discard(session);
+                throw new BadRequestException("Checksum mismatch: the upload was corrupted and has been discarded");
+            }
+            FileUploadResponse stored = fileStorageService.storeVerified(path, session.getSubfolder(),
+                    session.getOriginalFileName(), session.getSize(), sha256, ownerId);
+            discard(session);
+            return stored;
+        } finally {
+            busy.remove(uploadId);
+        }
+    }
+
+    public void abort(String uploadId, Long ownerId) {
+        claim(uploadId);
+        try {
+            discard(find(uploadId, ownerId));
+        } finally {
+            busy.remove(uploadId);
+        }
+    }
+
+    private UploadSession find(String uploadId, Long ownerId) {
+        return sessionRepository.findById(uploadId)
+                .filter(session -> session.getOwnerId().equals(ownerId))
+                .filter(session -> session.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found: " + uploadId));
+    }
+
+    private void discard(UploadSession session) {
+        sessionRepository.deleteById(session.getId());
+        try {
+            Files.deleteIfExists(fileStorageService.uploadSessionPath(session.getId()));
+        } catch (IOException e) {
+            log.warn("Could not delete data of upload {}", session.getId(), e);
+        }
+    }
+
+    private void purgeExpired() {
+        try {
+            for (String uploadId : sessionRepository.findExpiredIds(LocalDateTime.now())) {
+                if (!busy.add(uploadId)) {
+                    continue;
+                }
+                try {
+                    sessionRepository.findById(uploadId).ifPresent(this::discard);
+                } finally {
+                    busy.remove(uploadId);
+                }
+            }
+            // Files whose session row is gone, e.g. after the database was reset
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(fileStorageService.uploadSessionDir(), "*.part")) {
+                for (Path file : files) {
+                    String uploadId = file.getFileName().toString().replace(".part", "");
+                    if (!sessionRepository.existsById(uploadId)) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Upload session cleanup failed", e);
+        }
+    }
+
+    private static String sha256(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read upload " + path.getFileName(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void claim(String uploadId) {
+        if (!busy.add(uploadId)) {
+            throw new ConflictException("Upload " + uploadId + " is busy with another request");
+        }
+    }
+
+    private long maxFileSize() {
+        return maxFileSizeMb * 1024 * 1024;
+    }
+
+    private long maxChunkSize() {
+        return maxChunkSizeMb * 1024 * 1024;
+    }
+}
@@ -0,0 +1,298 @@
+package com.rydio.file.service;
+
+import com.rydio.common.exception.BadRequestException;
+import com.rydio.common.exception.ResourceNotFoundException;
+import com.rydio.file.dto.FileUploadResponse;
+import com.rydio.file.entity.StoredFile;
+import com.rydio.file.repository.StoredFileRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed file store. An upload is streamed to a temporary file while its SHA-256
+ * is computed, then moved to {@code <subfolder>/<sha-256>.<ext>}; if that file already exists
+ * the copy is dropped and the existing one is shared. Names therefore never change meaning,
+ * which lets downloads be cached forever.
+ *
+ * Each uploader holds a {@link StoredFile} reference, and the file on disk is deleted with
+ * its last reference.
+ */
+@Service
+public class FileStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
+
+    public static final String DOWNLOAD_PATH = "/files/download/";
+
+    private static final Pattern SUBFOLDER = Pattern.compile("[a-z0-9_-]{1,32}");
+    private static final Pattern STORED_NAME = Pattern.compile("([0-9a-f]{64})\\.([a-z0-9]{1,5})");
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "jpeg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif",
+            "webp", "image/webp",
+            "pdf", "application/pdf");
+    private static final String TEMP_DIR = ".tmp";
+    private static final String DERIVED_DIR = ".derived";
+    private static final String UPLOADS_DIR = ".uploads";
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.upload.dir:uploads/}")
+    private String uploadDir;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private Path root;
+    private Path tempDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        tempDir = root.resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+        Files.createDirectories(root.resolve(UPLOADS_DIR));
+        // Leftovers from uploads interrupted by a crash
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(tempDir)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+
+    public FileUploadResponse store(MultipartFile file, String subfolder, Long ownerId) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("File is empty");
+        }
+        String originalName = checkUpload(subfolder, file.getOriginalFilename());
+        String extension = extensionOf(originalName);
+
+        Path temp = null;
+        try {
+            temp = createTempFile("upload-");
+            MessageDigest digest = sha256();
+            long size;
+            // Multipart parts are already spooled to disk by the container; this copies
+            // through a fixed buffer, so memory use does not depend on the file size
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String name = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            return commit(temp, subfolder, name, originalName, size, ownerId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store " + originalName, e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Stores a file assembled elsewhere whose SHA-256 the caller has verified. The file is moved
+     * into the store, or left in place if identical content is already stored.
+     */
+    public FileUploadResponse storeVerified(Path file, String subfolder, String originalName, long size,
+                                            String sha256, Long ownerId) {
+        try {
+            return commit(file, subfolder, sha256 + "." + extensionOf(originalName), originalName, size, ownerId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store " + originalName, e);
+        }
+    }
+
+    // Checks where an upload goes and what it is; returns the file name without any client path
+    public String checkUpload(String subfolder, String originalFileName) {
+        checkSubfolder(subfolder);
+        String originalName = originalFileName == null ? "file" : Paths.get(originalFileName).getFileName().toString();
+        extensionOf(originalName);
+        return originalName;
+    }
+
+    public void delete(String subfolder, String fileName, Long userId, boolean admin) {
+        String relative = relativePath(subfolder, fileName);
+        String hash = hashOf(fileName);
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            boolean removed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (admin) {
+                    return storedFileRepository.deleteByPath(relative) > 0;
+                }
+                return storedFileRepository.findByPathAndOwnerId(relative, userId)
+                        .map(reference -> {
+                            storedFileRepository.delete(reference);
+                            return true;
+                        })
+                        .orElse(false);
+            }));
+            if (!removed) {
+                throw new ResourceNotFoundException("File not found: " + relative);
+            }
+            if (!storedFileRepository.existsByPath(relative)) {
+                Files.deleteIfExists(root.resolve(relative));
+                // Variants are shared by every path with this content, in any folder
+                if (!storedFileRepository.existsByContentHash(hash)) {
+                    for (ImageVariant variant : ImageVariant.values()) {
+                        Files.deleteIfExists(variantPath(variant, hash));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete " + relative, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Path of a stored file, or 404 if it does not exist
+    public Path resolve(String subfolder, String fileName) {
+        Path path = root.resolve(relativePath(subfolder, fileName));
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("File not found: " + subfolder + "/" + fileName);
+        }
+        return path;
+    }
+
+    // Derived images are keyed by the source hash only, so identical uploads share them
+    public Path variantPath(ImageVariant variant, String hash) {
+        return root.resolve(DERIVED_DIR).resolve(variant.getPathName()).resolve(hash + ".jpg");
+    }
+
+    // Not under the temporary directory, which is emptied at startup; uploads are resumable across restarts
+    public Path uploadSessionPath(String uploadId) {
+        return root.resolve(UPLOADS_DIR).resolve(uploadId + ".part");
+    }
+
+    public Path uploadSessionDir() {
+        return root.resolve(UPLOADS_DIR);
+    }
+
+    // On the same file system as the store, so finished files can be moved into place atomically
+    public Path createTempFile(String prefix) throws IOException {
+        return Files.createTempFile(tempDir, prefix, ".part");
+    }
+
+    public String contentType(String fileName) {
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    }
+
+    // Stored names start with the content hash, which doubles as a strong ETag
+    public static String hashOf(String fileName) {
+        return fileName.substring(0, fileName.indexOf('.'));
+    }
+
+    private FileUploadResponse commit(Path temp, String subfolder, String name, String originalName,
+                                      long size, Long ownerId) throws IOException {
+        String relative = subfolder + "/" + name;
+        Path target = root.resolve(relative);
+        ReentrantLock lock = lockFor(hashOf(name));
+        lock.lock();
+        try {
+            boolean deduplicated = Files.exists(target);
+            if (!deduplicated) {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(temp, target);
+            }
+            String contentType = contentType(name);
+            if (storedFileRepository.findByPathAndOwnerId(relative, ownerId).isEmpty()) {
+                storedFileRepository.save(new StoredFile(relative, ownerId, originalName, contentType, size));
+            }
+            log.debug("Stored {} as {}{}", originalName, relative, deduplicated ? " (deduplicated)" : "");
+            return new FileUploadResponse(relative, originalName, contentType, size, DOWNLOAD_PATH + relative, deduplicated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(temp, target);
+            } catch (FileAlreadyExistsException ignored) {
+                // Same content, written by another instance sharing the directory
+            }
+        }
+    }
+
+    private String relativePath(String subfolder, String fileName) {
+        checkSubfolder(subfolder);
+        if (fileName == null || !STORED_NAME.matcher(fileName).matches()) {
+            throw new ResourceNotFoundException("File not found: " + subfolder + "/" + fileName);
+        }
+        return subfolder + "/" + fileName;
+    }
+
+    // By content hash, since paths with the same content share its image variants
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static void checkSubfolder(String subfolder) {
+        if (subfolder == null || !SUBFOLDER.matcher(subfolder).matches()) {
+            throw new BadRequestException("Invalid folder: " + subfolder);
+        }
+    }
+
+    private static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        if (!CONTENT_TYPES.containsKey(extension)) {
+            throw new BadRequestException("Unsupported file type; allowed: " + String.join(", ", CONTENT_TYPES.keySet()));
+        }
+        return extension;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary file {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.rydio.file.service;
+
+import com.rydio.common.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the {@link ImageVariant}s of uploaded images on a small bounded worker pool, so
+ * uploads return before any image is decoded. Results are kept on disk next to the store and
+ * never change, because they are keyed by the source's content hash.
+ *
+ * A variant requested before it exists is queued then, which also covers images uploaded
+ * before this pipeline existed or jobs dropped while the queue was full.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    // Larger sources are refused rather than risk exhausting the heap while decoding
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final int MAX_REMEMBERED_FAILURES = 10_000;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${app.files.derivatives.threads:2}")
+    private int threads;
+
+    @Value("${app.files.derivatives.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // Queues generation of any missing variants; a no-op for files that are not decodable images
+    public void submit(String subfolder, String fileName) {
+        if (!isSource(fileName)) {
+            return;
+        }
+        String hash = FileStorageService.hashOf(fileName);
+        if (failed.contains(hash) || allVariantsExist(hash) || !inFlight.add(hash)) {
+            return;
+        }
+        Path source = fileStorageService.resolve(subfolder, fileName);
+        try {
+            workers.execute(() -> {
+                try {
+                    generate(source, hash);
+                } finally {
+                    inFlight.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash);
+            log.debug("Image derivative queue full, {} will be generated on first request", fileName);
+        }
+    }
+
+    // The variant if it has been generated; otherwise queues it and returns empty
+    public Optional<Path> find(ImageVariant variant, String subfolder, String fileName) {
+        fileStorageService.resolve(subfolder, fileName);
+        if (!isSource(fileName)) {
+            throw new ResourceNotFoundException("No " + variant.getPathName() + " image for " + subfolder + "/" + fileName);
+        }
+        Path path = fileStorageService.variantPath(variant, FileStorageService.hashOf(fileName));
+        if (Files.isRegularFile(path)) {
+            return Optional.of(path);
+        }
+        submit(subfolder, fileName);
+        return Optional.empty();
+    }
+
+    private void generate(Path source, String hash) {
+        long started = System.nanoTime();
+        try {
+            // Decode once at roughly twice the largest variant, then scale down from there
+            BufferedImage image = decode(source, ImageVariant.MEDIUM.getMaxWidth() * 2, ImageVariant.MEDIUM.getMaxHeight() * 2);
+            if (image == null) {
+                rememberFailure(hash);
+                return;
+            }
+            for (ImageVariant variant : new ImageVariant[] {ImageVariant.MEDIUM, ImageVariant.THUMBNAIL}) {
+                Path target = fileStorageService.variantPath(variant, hash);
+                if (Files.exists(target)) {
+                    continue;
+                }
+                image = scale(image, variant.getMaxWidth(), variant.getMaxHeight());
+                write(image, target);
+            }
+            log.debug("Generated image variants of {} in {} ms", source.getFileName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate image variants of {}", source.getFileName(), e);
+            rememberFailure(hash);
+        }
+    }
+
+    // Skips source pixels while decoding, so large photos never exist at full size in memory
+    private static BufferedImage decode(Path source, int maxWidth, int maxHeight) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    log.warn("Image {} is {}x{}, too large to derive variants", source.getFileName(), width, height);
+                    return null;
+                }
+                int step = Math.max(1, Math.min(width / maxWidth, height / maxHeight));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fits the image inside the box, halving in steps so bilinear filtering does not alias
+    private static BufferedImage scale(BufferedImage image, int maxWidth, int maxHeight) {
+        double ratio = Math.min(1.0, Math.min((double) maxWidth / image.getWidth(), (double) maxHeight / image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage current = image;
+        do {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(targetHeight, current.getHeight() / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                // JPEG has no alpha; transparent areas become white
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (current.getWidth() > targetWidth || current.getHeight() > targetHeight);
+        return current;
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = fileStorageService.createTempFile("variant-");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            FileStorageService.moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private boolean allVariantsExist(String hash) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!Files.exists(fileStorageService.variantPath(variant, hash))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rememberFailure(String hash) {
+        if (failed.size() >= MAX_REMEMBERED_FAILURES) {
+            failed.clear();
+        }
+        failed.add(hash);
+    }
+
+    private static boolean isSource(String fileName) {
+        return ImageVariant.SOURCE_EXTENSIONS.contains(fileName.substring(fileName.lastIndexOf('.') + 1));
+    }
+}
@@ -0,0 +1,67 @@
+package com.rydio.file.service;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Downscaled JPEG copies of stored images, for pages that do not need the full resolution
+public enum ImageVariant {
+    THUMBNAIL("thumb", 320, 240),
+    MEDIUM("medium", 960, 720);
+
+    public static final String DERIVED_PATH = "/files/derived/";
+    // Formats javax.imageio can decode out of the box
+    static final Set<String> SOURCE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif");
+
+    private static final Pattern STORED_URL = Pattern.compile(
+            "(.*)" + Pattern.quote(FileStorageService.DOWNLOAD_PATH) + "([a-z0-9_-]{1,32}/[0-9a-f]{64}\\.([a-z0-9]{1,5}))");
+
+    private final String pathName;
+    private final int maxWidth;
+    private final int maxHeight;
+
+    ImageVariant(String pathName, int maxWidth, int maxHeight) {
+        this.pathName = pathName;
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+    }
+
+    public String getPathName() {
+        return pathName;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * URL of this variant for an image served by the file store, keeping whatever host and
+     * context path the original URL has; null for external or non-image URLs.
+     */
+    public String urlFor(String imageUrl) {
+        if (imageUrl == null) {
+            return null;
+        }
+        Matcher matcher = STORED_URL.matcher(imageUrl);
+        if (!matcher.matches() || !SOURCE_EXTENSIONS.contains(matcher.group(3))) {
+            return null;
+        }
+        return matcher.group(1) + DERIVED_PATH + pathName + "/" + matcher.group(2);
+    }
+
+    public static Optional<ImageVariant> fromPathName(String pathName) {
+        String name = pathName.toLowerCase(Locale.ROOT);
+        for (ImageVariant variant : values()) {
+            if (variant.pathName.equals(name)) {
+                return Optional.of(variant);
+            }
+        }
+        return Optional.empty();
+    }
+}
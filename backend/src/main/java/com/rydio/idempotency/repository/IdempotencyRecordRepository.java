@@ -0,0 +1,39 @@
+package com.rydio.idempotency.repository;
+
+import com.rydio.idempotency.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'COMPLETED', r.responseBody = :responseBody " +
+           "WHERE r.storeKey = :storeKey AND r.fingerprint = :fingerprint")
+    int complete(@Param("storeKey") String storeKey,
+                 @Param("fingerprint") String fingerprint,
+                 @Param("responseBody") String responseBody);
+
+    // Claims an in-progress key whose holder's lease has run out, e.g. because it crashed
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.lockedUntil = :lockedUntil " +
+           "WHERE r.storeKey = :storeKey AND r.fingerprint = :fingerprint AND r.status = 'IN_PROGRESS' " +
+           "AND (r.lockedUntil IS NULL OR r.lockedUntil < :now)")
+    int takeOver(@Param("storeKey") String storeKey,
+                 @Param("fingerprint") String fingerprint,
+                 @Param("now") LocalDateTime now,
+                 @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.storeKey = :storeKey AND r.status = 'IN_PROGRESS'")
+    int release(@Param("storeKey") String storeKey);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
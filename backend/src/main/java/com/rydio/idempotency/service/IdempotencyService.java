@@ -0,0 +1,256 @@
+package com.rydio.idempotency.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rydio.common.exception.BadRequestException;
+import com.rydio.common.exception.ConflictException;
+import com.rydio.idempotency.entity.IdempotencyRecord;
+import com.rydio.idempotency.repository.IdempotencyRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}. The first request with a key runs
+ * and its response is stored; retries with the same key and the same body get the stored
+ * response back without running again. Reusing a key for a different body is rejected, as
+ * is a retry that arrives while the first attempt is still running.
+ *
+ * Responses live in a bounded in-memory map that expires entries, backed by the
+ * idempotency_keys table so keys survive restarts and are shared between instances. The
+ * table row is claimed before the action runs, so two instances cannot both run it.
+ * A failed action releases its key, so the client can retry it. The claim is a lease of
+ * app.idempotency.lease-seconds: if the claiming instance dies, or cannot record the
+ * response, a retry after the lease has run out takes the key over and runs the action.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${app.idempotency.lease-seconds:60}")
+    private long leaseSeconds;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private ScheduledExecutorService cleaner;
+
+    @PostConstruct
+    public void init() {
+        cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleaner.scheduleWithFixedDelay(this::purgeExpired, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+    }
+
+    public <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String storeKey = scope + ":" + key;
+        String fingerprint = fingerprint(request);
+
+        Entry claim = new Entry(fingerprint, null, expiry());
+        Entry current = entries.compute(storeKey,
+                (k, existing) -> existing == null || existing.isExpired() ? claim : existing);
+        if (current != claim) {
+            return replay(current, fingerprint, responseType);
+        }
+        evictIfFull();
+
+        try {
+            Optional<IdempotencyRecord> stored = claimRecord(storeKey, fingerprint);
+            if (stored.isPresent()) {
+                Entry entry = toEntry(stored.get(), responseType);
+                if (entry.response != null) {
+                    entries.replace(storeKey, claim, entry);
+                } else {
+                    entries.remove(storeKey, claim);
+                }
+                return replay(entry, fingerprint, responseType);
+            }
+        } catch (RuntimeException e) {
+            entries.remove(storeKey, claim);
+            throw e;
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            entries.remove(storeKey, claim);
+            releaseRecord(storeKey);
+            throw e;
+        }
+
+        entries.replace(storeKey, claim, new Entry(fingerprint, response, claim.expiresAt));
+        completeRecord(storeKey, fingerprint, response);
+        return response;
+    }
+
+    private <T> T replay(Entry entry, String fingerprint, Class<T> responseType) {
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new BadRequestException("Idempotency-Key has already been used for a different request");
+        }
+        if (entry.response == null) {
+            throw new ConflictException("A request with this Idempotency-Key is still being processed");
+        }
+        return responseType.cast(entry.response);
+    }
+
+    // Inserts an in-progress row, takes over one whose lease has run out, or returns the row
+    // another request holds for the key
+    private Optional<IdempotencyRecord> claimRecord(String storeKey, String fingerprint) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime lockedUntil = now.plusSeconds(leaseSeconds);
+            try {
+                transactionTemplate.executeWithoutResult(status -> recordRepository.saveAndFlush(
+                        new IdempotencyRecord(storeKey, fingerprint, now, now.plusHours(ttlHours), lockedUntil)));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                Optional<IdempotencyRecord> existing = recordRepository.findById(storeKey);
+                if (existing.isEmpty()) {
+                    continue;
+                }
+                if (existing.get().getExpiresAt().isBefore(now)) {
+                    transactionTemplate.executeWithoutResult(status -> recordRepository.deleteById(storeKey));
+                    continue;
+                }
+                if (existing.get().getStatus() == IdempotencyRecord.Status.IN_PROGRESS
+                        && Integer.valueOf(1).equals(transactionTemplate.execute(status ->
+                                recordRepository.takeOver(storeKey, fingerprint, now, lockedUntil)))) {
+                    log.info("Took over idempotency key {} after its lease ran out", storeKey);
+                    return Optional.empty();
+                }
+                return existing;
+            }
+        }
+        throw new ConflictException("A request with this Idempotency-Key is still being processed");
+    }
+
+    private void completeRecord(String storeKey, String fingerprint, Object response) {
+        try {
+            String body = objectMapper.writeValueAsString(response);
+            transactionTemplate.executeWithoutResult(status -> recordRepository.complete(storeKey, fingerprint, body));
+        } catch (Exception e) {
+            // The in-memory entry still answers retries on this instance
+            log.warn("Could not persist idempotent response for {}", storeKey, e);
+        }
+    }
+
+    private void releaseRecord(String storeKey) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> recordRepository.release(storeKey));
+        } catch (Exception e) {
+            log.warn("Could not release idempotency key {}", storeKey, e);
+        }
+    }
+
+    private <T> Entry toEntry(IdempotencyRecord record, Class<T> responseType) {
+        Object response = null;
+        if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+            try {
+                response = objectMapper.readValue(record.getResponseBody(), responseType);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Stored idempotent response is unreadable", e);
+            }
+        }
+        return new Entry(record.getFingerprint(), response, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(ttlHours));
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + TimeUnit.HOURS.toMillis(ttlHours);
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        entries.values().removeIf(Entry::isExpired);
+        // Still full: drop completed entries; their responses remain in the table
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            if (it.next().response != null) {
+                it.remove();
+            }
+        }
+    }
+
+    private void purgeExpired() {
+        try {
+            entries.values().removeIf(Entry::isExpired);
+            Integer deleted = transactionTemplate.execute(status -> recordRepository.deleteExpired(LocalDateTime.now()));
+            log.debug("Purged {} expired idempotency keys", deleted);
+        } catch (Exception e) {
+            log.warn("Failed to purge expired idempotency keys", e);
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final Object response;
+        private final long expiresAt;
+
+        Entry(String fingerprint, Object response, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
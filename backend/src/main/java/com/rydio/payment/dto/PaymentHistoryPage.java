@@ -0,0 +1,23 @@
+package com.rydio.payment.dto;
+
+import java.util.List;
+
+public class PaymentHistoryPage {
+
+    private final List<PaymentResponse> payments;
+    // Opaque position after the last payment, or null on the last page
+    private final String nextCursor;
+
+    public PaymentHistoryPage(List<PaymentResponse> payments, String nextCursor) {
+        this.payments = payments;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PaymentResponse> getPayments() {
+        return payments;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
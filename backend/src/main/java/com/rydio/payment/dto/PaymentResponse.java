@@ -0,0 +1,148 @@
+package com.rydio.payment.dto;
+
+import com.rydio.payment.entity.Payment;
+
+public class PaymentResponse {
+
+    private Long id;
+    private Long bookingId;
+    private Long userId;
+    private Double amount;
+    private Payment.PaymentType paymentType;
+    private Payment.PaymentMethod paymentMethod;
+    private String transactionId;
+    private Payment.PaymentStatus status;
+    private String cardLast4;
+    private String failureReason;
+    private String notes;
+    private String createdAt;
+    private String updatedAt;
+
+    // Constructors
+    public PaymentResponse() {}
+
+    public PaymentResponse(Payment payment) {
+        this.id = payment.getId();
+        this.bookingId = payment.getBookingId();
+        this.userId = payment.getUserId();
+        this.amount = payment.getAmountMinor() / 100.0;
+        this.paymentType = payment.getPaymentType();
+        this.paymentMethod = payment.getPaymentMethod();
+        this.transactionId = payment.getTransactionId();
+        this.status = payment.getStatus();
+        this.cardLast4 = payment.getCardLast4();
+        this.failureReason = payment.getFailureReason();
+        this.notes = payment.getNotes();
+        if (payment.getCreatedAt() != null) {
+            this.createdAt = payment.getCreatedAt().toString();
+        }
+        if (payment.getUpdatedAt() != null) {
+            this.updatedAt = payment.getUpdatedAt().toString();
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public Payment.PaymentType getPaymentType() {
+        return paymentType;
+    }
+
+    public void setPaymentType(Payment.PaymentType paymentType) {
+        this.paymentType = paymentType;
+    }
+
+    public Payment.PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(Payment.PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Payment.PaymentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Payment.PaymentStatus status) {
+        this.status = status;
+    }
+
+    public String getCardLast4() {
+        return cardLast4;
+    }
+
+    public void setCardLast4(String cardLast4) {
+        this.cardLast4 = cardLast4;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
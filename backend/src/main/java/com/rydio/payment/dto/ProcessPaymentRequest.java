@@ -0,0 +1,128 @@
+package com.rydio.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.rydio.payment.entity.Payment;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class ProcessPaymentRequest {
+
+    @NotNull(message = "Booking is required")
+    private Long bookingId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be positive")
+    @DecimalMax(value = "10000000", message = "Amount is too large")
+    private Double amount;
+
+    @NotNull(message = "Payment type is required")
+    private Payment.PaymentType paymentType;
+
+    @NotNull(message = "Payment method is required")
+    private Payment.PaymentMethod paymentMethod;
+
+    @Size(max = 500, message = "Notes cannot exceed 500 characters")
+    private String notes;
+
+    // Card details go to the gateway only; they are never stored or serialized
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String cardNumber;
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String cardHolderName;
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String expiryMonth;
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String expiryYear;
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String cvv;
+
+    // Constructors
+    public ProcessPaymentRequest() {}
+
+    // Getters and Setters
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public Payment.PaymentType getPaymentType() {
+        return paymentType;
+    }
+
+    public void setPaymentType(Payment.PaymentType paymentType) {
+        this.paymentType = paymentType;
+    }
+
+    public Payment.PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(Payment.PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public String getCardNumber() {
+        return cardNumber;
+    }
+
+    public void setCardNumber(String cardNumber) {
+        this.cardNumber = cardNumber;
+    }
+
+    public String getCardHolderName() {
+        return cardHolderName;
+    }
+
+    public void setCardHolderName(String cardHolderName) {
+        this.cardHolderName = cardHolderName;
+    }
+
+    public String getExpiryMonth() {
+        return expiryMonth;
+    }
+
+    public void setExpiryMonth(String expiryMonth) {
+        this.expiryMonth = expiryMonth;
+    }
+
+    public String getExpiryYear() {
+        return expiryYear;
+    }
+
+    public void setExpiryYear(String expiryYear) {
+        this.expiryYear = expiryYear;
+    }
+
+    public String getCvv() {
+        return cvv;
+    }
+
+    public void setCvv(String cvv) {
+        this.cvv = cvv;
+    }
+}
@@ -0,0 +1,111 @@
+package com.rydio.payment.entity;
+
+import com.rydio.common.id.SnowflakeIds;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// One side of a double-entry posting. Every payment posts entries whose debits and credits
+// are equal; corrections are new postings, never updates.
+@Entity
+@Immutable
+@Table(name = "ledger_entries", indexes = {
+    @Index(name = "idx_ledger_entries_payment_id", columnList = "payment_id"),
+    @Index(name = "idx_ledger_entries_account_id", columnList = "account, id")
+})
+public class LedgerEntry implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Account account;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Direction direction;
+
+    @Column(nullable = false)
+    private Long amountMinor;
+
+    @Column(nullable = false)
+    private LocalDateTime postedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public LedgerEntry() {}
+
+    public LedgerEntry(Long paymentId, Account account, Direction direction, Long amountMinor, LocalDateTime postedAt) {
+        this.id = SnowflakeIds.next();
+        this.paymentId = paymentId;
+        this.account = account;
+        this.direction = direction;
+        this.amountMinor = amountMinor;
+        this.postedAt = postedAt;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    // Getters
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public Long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public LocalDateTime getPostedAt() {
+        return postedAt;
+    }
+
+    public enum Account {
+        // Money collected by the gateway and owed to us
+        GATEWAY_CLEARING,
+        BOOKING_REVENUE,
+        DEPOSITS_HELD,
+        FEE_REVENUE;
+
+        public static Account creditedBy(Payment.PaymentType type) {
+            return switch (type) {
+                case BOOKING -> BOOKING_REVENUE;
+                case SECURITY_DEPOSIT -> DEPOSITS_HELD;
+                case LATE_FEE, DAMAGE_CHARGE -> FEE_REVENUE;
+            };
+        }
+    }
+
+    public enum Direction {
+        DEBIT, CREDIT
+    }
+}
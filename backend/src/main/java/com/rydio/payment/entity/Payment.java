@@ -0,0 +1,219 @@
+package com.rydio.payment.entity;
+
+import com.rydio.common.entity.AuditedEntity;
+import com.rydio.common.id.SnowflakeIds;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_booking_id", columnList = "booking_id"),
+    @Index(name = "idx_payments_user_id_id", columnList = "user_id, id"),
+    @Index(name = "idx_payments_locked_until", columnList = "locked_until")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = Payment.UK_TRANSACTION_ID, columnNames = "transaction_id"),
+    @UniqueConstraint(name = Payment.UK_SETTLEMENT_KEY, columnNames = "settlement_key")
+})
+public class Payment extends AuditedEntity implements Persistable<Long> {
+
+    public static final String UK_TRANSACTION_ID = "uk_payments_transaction_id";
+    public static final String UK_SETTLEMENT_KEY = "uk_payments_settlement_key";
+
+    // Assigned in memory, so a payment and its ledger entries are inserted in one batch
+    @Id
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Minor currency units (paise), so ledger sums are exact
+    @Column(nullable = false)
+    private Long amountMinor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentType paymentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentMethod paymentMethod;
+
+    @Column(name = "transaction_id", nullable = false, length = 32)
+    private String transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus status;
+
+    // Set while a booking charge is completed, so the same booking cannot be charged twice
+    @Column(name = "settlement_key", length = 64)
+    private String settlementKey;
+
+    // While PENDING, how long the charging request holds the settlement key; after that the
+    // sweep checks the charge with the provider
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(length = 64)
+    private String gatewayReference;
+
+    @Column(length = 4)
+    private String cardLast4;
+
+    @Column(length = 255)
+    private String failureReason;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public Payment() {}
+
+    public static Payment create() {
+        Payment payment = new Payment();
+        payment.id = SnowflakeIds.next();
+        payment.transactionId = "TXN" + payment.id;
+        return payment;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    // Getters and Setters
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public void setAmountMinor(Long amountMinor) {
+        this.amountMinor = amountMinor;
+    }
+
+    public PaymentType getPaymentType() {
+        return paymentType;
+    }
+
+    public void setPaymentType(PaymentType paymentType) {
+        this.paymentType = paymentType;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+
+    public String getSettlementKey() {
+        return settlementKey;
+    }
+
+    public void setSettlementKey(String settlementKey) {
+        this.settlementKey = settlementKey;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public String getGatewayReference() {
+        return gatewayReference;
+    }
+
+    public void setGatewayReference(String gatewayReference) {
+        this.gatewayReference = gatewayReference;
+    }
+
+    public String getCardLast4() {
+        return cardLast4;
+    }
+
+    public void setCardLast4(String cardLast4) {
+        this.cardLast4 = cardLast4;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public enum PaymentType {
+        BOOKING, SECURITY_DEPOSIT, LATE_FEE, DAMAGE_CHARGE
+    }
+
+    public enum PaymentMethod {
+        CREDIT_CARD, DEBIT_CARD, UPI, NET_BANKING, CASH;
+
+        public boolean isCard() {
+            return this == CREDIT_CARD || this == DEBIT_CARD;
+        }
+    }
+
+    public enum PaymentStatus {
+        PENDING, PROCESSING, COMPLETED, FAILED, REFUNDED
+    }
+}
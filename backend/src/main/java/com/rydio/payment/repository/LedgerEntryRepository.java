@@ -0,0 +1,17 @@
+package com.rydio.payment.repository;
+
+import com.rydio.payment.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    
+    List<LedgerEntry> findByPaymentIdOrderByIdAsc(Long paymentId);
+    
+    @Query("SELECT e.account, e.direction, SUM(e.amountMinor) FROM LedgerEntry e GROUP BY e.account, e.direction")
+    List<Object[]> sumPerAccount();
+}
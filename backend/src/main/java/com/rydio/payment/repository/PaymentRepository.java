@@ -0,0 +1,49 @@
+package com.rydio.payment.repository;
+
+import com.rydio.payment.entity.Payment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+    
+    Optional<Payment> findByTransactionId(String transactionId);
+    
+    List<Payment> findByBookingIdOrderByIdDesc(Long bookingId);
+    
+    // History pages seek on idx_payments_user_id_id, newest first
+    List<Payment> findByUserIdOrderByIdDesc(Long userId, Limit limit);
+    
+    List<Payment> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long id, Limit limit);
+    
+    // PENDING payments whose lease has run out, for the sweep
+    List<Payment> findByStatusAndLockedUntilLessThanOrderByLockedUntilAsc(Payment.PaymentStatus status,
+                                                                          LocalDateTime now, Limit limit);
+    
+    // Only while the lease is still expired, so a payment its request has since settled is left alone
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :failed, p.settlementKey = NULL, p.lockedUntil = NULL, " +
+           "p.failureReason = :reason WHERE p.id = :id AND p.status = :pending AND p.lockedUntil < :now")
+    int failExpired(@Param("id") Long id,
+                    @Param("reason") String reason,
+                    @Param("now") LocalDateTime now,
+                    @Param("pending") Payment.PaymentStatus pending,
+                    @Param("failed") Payment.PaymentStatus failed);
+    
+    // Keeps the settlement key, with no lease, until the charge is reconciled by hand
+    @Modifying
+    @Query("UPDATE Payment p SET p.gatewayReference = :reference, p.lockedUntil = NULL " +
+           "WHERE p.id = :id AND p.status = :pending AND p.lockedUntil < :now")
+    int holdForReconciliation(@Param("id") Long id,
+                              @Param("reference") String reference,
+                              @Param("now") LocalDateTime now,
+                              @Param("pending") Payment.PaymentStatus pending);
+}
@@ -0,0 +1,27 @@
+package com.rydio.payment.service;
+
+import com.rydio.payment.dto.ProcessPaymentRequest;
+
+// Charges a customer through an external payment provider
+public interface PaymentGateway {
+
+    GatewayResult charge(String transactionId, long amountMinor, ProcessPaymentRequest request);
+
+    // Returns an approved charge to the customer, voiding it if it has not settled yet
+    GatewayResult refund(String reference, long amountMinor);
+
+    // The provider's outstanding charge for a transaction id: approved with its reference, or
+    // declined if it approved none or the charge was refunded
+    GatewayResult find(String transactionId);
+
+    record GatewayResult(boolean approved, String reference, String declineReason) {
+
+        public static GatewayResult approved(String reference) {
+            return new GatewayResult(true, reference, null);
+        }
+
+        public static GatewayResult declined(String reason) {
+            return new GatewayResult(false, null, reason);
+        }
+    }
+}
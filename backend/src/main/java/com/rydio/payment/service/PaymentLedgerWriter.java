@@ -0,0 +1,180 @@
+package com.rydio.payment.service;
+
+import com.rydio.common.exception.ConflictException;
+import com.rydio.payment.entity.LedgerEntry;
+import com.rydio.payment.entity.Payment;
+import com.rydio.payment.repository.LedgerEntryRepository;
+import com.rydio.payment.repository.PaymentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Group commit for payments. Request threads queue a payment with its ledger entries and wait;
+ * a single writer takes everything queued, inserts it with JDBC batches in one transaction and
+ * then releases the waiting requests. While one batch commits the next one fills up, so the
+ * number of commits stays flat as load grows.
+ *
+ * If a batch fails, its writes are retried one by one so that only the offending payment
+ * fails, typically a second charge for an already paid booking. A request that stops waiting
+ * can withdraw its write, which then either was never taken by the writer or is already
+ * being committed.
+ */
+@Component
+public class PaymentLedgerWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentLedgerWriter.class);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.payments.ledger.batch-size:256}")
+    private int batchSize;
+
+    @Value("${app.payments.ledger.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private BlockingQueue<PendingWrite> queue;
+    private Thread writer;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        writer = new Thread(this::writeLoop, "payment-ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    // The write's result completes once the payment and its entries are committed
+    public PendingWrite submit(Payment payment, List<LedgerEntry> entries) {
+        PendingWrite write = new PendingWrite(payment, entries);
+        try {
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write.taken.set(true);
+            write.result.completeExceptionally(e);
+        }
+        return write;
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batch.removeIf(write -> !write.taken.compareAndSet(false, true));
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Payment ledger writer failed", e);
+                batch.forEach(write -> write.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Payment> payments = new ArrayList<>(batch.size());
+                List<LedgerEntry> entries = new ArrayList<>(batch.size() * 2);
+                for (PendingWrite write : batch) {
+                    payments.add(write.payment);
+                    entries.addAll(write.entries);
+                }
+                paymentRepository.saveAll(payments);
+                ledgerEntryRepository.saveAll(entries);
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            log.debug("Payment batch of {} failed, writing one by one", batch.size(), e);
+            for (PendingWrite write : batch) {
+                writeOne(write);
+            }
+            return;
+        }
+        batch.forEach(write -> write.result.complete(write.payment));
+    }
+
+    private void writeOne(PendingWrite write) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                paymentRepository.save(write.payment);
+                ledgerEntryRepository.saveAll(write.entries);
+            });
+            write.result.complete(write.payment);
+        } catch (RuntimeException e) {
+            fail(write, e);
+        }
+    }
+
+    private void fail(PendingWrite write, RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException && write.payment.getSettlementKey() != null) {
+            write.result.completeExceptionally(new ConflictException("Booking has already been paid or is being paid"));
+        } else {
+            write.result.completeExceptionally(e);
+        }
+    }
+
+    public static final class PendingWrite {
+        private final Payment payment;
+        private final List<LedgerEntry> entries;
+        private final CompletableFuture<Payment> result = new CompletableFuture<>();
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        PendingWrite(Payment payment, List<LedgerEntry> entries) {
+            this.payment = payment;
+            this.entries = entries;
+        }
+
+        public CompletableFuture<Payment> result() {
+            return result;
+        }
+
+        // True if the writer had not taken the write yet, which now never will be
+        public boolean withdraw() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.rydio.payment.service;
+
+import com.rydio.booking.entity.Booking;
+import com.rydio.booking.repository.BookingRepository;
+import com.rydio.booking.service.BookingHoldService;
+import com.rydio.common.exception.BadRequestException;
+import com.rydio.common.exception.ConflictException;
+import com.rydio.common.exception.ResourceNotFoundException;
+import com.rydio.payment.dto.PaymentHistoryPage;
+import com.rydio.payment.dto.PaymentResponse;
+import com.rydio.payment.dto.ProcessPaymentRequest;
+import com.rydio.payment.entity.LedgerEntry;
+import com.rydio.payment.entity.Payment;
+import com.rydio.payment.repository.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Charges bookings through the {@link PaymentGateway} and records every approved charge as a
+ * balanced pair of ledger entries. Writes go through {@link PaymentLedgerWriter}, which commits
+ * many payments per transaction.
+ *
+ * Every attempt is recorded as PENDING before the gateway is called, then completed or failed.
+ * A booking can be paid in full once: the pending payment already carries the booking's unique
+ * settlement key, so a concurrent attempt on any node is refused before it is charged. A charge
+ * that is approved but cannot be recorded is voided through the gateway. A payment left PENDING,
+ * by a failed write or a stopped instance, holds the key for its lease only; then
+ * {@link PendingPaymentSweeper} releases it unless the provider has a charge for the payment.
+ */
+@Service
+public class PaymentService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final long WRITE_TIMEOUT_SECONDS = 10;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingHoldService bookingHoldService;
+
+    @Autowired
+    private PaymentGateway gateway;
+
+    @Autowired
+    private PaymentLedgerWriter ledgerWriter;
+
+    @Value("${app.payments.pending-lease-seconds:300}")
+    private long pendingLeaseSeconds;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PaymentResponse processPayment(ProcessPaymentRequest request, Long userId) {
+        Booking booking = bookingRepository.findWithVehicleByIdAndUserId(request.getBookingId(), userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + request.getBookingId()));
+        // Open session in view would keep this copy for the whole request, and confirming the
+        // hold would then see its status from before the charge instead of the current row
+        entityManager.detach(booking);
+        long amountMinor = Math.round(request.getAmount() * 100);
+        if (request.getPaymentMethod().isCard()) {
+            validateCard(request);
+        }
+
+        String settlementKey = null;
+        if (request.getPaymentType() == Payment.PaymentType.BOOKING) {
+            if (!isPayable(booking)) {
+                throw new BadRequestException("Booking cannot be paid in status " + booking.getStatus());
+            }
+            if (amountMinor != Math.round(booking.getTotalAmount() * 100)) {
+                throw new BadRequestException("Amount must equal the booking total of " + booking.getTotalAmount());
+            }
+            settlementKey = "booking:" + booking.getId();
+        }
+
+        Payment payment = charge(request, booking, userId, amountMinor, settlementKey);
+        if (payment.getStatus() == Payment.PaymentStatus.COMPLETED
+                && booking.getStatus() == Booking.BookingStatus.PENDING) {
+            confirmHold(payment, booking, userId);
+        }
+        return new PaymentResponse(payment);
+    }
+
+    public PaymentResponse getPayment(Long paymentId, Long userId) {
+        return paymentRepository.findById(paymentId)
+                .filter(payment -> payment.getUserId().equals(userId))
+                .map(PaymentResponse::new)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with id: " + paymentId));
+    }
+
+    public PaymentResponse getPaymentByTransactionId(String transactionId, Long userId) {
+        return paymentRepository.findByTransactionId(transactionId)
+                .filter(payment -> payment.getUserId().equals(userId))
+                .map(PaymentResponse::new)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with transaction id: " + transactionId));
+    }
+
+    public List<PaymentResponse> getBookingPayments(Long bookingId, Long userId) {
+        if (!bookingRepository.existsByIdAndUserId(bookingId, userId)) {
+            throw new ResourceNotFoundException("Booking not found with id: " + bookingId);
+        }
+        return paymentRepository.findByBookingIdOrderByIdDesc(bookingId).stream()
+                .map(PaymentResponse::new)
+                .toList();
+    }
+
+    public PaymentHistoryPage getUserPayments(Long userId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells whether another page follows
+        Limit fetch = Limit.of(pageSize + 1);
+        List<Payment> payments = cursor == null || cursor.isBlank()
+                ? paymentRepository.findByUserIdOrderByIdDesc(userId, fetch)
+                : paymentRepository.findByUserIdAndIdLessThanOrderByIdDesc(userId, decodeCursor(cursor), fetch);
+        if (payments.size() <= pageSize) {
+            return new PaymentHistoryPage(payments.stream().map(PaymentResponse::new).toList(), null);
+        }
+        List<Payment> page = payments.subList(0, pageSize);
+        return new PaymentHistoryPage(page.stream().map(PaymentResponse::new).toList(),
+                encodeCursor(page.get(pageSize - 1).getId()));
+    }
+
+    private Payment charge(ProcessPaymentRequest request, Booking booking, Long userId,
+                           long amountMinor, String settlementKey) {
+        Payment payment = Payment.create();
+        payment.setBookingId(booking.getId());
+        payment.setUserId(userId);
+        payment.setAmountMinor(amountMinor);
+        payment.setPaymentType(request.getPaymentType());
+        payment.setPaymentMethod(request.getPaymentMethod());
+        payment.setNotes(request.getNotes());
+        if (request.getPaymentMethod().isCard()) {
+            String number = StubPaymentGateway.digits(request.getCardNumber());
+            payment.setCardLast4(number.substring(Math.max(0, number.length() - 4)));
+        }
+        // Reserves the settlement key; a booking already paid or being paid fails here with 409
+        payment.setStatus(Payment.PaymentStatus.PENDING);
+        payment.setSettlementKey(settlementKey);
+        payment.setLockedUntil(LocalDateTime.now().plusSeconds(pendingLeaseSeconds));
+        write(payment, List.of());
+
+        PaymentGateway.GatewayResult result;
+        try {
+            result = gateway.charge(payment.getTransactionId(), amountMinor, request);
+        } catch (RuntimeException e) {
+            log.warn("Payment provider failed charging payment {}", payment.getId(), e);
+            result = PaymentGateway.GatewayResult.declined("Payment provider error");
+        }
+        payment.setLockedUntil(null);
+        if (!result.approved()) {
+            payment.setStatus(Payment.PaymentStatus.FAILED);
+            payment.setFailureReason(result.declineReason());
+            payment.setSettlementKey(null);
+            return write(payment, List.of());
+        }
+
+        payment.setStatus(Payment.PaymentStatus.COMPLETED);
+        payment.setGatewayReference(result.reference());
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return write(payment, List.of(
+                    new LedgerEntry(payment.getId(), LedgerEntry.Account.GATEWAY_CLEARING, LedgerEntry.Direction.DEBIT, amountMinor, now),
+                    new LedgerEntry(payment.getId(), LedgerEntry.Account.creditedBy(payment.getPaymentType()),
+                            LedgerEntry.Direction.CREDIT, amountMinor, now)));
+        } catch (RuntimeException e) {
+            voidUnrecorded(payment, e);
+            throw e;
+        }
+    }
+
+    // The charge went through but was not recorded, so it is handed back to the customer
+    private void voidUnrecorded(Payment payment, RuntimeException cause) {
+        if (!refundAtGateway(payment)) {
+            log.error("Payment {} was charged as {} but neither recorded nor voided",
+                    payment.getId(), payment.getGatewayReference(), cause);
+            return;
+        }
+        payment.setStatus(Payment.PaymentStatus.FAILED);
+        payment.setFailureReason("Payment could not be recorded; the charge was voided");
+        payment.setSettlementKey(null);
+        try {
+            write(payment, List.of());
+        } catch (RuntimeException e) {
+            log.error("Payment {} was voided as {} but is still recorded as pending",
+                    payment.getId(), payment.getGatewayReference(), e);
+        }
+    }
+
+    // Paying for a hold confirms it; if the hold lapsed meanwhile the charge is reversed
+    private void confirmHold(Payment payment, Booking booking, Long userId) {
+        try {
+            bookingHoldService.confirmHold(booking.getId(), userId);
+        } catch (RuntimeException e) {
+            log.warn("Refunding payment {} after booking {} could not be confirmed", payment.getId(), booking.getId(), e);
+            if (!refund(payment, "Booking could not be confirmed: " + e.getMessage())) {
+                throw new ConflictException("Booking hold is no longer valid; the payment could not be refunded "
+                        + "automatically and will be refunded manually");
+            }
+            throw new ConflictException("Booking hold is no longer valid; the payment has been refunded");
+        }
+    }
+
+    // Refunds through the gateway first; the payment stays COMPLETED if the gateway refuses
+    private boolean refund(Payment payment, String reason) {
+        if (!refundAtGateway(payment)) {
+            log.error("Payment {} ({}) could not be refunded and needs a manual refund",
+                    payment.getId(), payment.getGatewayReference());
+            return false;
+        }
+        payment.setStatus(Payment.PaymentStatus.REFUNDED);
+        payment.setFailureReason(reason);
+        // Frees the booking to be paid again
+        payment.setSettlementKey(null);
+        LocalDateTime now = LocalDateTime.now();
+        long amountMinor = payment.getAmountMinor();
+        write(payment, List.of(
+                new LedgerEntry(payment.getId(), LedgerEntry.Account.creditedBy(payment.getPaymentType()),
+                        LedgerEntry.Direction.DEBIT, amountMinor, now),
+                new LedgerEntry(payment.getId(), LedgerEntry.Account.GATEWAY_CLEARING, LedgerEntry.Direction.CREDIT, amountMinor, now)));
+        return true;
+    }
+
+    private boolean refundAtGateway(Payment payment) {
+        try {
+            PaymentGateway.GatewayResult result = gateway.refund(payment.getGatewayReference(), payment.getAmountMinor());
+            if (!result.approved()) {
+                log.warn("Payment provider refused refund of payment {}: {}", payment.getId(), result.declineReason());
+            }
+            return result.approved();
+        } catch (RuntimeException e) {
+            log.warn("Payment provider failed refunding payment {}", payment.getId(), e);
+            return false;
+        }
+    }
+
+    // Once this throws, the write has not been and will not be committed
+    private Payment write(Payment payment, List<LedgerEntry> entries) {
+        PaymentLedgerWriter.PendingWrite pending = ledgerWriter.submit(payment, entries);
+        try {
+            return pending.result().get(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw recordingFailure(e);
+        } catch (TimeoutException e) {
+            if (pending.withdraw()) {
+                throw new IllegalStateException("Timed out recording payment " + payment.getTransactionId(), e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.withdraw()) {
+                throw new IllegalStateException("Interrupted while recording payment " + payment.getTransactionId(), e);
+            }
+        }
+        // Already taken by the writer, so its outcome is known once that transaction ends
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            throw recordingFailure(e);
+        }
+    }
+
+    private static RuntimeException recordingFailure(Exception e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new IllegalStateException("Payment could not be recorded", e.getCause());
+    }
+
+    private static boolean isPayable(Booking booking) {
+        if (booking.getStatus() == Booking.BookingStatus.PENDING) {
+            return booking.getHoldExpiresAt() != null && booking.getHoldExpiresAt().isAfter(LocalDateTime.now());
+        }
+        return booking.getStatus().isRevenue();
+    }
+
+    private static void validateCard(ProcessPaymentRequest request) {
+        if (request.getCardNumber() == null || request.getCardNumber().isBlank()) {
+            throw new BadRequestException("Card number is required");
+        }
+        if (request.getCvv() == null || !request.getCvv().matches("\\d{3,4}")) {
+            throw new BadRequestException("Invalid CVV");
+        }
+        try {
+            int month = Integer.parseInt(request.getExpiryMonth());
+            int year = Integer.parseInt(request.getExpiryYear());
+            if (year < 100) {
+                year += 2000;
+            }
+            if (YearMonth.of(year, month).isBefore(YearMonth.now())) {
+                throw new BadRequestException("Card has expired");
+            }
+        } catch (RuntimeException e) {
+            if (e instanceof BadRequestException) {
+                throw e;
+            }
+            throw new BadRequestException("Invalid card expiry date", e);
+        }
+    }
+
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
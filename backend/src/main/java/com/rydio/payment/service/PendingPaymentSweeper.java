@@ -0,0 +1,113 @@
+package com.rydio.payment.service;
+
+import com.rydio.payment.entity.Payment;
+import com.rydio.payment.repository.PaymentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settles payments stuck in PENDING, whose request could not record the outcome or whose
+ * instance stopped mid-charge. Once a payment's lease (app.payments.pending-lease-seconds) has
+ * run out, the provider is asked for its charge. Without one the payment fails and releases
+ * the booking's settlement key, so the booking can be paid again; with one the key stays held
+ * and the payment is logged for reconciliation by hand.
+ */
+@Component
+public class PendingPaymentSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingPaymentSweeper.class);
+
+    private static final int SWEEP_BATCH = 100;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentGateway gateway;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.payments.pending-sweep-seconds:60}")
+    private long sweepSeconds;
+
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    public void init() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pending-payment-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepSafely, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int settled = 0;
+        for (Payment payment : paymentRepository.findByStatusAndLockedUntilLessThanOrderByLockedUntilAsc(
+                Payment.PaymentStatus.PENDING, now, Limit.of(SWEEP_BATCH))) {
+            if (settle(payment, now)) {
+                settled++;
+            }
+        }
+        return settled;
+    }
+
+    private boolean settle(Payment payment, LocalDateTime now) {
+        PaymentGateway.GatewayResult charge;
+        try {
+            charge = gateway.find(payment.getTransactionId());
+        } catch (RuntimeException e) {
+            log.warn("Payment provider failed looking up payment {}, retrying on the next sweep", payment.getId(), e);
+            return false;
+        }
+        if (charge.approved()) {
+            Integer held = transactionTemplate.execute(status -> paymentRepository.holdForReconciliation(
+                    payment.getId(), charge.reference(), now, Payment.PaymentStatus.PENDING));
+            if (held != null && held > 0) {
+                log.error("Payment {} was charged as {} but never recorded; its booking stays reserved until reconciled",
+                        payment.getId(), charge.reference());
+                return true;
+            }
+            return false;
+        }
+        Integer failed = transactionTemplate.execute(status -> paymentRepository.failExpired(
+                payment.getId(), "Payment was not completed", now,
+                Payment.PaymentStatus.PENDING, Payment.PaymentStatus.FAILED));
+        if (failed != null && failed > 0) {
+            log.warn("Released the settlement key of payment {}, which the provider never charged", payment.getId());
+            return true;
+        }
+        return false;
+    }
+
+    private void sweepSafely() {
+        try {
+            int settled = sweep();
+            if (settled > 0) {
+                log.info("Settled {} payments left pending", settled);
+            }
+        } catch (Exception e) {
+            log.warn("Pending payment sweep failed", e);
+        }
+    }
+}
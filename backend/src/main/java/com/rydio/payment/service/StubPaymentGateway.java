@@ -0,0 +1,105 @@
+package com.rydio.payment.service;
+
+import com.rydio.payment.dto.ProcessPaymentRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a payment provider. Cards must pass the Luhn check and are declined
+ * when the number ends in 0002, like the usual test decline card; every other method is
+ * approved, and so is every refund of a charge it made. The most recent approvals are kept
+ * for lookups. An optional delay simulates the provider's round trip.
+ */
+@Component
+public class StubPaymentGateway implements PaymentGateway {
+
+    private static final int REMEMBERED_CHARGES = 100_000;
+
+    @Value("${app.payments.gateway.latency-ms:0}")
+    private long latencyMs;
+
+    // Transaction id to reference of outstanding charges, oldest dropped first
+    private final Map<String, String> charges = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > REMEMBERED_CHARGES;
+        }
+    });
+
+    @Override
+    public GatewayResult charge(String transactionId, long amountMinor, ProcessPaymentRequest request) {
+        if (!roundTrip()) {
+            return GatewayResult.declined("Payment provider did not respond");
+        }
+        if (request.getPaymentMethod().isCard()) {
+            String number = digits(request.getCardNumber());
+            if (number.length() < 12 || !passesLuhn(number)) {
+                return GatewayResult.declined("Invalid card number");
+            }
+            if (number.endsWith("0002")) {
+                return GatewayResult.declined("Card declined");
+            }
+        }
+        charges.put(transactionId, "stub_" + transactionId);
+        return GatewayResult.approved("stub_" + transactionId);
+    }
+
+    @Override
+    public GatewayResult refund(String reference, long amountMinor) {
+        if (!roundTrip()) {
+            return GatewayResult.declined("Payment provider did not respond");
+        }
+        if (reference == null || !reference.startsWith("stub_")) {
+            return GatewayResult.declined("Unknown charge " + reference);
+        }
+        charges.remove(reference.substring("stub_".length()));
+        return GatewayResult.approved("refund_" + reference);
+    }
+
+    @Override
+    public GatewayResult find(String transactionId) {
+        if (!roundTrip()) {
+            throw new IllegalStateException("Payment provider did not respond");
+        }
+        String reference = charges.get(transactionId);
+        return reference != null ? GatewayResult.approved(reference) : GatewayResult.declined("No charge for " + transactionId);
+    }
+
+    private boolean roundTrip() {
+        if (latencyMs > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String digits(String value) {
+        return value == null ? "" : value.replaceAll("\\D", "");
+    }
+
+    private static boolean passesLuhn(String number) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = number.length() - 1; i >= 0; i--) {
+            int digit = number.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+}
@@ -0,0 +1,102 @@
+package com.rydio.pricing.dto;
+
+import com.rydio.pricing.service.QuoteRange;
+
+public class PriceQuote {
+
+    private Long vehicleId;
+    private String startDate;
+    private String endDate;
+    private Long billableHours;
+    private Long weeks;
+    private Integer days;
+    private Integer hours;
+    private Long weekendDays;
+    private Double totalAmount;
+
+    public PriceQuote() {}
+
+    public PriceQuote(Long vehicleId, QuoteRange range, double totalAmount) {
+        this.vehicleId = vehicleId;
+        this.startDate = range.getStart().toString();
+        this.endDate = range.getEnd().toString();
+        this.billableHours = range.getBillableHours();
+        this.weeks = range.getWeeks();
+        this.days = range.getExtraDays();
+        this.hours = range.getExtraHours();
+        this.weekendDays = range.getWeekendDays();
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public Long getBillableHours() {
+        return billableHours;
+    }
+
+    public void setBillableHours(Long billableHours) {
+        this.billableHours = billableHours;
+    }
+
+    public Long getWeeks() {
+        return weeks;
+    }
+
+    public void setWeeks(Long weeks) {
+        this.weeks = weeks;
+    }
+
+    public Integer getDays() {
+        return days;
+    }
+
+    public void setDays(Integer days) {
+        this.days = days;
+    }
+
+    public Integer getHours() {
+        return hours;
+    }
+
+    public void setHours(Integer hours) {
+        this.hours = hours;
+    }
+
+    public Long getWeekendDays() {
+        return weekendDays;
+    }
+
+    public void setWeekendDays(Long weekendDays) {
+        this.weekendDays = weekendDays;
+    }
+
+    public Double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
@@ -0,0 +1,48 @@
+package com.rydio.pricing.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class QuoteRequest {
+
+    @NotEmpty(message = "At least one vehicle is required")
+    @Size(max = 500, message = "At most 500 vehicles can be quoted at once")
+    private List<Long> vehicleIds;
+
+    @NotBlank(message = "Start date is required")
+    private String startDate;
+
+    @NotBlank(message = "End date is required")
+    private String endDate;
+
+    // Constructors
+    public QuoteRequest() {}
+
+    // Getters and Setters
+    public List<Long> getVehicleIds() {
+        return vehicleIds;
+    }
+
+    public void setVehicleIds(List<Long> vehicleIds) {
+        this.vehicleIds = vehicleIds;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+}
@@ -0,0 +1,106 @@
+package com.rydio.pricing.service;
+
+import com.rydio.common.exception.ResourceNotFoundException;
+import com.rydio.pricing.dto.PriceQuote;
+import com.rydio.vehicle.entity.Vehicle;
+import com.rydio.vehicle.repository.VehicleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quotes rental prices from per-vehicle {@link RateTable}s, built once from the vehicle's
+ * rates and cached until the vehicle changes. A batch quote breaks the period down once
+ * and then prices each vehicle in constant time.
+ */
+@Service
+public class PricingService {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Value("${app.pricing.weekend-multiplier:1.2}")
+    private double weekendMultiplier;
+
+    // A full week never costs more than this many days at the daily rate
+    @Value("${app.pricing.weekly-cap-days:6}")
+    private double weeklyCapDays;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, RateTable> rateTables = new ConcurrentHashMap<>();
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void initMetrics() {
+        hits = Counter.builder("cache.gets").tag("cache", "rate-tables").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("cache.gets").tag("cache", "rate-tables").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("cache.size", rateTables, Map::size).tag("cache", "rate-tables").register(meterRegistry);
+    }
+
+    public PriceQuote quote(Vehicle vehicle, LocalDateTime start, LocalDateTime end) {
+        QuoteRange range = QuoteRange.of(start, end);
+        return new PriceQuote(vehicle.getId(), range, rateTable(vehicle).price(range));
+    }
+
+    public List<PriceQuote> quote(Collection<Long> vehicleIds, LocalDateTime start, LocalDateTime end) {
+        QuoteRange range = QuoteRange.of(start, end);
+        Set<Long> ids = new LinkedHashSet<>(vehicleIds);
+        loadMissing(ids);
+
+        List<PriceQuote> quotes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            RateTable table = rateTables.get(id);
+            if (table == null) {
+                throw new ResourceNotFoundException("Vehicle not found with id: " + id);
+            }
+            quotes.add(new PriceQuote(id, range, table.price(range)));
+        }
+        return quotes;
+    }
+
+    public void evict(Long vehicleId) {
+        rateTables.remove(vehicleId);
+    }
+
+    private RateTable rateTable(Vehicle vehicle) {
+        RateTable table = rateTables.get(vehicle.getId());
+        if (table == null || !table.isFor(vehicle.getDailyRate(), vehicle.getHourlyRate())) {
+            misses.increment();
+            table = build(vehicle);
+            rateTables.put(vehicle.getId(), table);
+        } else {
+            hits.increment();
+        }
+        return table;
+    }
+
+    // One query for all vehicles without a cached table
+    private void loadMissing(Set<Long> ids) {
+        List<Long> missing = ids.stream().filter(id -> !rateTables.containsKey(id)).toList();
+        hits.increment(ids.size() - missing.size());
+        misses.increment(missing.size());
+        if (!missing.isEmpty()) {
+            vehicleRepository.findAllById(missing).forEach(vehicle -> rateTables.put(vehicle.getId(), build(vehicle)));
+        }
+    }
+
+    private RateTable build(Vehicle vehicle) {
+        return new RateTable(vehicle.getDailyRate(), vehicle.getHourlyRate(), weekendMultiplier, weeklyCapDays);
+    }
+}
@@ -0,0 +1,95 @@
+package com.rydio.pricing.service;
+
+import com.rydio.common.exception.BadRequestException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * A rental period broken down into what is billed: whole weeks, remaining whole days (and
+ * how many of them are weekend days), and remaining hours. Computed once per period and
+ * shared by every vehicle quoted for it, so pricing a vehicle is a handful of arithmetic
+ * operations.
+ */
+public final class QuoteRange {
+
+    // WEEKEND_DAYS[d][n]: Saturdays and Sundays among n consecutive days starting on ISO day d + 1
+    private static final int[][] WEEKEND_DAYS = new int[7][8];
+
+    static {
+        for (int first = 0; first < 7; first++) {
+            for (int n = 1; n < 8; n++) {
+                int dayOfWeek = (first + n - 1) % 7;
+                WEEKEND_DAYS[first][n] = WEEKEND_DAYS[first][n - 1] + (dayOfWeek >= 5 ? 1 : 0);
+            }
+        }
+    }
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final long billableHours;
+    private final long weeks;
+    private final int extraDays;
+    private final int extraWeekendDays;
+    private final int extraHours;
+    private final boolean extraHoursOnWeekend;
+
+    private QuoteRange(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+        this.billableHours = Math.max(1, (Duration.between(start, end).toMinutes() + 59) / 60);
+
+        long days = billableHours / 24;
+        this.weeks = days / 7;
+        this.extraDays = (int) (days % 7);
+        this.extraHours = (int) (billableHours % 24);
+
+        // Whole weeks always contain two weekend days, so only the remainder needs counting
+        int firstDay = start.getDayOfWeek().getValue() - 1;
+        this.extraWeekendDays = WEEKEND_DAYS[firstDay][extraDays];
+        this.extraHoursOnWeekend = (firstDay + extraDays) % 7 >= 5;
+    }
+
+    public static QuoteRange of(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            throw new BadRequestException("End date must be after start date");
+        }
+        return new QuoteRange(start, end);
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public long getBillableHours() {
+        return billableHours;
+    }
+
+    public long getWeeks() {
+        return weeks;
+    }
+
+    public int getExtraDays() {
+        return extraDays;
+    }
+
+    public int getExtraWeekendDays() {
+        return extraWeekendDays;
+    }
+
+    public int getExtraHours() {
+        return extraHours;
+    }
+
+    public boolean isExtraHoursOnWeekend() {
+        return extraHoursOnWeekend;
+    }
+
+    public long getWeekendDays() {
+        return weeks * 2 + extraWeekendDays;
+    }
+}
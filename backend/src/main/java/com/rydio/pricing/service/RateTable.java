@@ -0,0 +1,45 @@
+package com.rydio.pricing.service;
+
+import java.util.Objects;
+
+/**
+ * Immutable prices of one vehicle, precomputed from its hourly and daily rates and the
+ * pricing policy. Hours are capped at a day's price and days at a week's price, and weekend
+ * days cost the weekday price times the weekend multiplier.
+ */
+public final class RateTable {
+
+    private final Double sourceDailyRate;
+    private final Double sourceHourlyRate;
+
+    private final double hourly;
+    private final double weekendHourly;
+    private final double daily;
+    private final double weekendDaily;
+    private final double week;
+
+    public RateTable(Double dailyRate, Double hourlyRate, double weekendMultiplier, double weeklyCapDays) {
+        this.sourceDailyRate = dailyRate;
+        this.sourceHourlyRate = hourlyRate;
+        this.daily = dailyRate;
+        // Without an hourly rate any part of a day is billed as a full day
+        this.hourly = hourlyRate != null ? hourlyRate : dailyRate;
+        this.weekendDaily = daily * weekendMultiplier;
+        this.weekendHourly = hourly * weekendMultiplier;
+        this.week = Math.min(daily * 5 + weekendDaily * 2, daily * weeklyCapDays);
+    }
+
+    public boolean isFor(Double dailyRate, Double hourlyRate) {
+        return Objects.equals(sourceDailyRate, dailyRate) && Objects.equals(sourceHourlyRate, hourlyRate);
+    }
+
+    public double price(QuoteRange range) {
+        int weekdays = range.getExtraDays() - range.getExtraWeekendDays();
+        double days = weekdays * daily + range.getExtraWeekendDays() * weekendDaily;
+        double hours = range.isExtraHoursOnWeekend()
+                ? Math.min(range.getExtraHours() * weekendHourly, weekendDaily)
+                : Math.min(range.getExtraHours() * hourly, daily);
+        double total = range.getWeeks() * week + Math.min(days + hours, week);
+        return Math.round(total * 100) / 100.0;
+    }
+}
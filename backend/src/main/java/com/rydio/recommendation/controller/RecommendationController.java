@@ -6,6 +6,8 @@ import com.rydio.recommendation.dto.RecommendationResponse;
 import com.rydio.recommendation.dto.VehicleRecommendation;
 import com.rydio.recommendation.service.SmartRecommendationService;
 import com.rydio.recommendation.service.PersonalizedRecommendationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -19,6 +21,8 @@ import java.util.Map;
 @RequestMapping("/recommendations")
 @CrossOrigin(origins = "http://localhost:3000")
 public class RecommendationController {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationController.class);
     
     @Autowired
     private SmartRecommendationService smartRecommendationService;
@@ -62,7 +66,7 @@ public class RecommendationController {
                 new ApiResponse<>(true, "Smart recommendations generated successfully", recommendations)
             );
         } catch (Exception e) {
-            e.printStackTrace(); // This will help us see the error in logs
+            log.error("Failed to generate smart recommendations", e);
             return ResponseEntity.internalServerError()
                 .body(new ApiResponse<>(false, "Failed to generate recommendations: " + e.getMessage(), null));
         }
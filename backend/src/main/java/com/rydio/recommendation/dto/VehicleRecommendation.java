@@ -13,6 +13,7 @@ public class VehicleRecommendation {
     private List<String> recommendedAddOns;
     private Double estimatedCost;
     private String imageUrl;
+    private String thumbnailUrl;
     private String location;
     private Double dailyRate;
     private Double hourlyRate;
@@ -109,6 +110,14 @@ public class VehicleRecommendation {
         this.imageUrl = imageUrl;
     }
 
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
     public String getLocation() {
         return location;
     }
@@ -2,12 +2,19 @@ package com.rydio.recommendation.service;
 
 import com.rydio.recommendation.dto.RecommendationRequest;
 import com.rydio.recommendation.dto.RecommendationResponse;
+import com.rydio.pricing.dto.PriceQuote;
+import com.rydio.pricing.service.PricingService;
 import com.rydio.recommendation.dto.VehicleRecommendation;
 import com.rydio.vehicle.service.VehicleService;
 import com.rydio.vehicle.dto.VehicleResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -17,6 +24,22 @@ public class SmartRecommendationService {
     @Autowired
     private VehicleService vehicleService;
     
+    @Autowired
+    private PricingService pricingService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer scoringTimer;
+    
+    @PostConstruct
+    public void initMetrics() {
+        scoringTimer = Timer.builder("rydio.recommendations.scoring")
+                .description("Time to price and score the available vehicles for one request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
     // Get real vehicle data from database
     private List<Map<String, Object>> getAvailableVehicles() {
         List<VehicleResponse> vehicles = vehicleService.getAvailableVehicles();
@@ -43,19 +66,13 @@ public class SmartRecommendationService {
         vehicleMap.put("year", vehicle.getYear());
         vehicleMap.put("features", vehicle.getFeatures());
         vehicleMap.put("imageUrl", vehicle.getImageUrl());
+        vehicleMap.put("thumbnailUrl", vehicle.getThumbnailUrl());
         return vehicleMap;
     }
     
     public RecommendationResponse getSmartRecommendations(RecommendationRequest request) {
         List<Map<String, Object>> vehicles = getAvailableVehicles();
-        List<VehicleRecommendation> recommendations = new ArrayList<>();
-        
-        for (Map<String, Object> vehicle : vehicles) {
-            VehicleRecommendation recommendation = analyzeVehicleMatch(vehicle, request);
-            if (recommendation.getMatchScore() > 0.3) { // Only include vehicles with decent match
-                recommendations.add(recommendation);
-            }
-        }
+        List<VehicleRecommendation> recommendations = scoringTimer.record(() -> score(vehicles, request));
         
         // Sort by match score (highest first)
         recommendations.sort((a, b) -> Double.compare(b.getMatchScore(), a.getMatchScore()));
@@ -72,7 +89,21 @@ public class SmartRecommendationService {
         return response;
     }
     
-    private VehicleRecommendation analyzeVehicleMatch(Map<String, Object> vehicle, RecommendationRequest request) {
+    private List<VehicleRecommendation> score(List<Map<String, Object>> vehicles, RecommendationRequest request) {
+        Map<Long, Double> estimatedCosts = estimateCosts(vehicles, request);
+        List<VehicleRecommendation> recommendations = new ArrayList<>();
+        
+        for (Map<String, Object> vehicle : vehicles) {
+            VehicleRecommendation recommendation = analyzeVehicleMatch(vehicle, request, estimatedCosts);
+            if (recommendation.getMatchScore() > 0.3) { // Only include vehicles with decent match
+                recommendations.add(recommendation);
+            }
+        }
+        return recommendations;
+    }
+    
+    private VehicleRecommendation analyzeVehicleMatch(Map<String, Object> vehicle, RecommendationRequest request,
+                                                      Map<Long, Double> estimatedCosts) {
         double score = 0.0;
         List<String> matchedCriteria = new ArrayList<>();
         StringBuilder reasonBuilder = new StringBuilder();
@@ -210,11 +241,12 @@ public class SmartRecommendationService {
         recommendation.setHourlyRate(hourlyRate);
         recommendation.setLocation(vehicle.get("location").toString());
         recommendation.setImageUrl(vehicle.get("imageUrl") != null ? vehicle.get("imageUrl").toString() : null);
+        recommendation.setThumbnailUrl(vehicle.get("thumbnailUrl") != null ? vehicle.get("thumbnailUrl").toString() : null);
         recommendation.setRecommendedAddOns(generateVehicleSpecificAddOns(vehicleType, request));
         
-        // Calculate estimated cost
-        if (request.getDuration() != null) {
-            double estimatedCost = calculateEstimatedCost(request.getDuration(), dailyRate, hourlyRate);
+        // Estimated cost from the batch quote
+        Double estimatedCost = estimatedCosts.get(recommendation.getVehicleId());
+        if (estimatedCost != null) {
             recommendation.setEstimatedCost(estimatedCost);
         }
         
@@ -361,22 +393,44 @@ public class SmartRecommendationService {
         }
     }
     
-    private double calculateEstimatedCost(String duration, double dailyRate, double hourlyRate) {
+    // Prices all candidates for the requested period with a single batch quote
+    private Map<Long, Double> estimateCosts(List<Map<String, Object>> vehicles, RecommendationRequest request) {
+        LocalDateTime start = request.getStartDate() != null
+                ? request.getStartDate().atStartOfDay()
+                : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime end;
+        if (request.getEndDate() != null && request.getEndDate().atStartOfDay().isAfter(start)) {
+            end = request.getEndDate().atStartOfDay();
+        } else if (request.getDuration() != null) {
+            end = start.plusHours(durationHours(request.getDuration()));
+        } else {
+            return Map.of();
+        }
+        
+        List<Long> vehicleIds = vehicles.stream().map(vehicle -> (Long) vehicle.get("id")).toList();
+        if (vehicleIds.isEmpty()) {
+            return Map.of();
+        }
+        return pricingService.quote(vehicleIds, start, end).stream()
+                .collect(Collectors.toMap(PriceQuote::getVehicleId, PriceQuote::getTotalAmount));
+    }
+    
+    private long durationHours(String duration) {
         switch (duration.toLowerCase()) {
             case "short":
-                return hourlyRate * 4; // 4 hours
+                return 4;
             case "medium":
-                return hourlyRate * 8; // 8 hours
+                return 8;
             case "long":
-                return dailyRate; // Full day
+                return 24; // Full day
             default:
                 // Try to parse as hours
                 try {
-                    int hours = Integer.parseInt(duration);
-                    return hourlyRate * hours;
+                    int hours = Integer.parseInt(duration.trim());
+                    return hours > 0 ? hours : 24;
                 } catch (NumberFormatException e) {
-                    return dailyRate; // Default to daily rate
+                    return 24; // Default to a day
                 }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package com.rydio.user.dto;
+
+import com.rydio.user.entity.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable read projection of a {@link User}, cached per user and used as the
+ * authenticated principal. It carries no password hash.
+ */
+public final class UserProfile implements AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final User.Role role;
+    private final String phoneNumber;
+    private final String address;
+    private final LocalDate dateOfBirth;
+    private final String driverLicenseNumber;
+    private final LocalDate driverLicenseExpiry;
+    private final boolean emailVerified;
+    private final boolean active;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final List<GrantedAuthority> authorities;
+
+    public UserProfile(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.email = user.getEmail();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.role = user.getRole();
+        this.phoneNumber = user.getPhoneNumber();
+        this.address = user.getAddress();
+        this.dateOfBirth = user.getDateOfBirth();
+        this.driverLicenseNumber = user.getDriverLicenseNumber();
+        this.driverLicenseExpiry = user.getDriverLicenseExpiry();
+        this.emailVerified = user.isEmailVerified();
+        this.active = user.isActive();
+        this.createdAt = user.getCreatedAt();
+        this.updatedAt = user.getUpdatedAt();
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public User.Role getRole() {
+        return role;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    public String getDriverLicenseNumber() {
+        return driverLicenseNumber;
+    }
+
+    public LocalDate getDriverLicenseExpiry() {
+        return driverLicenseExpiry;
+    }
+
+    public boolean isEmailVerified() {
+        return emailVerified;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
@@ -0,0 +1,137 @@
+package com.rydio.user.service;
+
+import com.rydio.common.exception.ResourceNotFoundException;
+import com.rydio.user.dto.UserProfile;
+import com.rydio.user.entity.User;
+import com.rydio.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves user profiles from a per-user cache of {@link UserProfile} projections.
+ * The cache is filled on first access and evicted by every User write (see {@link #evict}),
+ * so repeated profile and "me" reads do not touch the database. Entries also expire after
+ * app.user.profile-cache.ttl-seconds, which bounds how long a change made elsewhere,
+ * such as on another instance, goes unseen.
+ */
+@Service
+public class UserProfileService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.user.profile-cache.max-size:10000}")
+    private int maxCachedProfiles;
+
+    @Value("${app.user.profile-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, CachedProfile> profilesByUsername = new ConcurrentHashMap<>();
+    private Counter hits;
+    private Counter misses;
+
+    // Same meter names as Micrometer's cache binders, so hit ratios are queried alike for every cache
+    @PostConstruct
+    public void initMetrics() {
+        hits = Counter.builder("cache.gets").tag("cache", "user-profiles").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("cache.gets").tag("cache", "user-profiles").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("cache.size", profilesByUsername, Map::size).tag("cache", "user-profiles").register(meterRegistry);
+    }
+
+    public Optional<UserProfile> findByUsername(String username) {
+        CachedProfile cached = profilesByUsername.get(username);
+        if (cached != null && System.nanoTime() - cached.loadedAt() < TimeUnit.SECONDS.toNanos(ttlSeconds)) {
+            hits.increment();
+            return Optional.of(cached.profile());
+        }
+        misses.increment();
+        return userRepository.findByUsername(username).map(this::cache);
+    }
+
+    // Profile of the authenticated caller, taken from the principal set by JwtAuthenticationFilter
+    public Optional<UserProfile> getCurrentProfile() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserProfile principal)) {
+            return Optional.empty();
+        }
+        return findByUsername(principal.getUsername());
+    }
+
+    public UserProfile updateProfile(Long userId, Map<String, Object> profileData) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        // Update allowed fields
+        if (profileData.containsKey("firstName")) {
+            user.setFirstName((String) profileData.get("firstName"));
+        }
+        if (profileData.containsKey("lastName")) {
+            user.setLastName((String) profileData.get("lastName"));
+        }
+        if (profileData.containsKey("phoneNumber")) {
+            user.setPhoneNumber((String) profileData.get("phoneNumber"));
+        }
+        if (profileData.containsKey("address")) {
+            user.setAddress((String) profileData.get("address"));
+        }
+
+        User saved = userRepository.save(user);
+        evict(saved.getUsername());
+        return cache(saved);
+    }
+
+    /**
+     * Drops the cached profile now and, when called inside a transaction, again after it
+     * commits, since a reader may have cached the old row in between.
+     */
+    public void evict(String username) {
+        profilesByUsername.remove(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    profilesByUsername.remove(username);
+                }
+            });
+        }
+    }
+
+    private UserProfile cache(User user) {
+        if (profilesByUsername.size() >= maxCachedProfiles) {
+            // Drop an arbitrary entry; evicted users are simply reloaded on their next request
+            Iterator<String> it = profilesByUsername.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        // A reader that loaded the row before a concurrent update must not overwrite the newer profile
+        return profilesByUsername.merge(user.getUsername(), new CachedProfile(new UserProfile(user), System.nanoTime()),
+                (existing, loaded) -> isNewer(existing.profile(), loaded.profile()) ? existing : loaded).profile();
+    }
+
+    private boolean isNewer(UserProfile existing, UserProfile loaded) {
+        return existing.getUpdatedAt() != null && loaded.getUpdatedAt() != null
+                && existing.getUpdatedAt().isAfter(loaded.getUpdatedAt());
+    }
+
+    private record CachedProfile(UserProfile profile, long loadedAt) {}
+}
@@ -1,10 +1,15 @@
 package com.rydio.user.service;
 
+import com.rydio.admin.service.AdminStatsService;
+import com.rydio.common.exception.BadRequestException;
 import com.rydio.user.entity.User;
 import com.rydio.user.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 @Service
@@ -12,6 +17,12 @@ public class UserService {
     
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private UserProfileService userProfileService;
     
     public Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
         return userRepository.findByUsernameOrEmail(usernameOrEmail);
@@ -30,7 +41,9 @@ public class UserService {
     }
     
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userProfileService.evict(saved.getUsername());
+        return saved;
     }
     
     public boolean existsByUsername(String username) {
@@ -41,6 +54,66 @@ public class UserService {
         return userRepository.existsByEmail(email);
     }
     
+    // Registration is a single INSERT; the unique constraints on username/email decide duplicates
+    public User registerUser(String username, String email, String password, String firstName, String lastName,
+                             String phoneNumber, String address) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword(password);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setPhoneNumber(phoneNumber);
+        user.setAddress(address);
+        user.setRole(User.Role.USER);
+        try {
+            User saved = userRepository.saveAndFlush(user);
+            userProfileService.evict(saved.getUsername());
+            adminStatsService.userRegistered(saved.getCreatedAt());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicate(e, user);
+        }
+    }
+    
+    private RuntimeException translateDuplicate(DataIntegrityViolationException e, User user) {
+        String constraint = null;
+        if (e.getCause() instanceof ConstraintViolationException violation) {
+            constraint = violation.getConstraintName();
+        }
+        if (constraint == null) {
+            constraint = e.getMostSpecificCause().getMessage();
+        }
+        if (constraint != null) {
+            String normalized = constraint.toLowerCase();
+            if (normalized.contains(User.UK_EMAIL)) {
+                return new BadRequestException("Email already exists", e);
+            }
+            if (normalized.contains(User.UK_USERNAME)) {
+                return new BadRequestException("Username already exists", e);
+            }
+        }
+        // A schema not created by Hibernate names its constraints differently; any unique
+        // violation on this insert is one of the two columns, so look up which
+        if (isUniqueViolation(e)) {
+            if (userRepository.existsByEmail(user.getEmail())) {
+                return new BadRequestException("Email already exists", e);
+            }
+            if (userRepository.existsByUsername(user.getUsername())) {
+                return new BadRequestException("Username already exists", e);
+            }
+        }
+        return e;
+    }
+
+    // SQLState 23505 is the standard unique violation (H2, PostgreSQL); MySQL reports 23000 with error 1062
+    private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        if (e.getMostSpecificCause() instanceof SQLException sql) {
+            return "23505".equals(sql.getSQLState()) || sql.getErrorCode() == 1062;
+        }
+        return false;
+    }
+    
     public User createUser(String username, String email, String password, String firstName, String lastName, User.Role role) {
         User user = new User();
         user.setUsername(username);
@@ -49,6 +122,9 @@ public class UserService {
         user.setFirstName(firstName);
         user.setLastName(lastName);
         user.setRole(role);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userProfileService.evict(saved.getUsername());
+        adminStatsService.userRegistered(saved.getCreatedAt());
+        return saved;
     }
 }
\ No newline at end of file
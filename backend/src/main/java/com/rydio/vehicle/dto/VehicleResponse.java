@@ -1,5 +1,6 @@
 package com.rydio.vehicle.dto;
 
+import com.rydio.file.service.ImageVariant;
 import com.rydio.vehicle.entity.Vehicle;
 
 public class VehicleResponse {
@@ -24,6 +25,8 @@ public class VehicleResponse {
     private String description;
     private String features;
     private String imageUrl;
+    private String thumbnailUrl;
+    private String mediumUrl;
     private String ownerName;
     private Long ownerId;
     private String createdAt;
@@ -53,6 +56,8 @@ public class VehicleResponse {
         this.description = vehicle.getDescription();
         this.features = vehicle.getFeatures();
         this.imageUrl = vehicle.getImageUrl();
+        this.thumbnailUrl = ImageVariant.THUMBNAIL.urlFor(vehicle.getImageUrl());
+        this.mediumUrl = ImageVariant.MEDIUM.urlFor(vehicle.getImageUrl());
         if (vehicle.getOwner() != null) {
             this.ownerId = vehicle.getOwner().getId();
             this.ownerName = vehicle.getOwner().getFirstName() + " " + vehicle.getOwner().getLastName();
@@ -226,6 +231,22 @@ public class VehicleResponse {
         this.imageUrl = imageUrl;
     }
     
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+    
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+    
+    public String getMediumUrl() {
+        return mediumUrl;
+    }
+    
+    public void setMediumUrl(String mediumUrl) {
+        this.mediumUrl = mediumUrl;
+    }
+    
     public String getOwnerName() {
         return ownerName;
     }
@@ -0,0 +1,23 @@
+package com.rydio.vehicle.dto;
+
+import java.util.List;
+
+public class VehicleSearchPage {
+
+    private final List<VehicleResponse> vehicles;
+    // Opaque position after the last vehicle, or null on the last page
+    private final String nextCursor;
+
+    public VehicleSearchPage(List<VehicleResponse> vehicles, String nextCursor) {
+        this.vehicles = vehicles;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<VehicleResponse> getVehicles() {
+        return vehicles;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -4,9 +4,13 @@ import com.rydio.common.entity.BaseEntity;
 import com.rydio.user.entity.User;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "vehicles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vehicles")
 public class Vehicle extends BaseEntity {
     
     @Id
@@ -79,6 +83,12 @@ public class Vehicle extends BaseEntity {
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
     
+    // Advanced on every change to this vehicle's booking calendar; concurrent bookings
+    // are arbitrated by a conditional update on it, never by entity saves. That update
+    // bypasses the second-level cache, so current values come from findBookingVersion.
+    @Column(name = "booking_version", nullable = false, updatable = false)
+    private Long bookingVersion = 0L;
+    
     // Constructors
     public Vehicle() {}
     
@@ -265,6 +275,14 @@ public class Vehicle extends BaseEntity {
     }
     
     // Enums
+    public Long getBookingVersion() {
+        return bookingVersion;
+    }
+    
+    public void setBookingVersion(Long bookingVersion) {
+        this.bookingVersion = bookingVersion;
+    }
+    
     public enum VehicleType {
         CAR, BIKE, SCOOTER, BICYCLE
     }
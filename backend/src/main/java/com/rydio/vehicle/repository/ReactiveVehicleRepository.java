@@ -0,0 +1,208 @@
+package com.rydio.vehicle.repository;
+
+import com.rydio.file.service.ImageVariant;
+import com.rydio.vehicle.dto.VehicleResponse;
+import com.rydio.vehicle.entity.Vehicle;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only vehicle queries over R2DBC, for the reactive browsing routes. Rows are mapped
+ * straight to {@link VehicleResponse} with the owner joined in, and are emitted as the
+ * subscriber asks for them rather than loaded into a list first. Filters match the JPQL
+ * ones in {@link VehicleRepository}. All writes go through JPA.
+ *
+ * r2dbc-h2 wraps the blocking embedded engine and runs each query, and each fetch of more
+ * rows, on the thread that subscribes or asks for them. Left on the server's event loops, one
+ * query stalls every connection on that loop, so queries are subscribed on a fixed pool of
+ * their own threads, one per connection. The pool has one shared queue: a bounded elastic
+ * scheduler pins each query to a worker, where a short lookup can wait behind a long listing.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveVehicleRepository {
+
+    private static final String SELECT = "SELECT v.id, v.license_plate, v.brand, v.model, v.vehicle_year, v.color, "
+            + "v.vehicle_type, v.fuel_type, v.engine_capacity, v.seat_count, v.daily_rate, v.hourly_rate, v.mileage, "
+            + "v.insurance_number, v.registration_number, v.status, v.location, v.description, v.features, "
+            + "v.image_url, v.owner_id, v.created_at, v.updated_at, u.first_name, u.last_name "
+            + "FROM vehicles v JOIN users u ON u.id = v.owner_id";
+
+    @Value("${app.reactive.r2dbc.url}")
+    private String url;
+
+    @Value("${app.reactive.r2dbc.username:}")
+    private String username;
+
+    @Value("${app.reactive.r2dbc.password:}")
+    private String password;
+
+    @Value("${app.reactive.r2dbc.pool-size:10}")
+    private int poolSize;
+
+    private ConnectionPool pool;
+    private DatabaseClient client;
+    private Scheduler queryScheduler;
+
+    // Not a bean: Spring Boot backs off its JDBC DataSource when it finds a ConnectionFactory
+    @PostConstruct
+    public void init() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .maxSize(poolSize)
+                .build());
+        client = DatabaseClient.create(pool);
+        AtomicInteger threads = new AtomicInteger();
+        queryScheduler = Schedulers.fromExecutorService(Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "r2dbc-query-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }), "r2dbc-query");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.dispose();
+        queryScheduler.dispose();
+    }
+
+    public Mono<VehicleResponse> findById(Long id) {
+        return client.sql(SELECT + " WHERE v.id = :id")
+                .bind("id", id)
+                .map(ReactiveVehicleRepository::toResponse)
+                .one()
+                .subscribeOn(queryScheduler);
+    }
+
+    public Flux<VehicleResponse> findByStatus(Vehicle.VehicleStatus status) {
+        return client.sql(SELECT + " WHERE v.status = :status ORDER BY v.id")
+                .bind("status", status.name())
+                .map(ReactiveVehicleRepository::toResponse)
+                .all()
+                .subscribeOn(queryScheduler);
+    }
+
+    // Same filters as VehicleRepository.findVehiclesWithFilters
+    public Flux<VehicleResponse> findWithFilters(Vehicle.VehicleType vehicleType, String location,
+                                                 Double minPrice, Double maxPrice) {
+        StringBuilder sql = new StringBuilder(SELECT).append(" WHERE v.status = 'AVAILABLE'");
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        appendFilters(sql, bindings, vehicleType, location, minPrice, maxPrice);
+        sql.append(" ORDER BY v.id");
+        return bind(client.sql(sql.toString()), bindings).map(ReactiveVehicleRepository::toResponse).all()
+                .subscribeOn(queryScheduler);
+    }
+
+    // Same as VehicleRepository.findBookableVehicleIds
+    public Flux<Long> findBookableIds(Vehicle.VehicleType vehicleType, String location,
+                                      Double minPrice, Double maxPrice, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT v.id FROM vehicles v WHERE v.status IN ('AVAILABLE', 'RENTED')");
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        appendFilters(sql, bindings, vehicleType, location, minPrice, maxPrice);
+        sql.append(" AND v.id > :afterId ORDER BY v.id LIMIT :limit");
+        bindings.put("afterId", afterId);
+        bindings.put("limit", limit);
+        return bind(client.sql(sql.toString()), bindings).map(row -> row.get("id", Long.class)).all()
+                .subscribeOn(queryScheduler);
+    }
+
+    public Flux<VehicleResponse> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return client.sql(SELECT + " WHERE v.id IN (:ids) ORDER BY v.id")
+                .bind("ids", ids)
+                .map(ReactiveVehicleRepository::toResponse)
+                .all()
+                .subscribeOn(queryScheduler);
+    }
+
+    private static void appendFilters(StringBuilder sql, Map<String, Object> bindings, Vehicle.VehicleType vehicleType,
+                                      String location, Double minPrice, Double maxPrice) {
+        if (vehicleType != null) {
+            sql.append(" AND v.vehicle_type = :vehicleType");
+            bindings.put("vehicleType", vehicleType.name());
+        }
+        if (location != null) {
+            sql.append(" AND v.location LIKE :location");
+            bindings.put("location", "%" + location + "%");
+        }
+        if (minPrice != null) {
+            sql.append(" AND v.daily_rate >= :minPrice");
+            bindings.put("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            sql.append(" AND v.daily_rate <= :maxPrice");
+            bindings.put("maxPrice", maxPrice);
+        }
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Map<String, Object> bindings) {
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private static VehicleResponse toResponse(Readable row) {
+        VehicleResponse response = new VehicleResponse();
+        response.setId(row.get("id", Long.class));
+        response.setLicensePlate(row.get("license_plate", String.class));
+        response.setBrand(row.get("brand", String.class));
+        response.setModel(row.get("model", String.class));
+        response.setYear(row.get("vehicle_year", Integer.class));
+        response.setColor(row.get("color", String.class));
+        response.setVehicleType(Vehicle.VehicleType.valueOf(row.get("vehicle_type", String.class)));
+        response.setFuelType(Vehicle.FuelType.valueOf(row.get("fuel_type", String.class)));
+        response.setEngineCapacity(row.get("engine_capacity", String.class));
+        response.setSeatCount(row.get("seat_count", Integer.class));
+        response.setDailyRate(row.get("daily_rate", Double.class));
+        response.setHourlyRate(row.get("hourly_rate", Double.class));
+        response.setMileage(row.get("mileage", Double.class));
+        response.setInsuranceNumber(row.get("insurance_number", String.class));
+        response.setRegistrationNumber(row.get("registration_number", String.class));
+        response.setStatus(Vehicle.VehicleStatus.valueOf(row.get("status", String.class)));
+        response.setLocation(row.get("location", String.class));
+        response.setDescription(row.get("description", String.class));
+        response.setFeatures(row.get("features", String.class));
+        String imageUrl = row.get("image_url", String.class);
+        response.setImageUrl(imageUrl);
+        response.setThumbnailUrl(ImageVariant.THUMBNAIL.urlFor(imageUrl));
+        response.setMediumUrl(ImageVariant.MEDIUM.urlFor(imageUrl));
+        response.setOwnerId(row.get("owner_id", Long.class));
+        response.setOwnerName(row.get("first_name", String.class) + " " + row.get("last_name", String.class));
+        LocalDateTime createdAt = row.get("created_at", LocalDateTime.class);
+        if (createdAt != null) {
+            response.setCreatedAt(createdAt.toString());
+        }
+        LocalDateTime updatedAt = row.get("updated_at", LocalDateTime.class);
+        if (updatedAt != null) {
+            response.setUpdatedAt(updatedAt.toString());
+        }
+        return response;
+    }
+}
@@ -2,11 +2,17 @@ package com.rydio.vehicle.repository;
 
 import com.rydio.vehicle.entity.Vehicle;
 import com.rydio.user.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +26,7 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     List<Vehicle> findByOwner(User owner);
     
     @Query("SELECT v FROM Vehicle v WHERE v.owner.id = :ownerId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Vehicle> findByOwnerId(@Param("ownerId") Long ownerId);
     
     @Query("SELECT v FROM Vehicle v WHERE v.status = :status AND v.vehicleType = :type")
@@ -43,6 +50,24 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
                                         @Param("minPrice") Double minPrice,
                                         @Param("maxPrice") Double maxPrice);
     
+    // Ids only, in id order after :afterId, so an availability search can check them against the
+    // day bitmaps before loading any vehicle
+    @Query("SELECT v.id FROM Vehicle v WHERE " +
+           "(:vehicleType IS NULL OR v.vehicleType = :vehicleType) AND " +
+           "(:location IS NULL OR v.location LIKE %:location%) AND " +
+           "(:minPrice IS NULL OR v.dailyRate >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR v.dailyRate <= :maxPrice) AND " +
+           "v.status IN ('AVAILABLE', 'RENTED') AND v.id > :afterId ORDER BY v.id")
+    List<Long> findBookableVehicleIds(@Param("vehicleType") Vehicle.VehicleType vehicleType,
+                                      @Param("location") String location,
+                                      @Param("minPrice") Double minPrice,
+                                      @Param("maxPrice") Double maxPrice,
+                                      @Param("afterId") Long afterId,
+                                      Limit limit);
+    
+    @Query("SELECT v FROM Vehicle v JOIN FETCH v.owner WHERE v.id IN :ids ORDER BY v.id")
+    List<Vehicle> findWithOwnerByIdIn(@Param("ids") Collection<Long> ids);
+    
     Optional<Vehicle> findByLicensePlate(String licensePlate);
     
     Optional<Vehicle> findByRegistrationNumber(String registrationNumber);
@@ -52,4 +77,21 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     
     @Query("SELECT COUNT(v) FROM Vehicle v WHERE v.status = :status")
     Long countByStatus(@Param("status") Vehicle.VehicleStatus status);
-}
\ No newline at end of file
+    
+    @Query("SELECT v.status, COUNT(v) FROM Vehicle v GROUP BY v.status")
+    List<Object[]> countPerStatus();
+    
+    @Query("SELECT v.bookingVersion FROM Vehicle v WHERE v.id = :id")
+    Optional<Long> findBookingVersion(@Param("id") Long id);
+    
+    @Query("SELECT v.id, v.bookingVersion FROM Vehicle v")
+    List<Object[]> findAllBookingVersions();
+    
+    // Native SQL with a query space of its own: a JPQL bulk update would evict the whole
+    // vehicles cache region and every cached vehicle query on each booking
+    @Modifying
+    @Query(value = "UPDATE vehicles SET booking_version = booking_version + 1 " +
+                   "WHERE id = :id AND booking_version = :expectedVersion", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "vehicle_booking_versions"))
+    int advanceBookingVersion(@Param("id") Long id, @Param("expectedVersion") Long expectedVersion);
+}
@@ -1,30 +1,77 @@
 package com.rydio.vehicle.service;
 
+import com.rydio.admin.service.AdminStatsService;
+import com.rydio.booking.repository.BookingRepository;
+import com.rydio.booking.service.BookingIntervalIndex;
+import com.rydio.booking.service.DayAvailabilityIndex;
+import com.rydio.booking.service.VehicleLocks;
+import com.rydio.pricing.service.PricingService;
 import com.rydio.vehicle.dto.CreateVehicleRequest;
 import com.rydio.vehicle.dto.VehicleResponse;
+import com.rydio.vehicle.dto.VehicleSearchPage;
 import com.rydio.vehicle.entity.Vehicle;
 import com.rydio.vehicle.repository.VehicleRepository;
 import com.rydio.user.entity.User;
 import com.rydio.user.repository.UserRepository;
 import com.rydio.common.exception.ResourceNotFoundException;
 import com.rydio.common.exception.BadRequestException;
+import com.rydio.common.exception.ConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class VehicleService {
     
+    // Candidate ids read per query by an availability search
+    public static final int SEARCH_SCAN_BATCH = 1000;
+    
+    private static final int MAX_SEARCH_DAYS = 366;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    
     @Autowired
     private VehicleRepository vehicleRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private DayAvailabilityIndex dayAvailabilityIndex;
+    
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+    
+    @Autowired
+    private VehicleLocks vehicleLocks;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
     public List<VehicleResponse> getAllVehicles() {
         return vehicleRepository.findAll()
                 .stream()
@@ -93,6 +140,7 @@ public class VehicleService {
         vehicle.setStatus(Vehicle.VehicleStatus.AVAILABLE);
         
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        adminStatsService.vehicleStatusChanged(null, savedVehicle.getStatus());
         return new VehicleResponse(savedVehicle);
     }
     
@@ -130,10 +178,21 @@ public class VehicleService {
         vehicle.setImageUrl(request.getImageUrl());
         
         Vehicle updatedVehicle = vehicleRepository.save(vehicle);
+        pricingService.evict(id);
         return new VehicleResponse(updatedVehicle);
     }
     
-    public void deleteVehicle(Long id, Long ownerId) {
+    /**
+     * Deletes the vehicle, or retires it (status INACTIVE) when past bookings refer to it, so
+     * their history is kept. Refused while it has pending, confirmed or active bookings.
+     *
+     * Like a booking, this is a calendar change: it runs under the vehicle's lock and advances
+     * its booking version, so a booking racing it on another instance conflicts and reloads.
+     *
+     * @return true if the vehicle was deleted, false if it was retired
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean deleteVehicle(Long id, Long ownerId) {
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Vehicle not found with id: " + id));
         
@@ -146,7 +205,48 @@ public class VehicleService {
             }
         }
         
-        vehicleRepository.delete(vehicle);
+        // Held until the transaction has committed, as in BookingService
+        ReentrantLock lock = vehicleLocks.acquire(id);
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> retireOrDelete(id)));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private boolean retireOrDelete(Long id) {
+        Vehicle vehicle = vehicleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Vehicle not found with id: " + id));
+        if (bookingRepository.existsByVehicleIdAndStatusInAndEndDateAfter(
+                id, BookingIntervalIndex.blockingStatuses(), LocalDateTime.now())) {
+            throw new ConflictException("Vehicle has upcoming or active bookings and cannot be deleted");
+        }
+        long version = vehicleRepository.findBookingVersion(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Vehicle not found with id: " + id));
+        if (vehicleRepository.advanceBookingVersion(id, version) == 0) {
+            throw new ConflictException("Vehicle calendar is changing, please retry");
+        }
+        
+        Vehicle.VehicleStatus previousStatus = vehicle.getStatus();
+        if (bookingRepository.existsByVehicleId(id)) {
+            vehicle.setStatus(Vehicle.VehicleStatus.INACTIVE);
+            vehicleRepository.save(vehicle);
+            adminStatsService.vehicleStatusChanged(previousStatus, Vehicle.VehicleStatus.INACTIVE);
+            afterCommit(() -> bookingIntervalIndex.advance(id, version + 1));
+            return false;
+        }
+        
+        try {
+            vehicleRepository.delete(vehicle);
+            vehicleRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            // A booking was made on another instance between the check and the delete
+            throw new ConflictException("Vehicle has bookings and cannot be deleted", e);
+        }
+        pricingService.evict(id);
+        adminStatsService.vehicleStatusChanged(previousStatus, null);
+        afterCommit(() -> bookingIntervalIndex.removeVehicle(id));
+        return true;
     }
     
     public VehicleResponse updateVehicleStatus(Long id, Vehicle.VehicleStatus status, Long ownerId) {
@@ -162,8 +262,10 @@ public class VehicleService {
             }
         }
         
+        Vehicle.VehicleStatus previousStatus = vehicle.getStatus();
         vehicle.setStatus(status);
         Vehicle updatedVehicle = vehicleRepository.save(vehicle);
+        adminStatsService.vehicleStatusChanged(previousStatus, status);
         return new VehicleResponse(updatedVehicle);
     }
     
@@ -174,4 +276,78 @@ public class VehicleService {
                 .map(VehicleResponse::new)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+    
+    /**
+     * One page of the vehicles free on every day in [from, toExclusive), in id order. The
+     * current status flag only says whether a vehicle is rented right now, so any bookable
+     * vehicle is a candidate and the per-day booking bitmaps decide availability. Candidate
+     * ids are read in batches and checked against the bitmaps, and only the page's vehicles
+     * are loaded.
+     */
+    @Transactional(readOnly = true)
+    public VehicleSearchPage searchAvailableVehicles(Vehicle.VehicleType vehicleType, String location,
+                                                     Double minPrice, Double maxPrice,
+                                                     LocalDate from, LocalDate toExclusive,
+                                                     String cursor, int limit) {
+        checkSearchRange(from, toExclusive);
+        int pageSize = searchPageSize(limit);
+        long afterId = decodeSearchCursor(cursor);
+        RoaringBitmap booked = dayAvailabilityIndex.bookedBetween(from, toExclusive);
+
+        List<Long> pageIds = new ArrayList<>(pageSize);
+        List<Long> batch;
+        do {
+            batch = vehicleRepository.findBookableVehicleIds(vehicleType, location, minPrice, maxPrice,
+                    afterId, Limit.of(SEARCH_SCAN_BATCH));
+            for (Long id : batch) {
+                afterId = id;
+                if (!booked.contains(DayAvailabilityIndex.bitOf(id))) {
+                    pageIds.add(id);
+                    if (pageIds.size() == pageSize) {
+                        break;
+                    }
+                }
+            }
+        } while (pageIds.size() < pageSize && batch.size() == SEARCH_SCAN_BATCH);
+
+        List<VehicleResponse> vehicles = pageIds.isEmpty() ? List.of()
+                : vehicleRepository.findWithOwnerByIdIn(pageIds).stream().map(VehicleResponse::new).toList();
+        String nextCursor = pageIds.size() == pageSize ? String.valueOf(pageIds.get(pageSize - 1)) : null;
+        return new VehicleSearchPage(vehicles, nextCursor);
+    }
+
+    // Shared with the reactive read path, which pages the same way
+    public static int searchPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_SEARCH_PAGE_SIZE));
+    }
+
+    public static long decodeSearchCursor(String cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Shared with the reactive read path, which answers the same searches
+    public static void checkSearchRange(LocalDate from, LocalDate toExclusive) {
+        if (!toExclusive.isAfter(from)) {
+            throw new BadRequestException("End date must be after start date");
+        }
+        if (ChronoUnit.DAYS.between(from, toExclusive) > MAX_SEARCH_DAYS) {
+            throw new BadRequestException("Search range cannot exceed " + MAX_SEARCH_DAYS + " days");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.rydio.benchmark;
+
+import com.rydio.RydioBackendApplication;
+import org.springframework.boot.SpringApplication;
+
+/**
+ * Starts the backend with the benchmark runners in this package, which live in the test tree so
+ * they stay out of the application jar. They run in {@code @Order} after startup:
+ * {@code mvn spring-boot:test-run -Dspring-boot.run.profiles=prod}.
+ */
+public class BenchmarkApplication {
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(RydioBackendApplication.class);
+        application.setAdditionalProfiles("benchmark");
+        application.run(args);
+    }
+}
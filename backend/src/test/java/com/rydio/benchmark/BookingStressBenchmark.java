@@ -0,0 +1,222 @@
+package com.rydio.benchmark;
+
+import com.rydio.booking.dto.BookingInterval;
+import com.rydio.booking.dto.CreateBookingRequest;
+import com.rydio.booking.repository.BookingRepository;
+import com.rydio.booking.service.BookingIntervalIndex;
+import com.rydio.booking.service.BookingService;
+import com.rydio.common.exception.ConflictException;
+import com.rydio.user.entity.User;
+import com.rydio.user.service.UserService;
+import com.rydio.vehicle.dto.CreateVehicleRequest;
+import com.rydio.vehicle.entity.Vehicle;
+import com.rydio.vehicle.service.VehicleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hammers booking creation from many threads against fleets of increasing size, then checks
+ * the database for overlapping bookings of any vehicle. With one vehicle every attempt
+ * contends on the same lock; with more vehicles throughput should grow until the database
+ * or the CPU becomes the limit.
+ */
+@Component
+@Profile("benchmark")
+@Order(3)
+public class BookingStressBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingStressBenchmark.class);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.benchmark.booking.threads:16}")
+    private int threads;
+
+    @Value("${app.benchmark.booking.seconds:5}")
+    private int seconds;
+
+    @Value("${app.benchmark.booking.vehicle-counts:1,4,16,64}")
+    private List<Integer> vehicleCounts;
+
+    // Bookings are spread over this many days so the calendars do not fill up during a run
+    @Value("${app.benchmark.booking.horizon-days:3650}")
+    private int horizonDays;
+
+    private final AtomicInteger plateSequence = new AtomicInteger();
+
+    @Override
+    public void run(String... args) throws Exception {
+        User renter = userService.registerUser("bookingbench", "bookingbench@bench.local",
+                passwordEncoder.encode("Benchmark@1234"), "Booking", "Bench", null, null);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        log.info("Booking stress benchmark: {} threads, {}s per fleet size", threads, seconds);
+
+        raceForOneSlot(createVehicles(renter.getId(), 1).get(0), renter.getId(), base);
+        measure(createVehicles(renter.getId(), 4), renter.getId(), base, "warmup");
+        for (int count : vehicleCounts) {
+            measure(createVehicles(renter.getId(), count), renter.getId(), base, count + " vehicles");
+        }
+    }
+
+    // Every thread requests the same slot at the same moment; exactly one may win
+    private void raceForOneSlot(Long vehicleId, Long userId, LocalDateTime base) throws Exception {
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setVehicleId(vehicleId);
+        request.setStartDate(base.toString());
+        request.setEndDate(base.plusDays(1).toString());
+        request.setPickupLocation("Bench");
+        request.setDropLocation("Bench");
+
+        AtomicLong created = new AtomicLong();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    startSignal.await();
+                    try {
+                        bookingService.createBooking(request, userId);
+                        created.incrementAndGet();
+                    } catch (ConflictException e) {
+                        // Expected for every thread but the winner
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        if (created.get() != 1 || verifyNoOverlaps(List.of(vehicleId)) != 1) {
+            throw new IllegalStateException(created.get() + " of " + threads + " threads booked the same slot");
+        }
+        log.info("Same-slot race: 1 of {} threads won", threads);
+    }
+
+    private void measure(List<Long> vehicleIds, Long userId, LocalDateTime base, String name) throws Exception {
+        AtomicLong created = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (running.get()) {
+                        LocalDateTime start = base.plusHours(random.nextInt(horizonDays * 24));
+                        CreateBookingRequest request = new CreateBookingRequest();
+                        request.setVehicleId(vehicleIds.get(random.nextInt(vehicleIds.size())));
+                        request.setStartDate(start.toString());
+                        request.setEndDate(start.plusHours(1 + random.nextInt(72)).toString());
+                        request.setPickupLocation("Bench");
+                        request.setDropLocation("Bench");
+                        try {
+                            bookingService.createBooking(request, userId);
+                            created.incrementAndGet();
+                        } catch (ConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            TimeUnit.SECONDS.sleep(seconds);
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long stored = verifyNoOverlaps(vehicleIds);
+        if (stored != created.get()) {
+            throw new IllegalStateException(name + ": " + created.get() + " bookings reported but " + stored + " stored");
+        }
+        log.info("{}: {} attempts/s, {} bookings/s, {} conflicts, no overlaps in {} bookings",
+                name,
+                String.format("%.0f", (created.get() + conflicts.get()) / (double) seconds),
+                String.format("%.0f", created.get() / (double) seconds),
+                conflicts.get(), stored);
+    }
+
+    private long verifyNoOverlaps(List<Long> vehicleIds) {
+        long total = 0;
+        for (Long vehicleId : vehicleIds) {
+            List<BookingInterval> intervals = new ArrayList<>(bookingRepository.findVehicleIntervals(
+                    vehicleId, BookingIntervalIndex.blockingStatuses(), LocalDateTime.now().minusYears(1)));
+            intervals.sort(Comparator.comparing(BookingInterval::getStart));
+            for (int i = 1; i < intervals.size(); i++) {
+                BookingInterval previous = intervals.get(i - 1);
+                BookingInterval current = intervals.get(i);
+                if (current.getStart().isBefore(previous.getEnd())) {
+                    throw new IllegalStateException("Overlapping bookings " + previous.getBookingId()
+                            + " and " + current.getBookingId() + " for vehicle " + vehicleId);
+                }
+            }
+            total += intervals.size();
+        }
+        return total;
+    }
+
+    private List<Long> createVehicles(Long ownerId, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int plate = plateSequence.incrementAndGet();
+            CreateVehicleRequest request = new CreateVehicleRequest();
+            request.setLicensePlate("BENCH" + plate);
+            request.setBrand("Bench");
+            request.setModel("Model " + plate);
+            request.setYear(2024);
+            request.setColor("Grey");
+            request.setVehicleType(Vehicle.VehicleType.CAR);
+            request.setFuelType(Vehicle.FuelType.PETROL);
+            request.setDailyRate(1000.0);
+            request.setHourlyRate(60.0);
+            request.setLocation("Bench");
+            ids.add(vehicleService.createVehicle(request, ownerId).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,88 @@
+package com.rydio.benchmark;
+
+import com.rydio.config.PasswordEncoders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures password verification throughput (the CPU-bound part of a login) for each
+ * candidate algorithm/cost, using one thread per core. Run with {@link BenchmarkApplication}.
+ */
+@Component
+@Profile("benchmark")
+@Order(1)
+public class PasswordHashBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashBenchmark.class);
+
+    // Entries are algorithm:cost, e.g. bcrypt:10 or pbkdf2:310000
+    @Value("${app.benchmark.password.candidates:bcrypt:8,bcrypt:10,bcrypt:12,pbkdf2:310000}")
+    private List<String> candidates;
+
+    @Value("${app.benchmark.password.seconds:3}")
+    private int seconds;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        log.info("Password hash benchmark: {} threads, {}s per candidate", cores, seconds);
+
+        for (String candidate : candidates) {
+            String[] parts = candidate.trim().split(":");
+            PasswordEncoder encoder = PasswordEncoders.single(parts[0], Integer.parseInt(parts[1]));
+            String hash = encoder.encode("Benchmark@1234");
+
+            long verifications = measure(encoder, hash, cores);
+            double perSecond = verifications / (double) seconds;
+            log.info("{}: {} logins/s total, {} logins/s per core, {} ms per verification",
+                    candidate.trim(),
+                    String.format("%.1f", perSecond),
+                    String.format("%.1f", perSecond / cores),
+                    String.format("%.2f", cores * 1000.0 / perSecond));
+        }
+    }
+
+    private long measure(PasswordEncoder encoder, String hash, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    long count = 0;
+                    while (running.get()) {
+                        if (!encoder.matches("Benchmark@1234", hash)) {
+                            throw new IllegalStateException("Hash did not verify");
+                        }
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            TimeUnit.SECONDS.sleep(seconds);
+            running.set(false);
+
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
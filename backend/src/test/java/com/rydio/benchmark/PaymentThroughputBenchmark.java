@@ -0,0 +1,198 @@
+package com.rydio.benchmark;
+
+import com.rydio.booking.dto.BookingResponse;
+import com.rydio.booking.dto.CreateBookingRequest;
+import com.rydio.booking.service.BookingService;
+import com.rydio.common.exception.ConflictException;
+import com.rydio.payment.dto.ProcessPaymentRequest;
+import com.rydio.payment.entity.LedgerEntry;
+import com.rydio.payment.entity.Payment;
+import com.rydio.payment.repository.LedgerEntryRepository;
+import com.rydio.payment.service.PaymentService;
+import com.rydio.user.entity.User;
+import com.rydio.user.service.UserService;
+import com.rydio.vehicle.dto.CreateVehicleRequest;
+import com.rydio.vehicle.entity.Vehicle;
+import com.rydio.vehicle.service.VehicleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Processes fee payments from many threads for a fixed time and reports payments per second,
+ * then checks that the ledger still balances. Before that, every thread tries to pay the same
+ * booking at once; exactly one payment may succeed.
+ */
+@Component
+@Profile("benchmark")
+@Order(4)
+public class PaymentThroughputBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentThroughputBenchmark.class);
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.benchmark.payment.threads:32}")
+    private int threads;
+
+    @Value("${app.benchmark.payment.seconds:5}")
+    private int seconds;
+
+    @Override
+    public void run(String... args) throws Exception {
+        User payer = userService.registerUser("paymentbench", "paymentbench@bench.local",
+                passwordEncoder.encode("Benchmark@1234"), "Payment", "Bench", null, null);
+        BookingResponse booking = createBooking(payer.getId());
+        log.info("Payment throughput benchmark: {} threads, {}s", threads, seconds);
+
+        raceToPay(booking, payer.getId());
+        measure(booking.getId(), payer.getId(), 1, "warmup");
+        measure(booking.getId(), payer.getId(), seconds, "fee payments");
+        verifyLedgerBalances();
+    }
+
+    private void raceToPay(BookingResponse booking, Long userId) throws Exception {
+        ProcessPaymentRequest request = request(booking.getId(), Payment.PaymentType.BOOKING, booking.getTotalAmount());
+        AtomicLong paid = new AtomicLong();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    startSignal.await();
+                    try {
+                        paymentService.processPayment(request, userId);
+                        paid.incrementAndGet();
+                    } catch (ConflictException e) {
+                        // Expected for every thread but the first
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        if (paid.get() != 1) {
+            throw new IllegalStateException(paid.get() + " of " + threads + " threads paid the same booking");
+        }
+        log.info("Same-booking race: 1 of {} threads paid", threads);
+    }
+
+    private void measure(Long bookingId, Long userId, int durationSeconds, String name) throws Exception {
+        AtomicLong processed = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ProcessPaymentRequest request = request(bookingId, Payment.PaymentType.LATE_FEE, 25.0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    while (running.get()) {
+                        paymentService.processPayment(request, userId);
+                        processed.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            TimeUnit.SECONDS.sleep(durationSeconds);
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        log.info("{}: {} payments in {}s, {} payments/s", name, processed.get(),
+                String.format("%.1f", elapsed), String.format("%.0f", processed.get() / elapsed));
+    }
+
+    private void verifyLedgerBalances() {
+        Map<LedgerEntry.Direction, Long> totals = new EnumMap<>(LedgerEntry.Direction.class);
+        for (Object[] row : ledgerEntryRepository.sumPerAccount()) {
+            totals.merge((LedgerEntry.Direction) row[1], ((Number) row[2]).longValue(), Long::sum);
+        }
+        long debits = totals.getOrDefault(LedgerEntry.Direction.DEBIT, 0L);
+        long credits = totals.getOrDefault(LedgerEntry.Direction.CREDIT, 0L);
+        if (debits != credits) {
+            throw new IllegalStateException("Ledger out of balance: debits " + debits + ", credits " + credits);
+        }
+        log.info("Ledger balances: {} debited and credited", debits);
+    }
+
+    private BookingResponse createBooking(Long userId) {
+        CreateVehicleRequest vehicle = new CreateVehicleRequest();
+        vehicle.setLicensePlate("PAYBENCH1");
+        vehicle.setBrand("Bench");
+        vehicle.setModel("Payments");
+        vehicle.setYear(2024);
+        vehicle.setColor("Grey");
+        vehicle.setVehicleType(Vehicle.VehicleType.CAR);
+        vehicle.setFuelType(Vehicle.FuelType.PETROL);
+        vehicle.setDailyRate(1000.0);
+        vehicle.setHourlyRate(60.0);
+        vehicle.setLocation("Bench");
+        Long vehicleId = vehicleService.createVehicle(vehicle, userId).getId();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setVehicleId(vehicleId);
+        request.setStartDate(start.toString());
+        request.setEndDate(start.plusDays(2).toString());
+        request.setPickupLocation("Bench");
+        request.setDropLocation("Bench");
+        return bookingService.createBooking(request, userId);
+    }
+
+    private static ProcessPaymentRequest request(Long bookingId, Payment.PaymentType type, double amount) {
+        ProcessPaymentRequest request = new ProcessPaymentRequest();
+        request.setBookingId(bookingId);
+        request.setAmount(amount);
+        request.setPaymentType(type);
+        request.setPaymentMethod(Payment.PaymentMethod.UPI);
+        return request;
+    }
+}
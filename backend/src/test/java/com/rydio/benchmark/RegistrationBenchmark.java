@@ -0,0 +1,104 @@
+package com.rydio.benchmark;
+
+import com.rydio.user.repository.UserRepository;
+import com.rydio.user.entity.User;
+import com.rydio.user.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registration throughput of the database path, comparing the single-insert registration
+ * against the previous check-then-insert-then-update sequence. The password is hashed once
+ * up front so bcrypt cost does not mask the difference.
+ */
+@Component
+@Profile("benchmark")
+@Order(2)
+public class RegistrationBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrationBenchmark.class);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.benchmark.registration.users:2000}")
+    private int users;
+
+    @Value("${app.benchmark.registration.threads:8}")
+    private int threads;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Override
+    public void run(String... args) throws Exception {
+        String hash = passwordEncoder.encode("Benchmark@1234");
+
+        // Warm up connection pool and JIT before measuring
+        measure("warmup", users / 10, id -> userService.registerUser(
+                "warm" + id, "warm" + id + "@bench.local", hash, "Bench", "User", null, null));
+
+        measure("check-then-insert (previous)", users, id -> {
+            String username = "legacy" + id;
+            String email = username + "@bench.local";
+            if (userService.existsByEmail(email) || userService.existsByUsername(username)) {
+                throw new IllegalStateException("Unexpected duplicate " + username);
+            }
+            User user = userService.createUser(username, email, hash, "Bench", "User", User.Role.USER);
+            user.setPhoneNumber("+10000000000");
+            userService.save(user);
+        });
+
+        measure("single insert", users, id -> userService.registerUser(
+                "single" + id, "single" + id + "@bench.local", hash, "Bench", "User", "+10000000000", null));
+
+        log.info("Registration benchmark finished, {} users in database", userRepository.count());
+    }
+
+    private void measure(String name, int count, Registration registration) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = sequence.incrementAndGet();
+                futures.add(pool.submit(() -> {
+                    registration.register(id);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            log.info("{}: {} registrations in {}s = {} registrations/s ({} threads)",
+                    name, count, String.format("%.2f", seconds), String.format("%.0f", count / seconds), threads);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Registration {
+        void register(int id);
+    }
+}
@@ -0,0 +1,183 @@
+package com.rydio.benchmark;
+
+import com.rydio.config.ReactiveReadServer;
+import com.rydio.vehicle.entity.Vehicle;
+import com.rydio.vehicle.repository.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drives the running server over HTTP with many concurrent clients, each sending its next
+ * request as soon as the previous one returns, against endpoints that query H2. Reports
+ * throughput, latency percentiles and the peak number of JVM threads.
+ *
+ * Run it once as is and once with spring.threads.virtual.enabled=true on Java 21 to compare
+ * platform and virtual request threads. When the reactive read server is enabled, the same
+ * load is then sent to its copy of the routes.
+ */
+@Component
+@Profile("benchmark")
+@Order(6)
+public class RequestConcurrencyBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestConcurrencyBenchmark.class);
+
+    // Latencies beyond this many recorded requests are not kept for percentiles
+    private static final int MAX_SAMPLES = 2_000_000;
+
+    // Names of the threads that handle requests on each server
+    private static final String TOMCAT_THREADS = "http-nio-";
+    private static final String REACTIVE_THREADS = "reactive-read-";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired(required = false)
+    private ReactiveReadServer reactiveReadServer;
+
+    @Value("${app.benchmark.http.concurrency:400}")
+    private int concurrency;
+
+    @Value("${app.benchmark.http.seconds:10}")
+    private int seconds;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long vehicleId = vehicleRepository.findByStatus(Vehicle.VehicleStatus.AVAILABLE).get(0).getId();
+        List<URI> targets = targets(environment.getProperty("local.server.port", Integer.class), vehicleId);
+
+        boolean virtual = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && Runtime.version().feature() >= 21;
+        log.info("Request concurrency benchmark: {} clients, {}s, {} request threads on Java {}", concurrency, seconds,
+                virtual ? "virtual" : "platform", Runtime.version().feature());
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        measure(client, targets, 2, "warmup", TOMCAT_THREADS);
+        measure(client, targets, seconds, virtual ? "virtual threads" : "platform threads", TOMCAT_THREADS);
+
+        if (reactiveReadServer != null) {
+            List<URI> reactiveTargets = targets(reactiveReadServer.getPort(), vehicleId);
+            measure(client, reactiveTargets, 2, "reactive warmup", REACTIVE_THREADS);
+            measure(client, reactiveTargets, seconds, "reactive read server", REACTIVE_THREADS);
+        }
+    }
+
+    // Small responses, so the time goes to request handling and the queries rather than JSON
+    private List<URI> targets(int port, Long vehicleId) {
+        String base = "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+        return List.of(
+                URI.create(base + "/vehicles/" + vehicleId),
+                URI.create(base + "/vehicles/search?location=Mumbai"));
+    }
+
+    private void measure(HttpClient client, List<URI> targets, int durationSeconds, String name,
+                         String serverThreads) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong errors = new AtomicLong();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicLongArray latencies = new AtomicLongArray(MAX_SAMPLES);
+        CountDownLatch stopped = new CountDownLatch(concurrency);
+
+        long started = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            send(client, targets, c, running, errors, completed, latencies, stopped);
+        }
+        long deadline = started + TimeUnit.SECONDS.toNanos(durationSeconds);
+        int peakServerThreads = 0;
+        while (System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(100);
+            peakServerThreads = Math.max(peakServerThreads, countThreads(threads, serverThreads));
+        }
+        running.set(false);
+        stopped.await(60, TimeUnit.SECONDS);
+        double elapsed = (System.nanoTime() - started) / 1e9;
+
+        int samples = Math.min(completed.get(), MAX_SAMPLES);
+        long[] sorted = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        log.info("{}: {} requests in {}s, {} requests/s, p50 {} ms, p99 {} ms, p999 {} ms, {} errors, "
+                        + "peak {} server threads ({}*), peak {} JVM threads",
+                name, completed.get(), String.format("%.1f", elapsed), String.format("%.0f", completed.get() / elapsed),
+                millis(sorted, 0.5), millis(sorted, 0.99), millis(sorted, 0.999), errors.get(),
+                peakServerThreads, serverThreads, threads.getPeakThreadCount());
+    }
+
+    // Closed loop: each client sends its next request when the previous one completes
+    private void send(HttpClient client, List<URI> targets, int sequence, AtomicBoolean running, AtomicLong errors,
+                      AtomicInteger completed, AtomicLongArray latencies, CountDownLatch stopped) {
+        if (!running.get()) {
+            stopped.countDown();
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(targets.get(sequence % targets.size()))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long started = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            if (failure != null || response.statusCode() != 200) {
+                errors.incrementAndGet();
+            }
+            int index = completed.getAndIncrement();
+            if (index < MAX_SAMPLES) {
+                latencies.set(index, System.nanoTime() - started);
+            }
+            send(client, targets, sequence + 1, running, errors, completed, latencies, stopped);
+        });
+    }
+
+    // Live platform threads whose name starts with the prefix; virtual threads are not listed
+    private static int countThreads(ThreadMXBean threads, String prefix) {
+        int count = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && info.getThreadName().startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return "-";
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return String.format("%.1f", sorted[Math.max(0, index)] / 1e6);
+    }
+}
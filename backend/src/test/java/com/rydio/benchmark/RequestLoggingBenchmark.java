@@ -0,0 +1,169 @@
+package com.rydio.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.util.Duration;
+import com.rydio.config.RequestIdFilter;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Compares request throughput when every simulated request waits a fixed time and writes
+ * the five log lines the login path used to print: with logging off, with a synchronous appender flushing each line (what System.out
+ * did), and with the ring-buffer appender from logback-spring.xml in front of the same file.
+ * The async run also reports how many lines were dropped because the buffer was full.
+ */
+@Component
+@Profile("benchmark")
+@Order(5)
+public class RequestLoggingBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLoggingBenchmark.class);
+
+    private static final int LINES_PER_REQUEST = 5;
+
+    @Value("${app.benchmark.logging.threads:16}")
+    private int threads;
+
+    @Value("${app.benchmark.logging.seconds:5}")
+    private int seconds;
+
+    // Time each simulated request spends waiting, as on the database, outside logging
+    @Value("${app.benchmark.logging.work-micros:1000}")
+    private long workMicros;
+
+    @Value("${app.logging.ring-buffer-size:8192}")
+    private int ringBufferSize;
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("Request logging benchmark: {} threads, {}s per run, {}us of waiting per request", threads, seconds, workMicros);
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        measure(context.getLogger("com.rydio.benchmark.logging.off"), null, "logging off");
+
+        Path syncFile = Files.createTempFile("rydio-sync-", ".log");
+        Path asyncFile = Files.createTempFile("rydio-async-", ".log");
+        try {
+            ch.qos.logback.classic.Logger sync = context.getLogger("com.rydio.benchmark.logging.sync");
+            sync.addAppender(fileAppender(context, syncFile, true));
+            measure(sync, syncFile, "synchronous");
+
+            ch.qos.logback.classic.Logger async = context.getLogger("com.rydio.benchmark.logging.async");
+            LoggingEventAsyncDisruptorAppender ringBuffer = new LoggingEventAsyncDisruptorAppender();
+            ringBuffer.setContext(context);
+            ringBuffer.setName("benchmark-async");
+            ringBuffer.setRingBufferSize(ringBufferSize);
+            ringBuffer.setAppendTimeout(Duration.buildByMilliseconds(0));
+            ringBuffer.setDroppedWarnFrequency(Integer.MAX_VALUE);
+            // The ring buffer flushes at the end of each batch it hands over
+            ringBuffer.addAppender(fileAppender(context, asyncFile, false));
+            ringBuffer.start();
+            async.addAppender(ringBuffer);
+            measure(async, asyncFile, "ring buffer");
+        } finally {
+            Files.deleteIfExists(syncFile);
+            Files.deleteIfExists(asyncFile);
+        }
+    }
+
+    private void measure(ch.qos.logback.classic.Logger logger, Path file, String name) throws Exception {
+        logger.setAdditive(false);
+        logger.setLevel(file == null ? Level.OFF : Level.INFO);
+        Map<String, Object> requestBody = Map.of("email", "bench@bench.local", "usernameOrEmail", "bench");
+
+        AtomicLong requests = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    while (running.get()) {
+                        long id = requests.incrementAndGet();
+                        MDC.put(RequestIdFilter.MDC_KEY, Long.toHexString(id));
+                        logger.info("Login request received: {}", requestBody);
+                        logger.info("Attempting login for: {}", "bench");
+                        logger.debug("Looked up account {}", id);
+                        work();
+                        logger.info("Password verified for user {}", id);
+                        logger.info("Issued tokens for user {}", id);
+                        logger.info("Login successful for: {}", "bench");
+                        MDC.remove(RequestIdFilter.MDC_KEY);
+                    }
+                    return null;
+                }));
+            }
+            TimeUnit.SECONDS.sleep(seconds);
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        // Stopping the ring buffer waits for it to drain, so the file is complete afterwards
+        logger.detachAndStopAllAppenders();
+
+        String written = "";
+        if (file != null) {
+            long expected = requests.get() * LINES_PER_REQUEST;
+            long lines;
+            try (Stream<String> stream = Files.lines(file)) {
+                lines = stream.count();
+            }
+            written = String.format(", %d of %d lines written (%.1f%% dropped)",
+                    lines, expected, 100.0 * (expected - lines) / expected);
+        }
+        log.info("{}: {} requests in {}s, {} requests/s{}", name, requests.get(), String.format("%.1f", elapsed),
+                String.format("%.0f", requests.get() / elapsed), written);
+    }
+
+    private void work() {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(workMicros));
+    }
+
+    private static Appender<ILoggingEvent> fileAppender(LoggerContext context, Path file, boolean immediateFlush) {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.setIncludeContext(false);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName("benchmark-" + file.getFileName());
+        appender.setFile(file.toString());
+        appender.setAppend(false);
+        appender.setImmediateFlush(immediateFlush);
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,168 @@
+package com.rydio.benchmark;
+
+import com.rydio.booking.dto.CreateBookingRequest;
+import com.rydio.booking.service.BookingService;
+import com.rydio.user.entity.User;
+import com.rydio.user.repository.UserRepository;
+import com.rydio.user.service.UserService;
+import com.rydio.vehicle.dto.CreateVehicleRequest;
+import com.rydio.vehicle.entity.Vehicle;
+import com.rydio.vehicle.repository.VehicleRepository;
+import com.rydio.vehicle.service.VehicleService;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vehicle lookups by id with the owner dereferenced and the caller looked up by username, as the
+ * detail, booking and ownership-check paths do, first with the second-level cache bypassed and
+ * then in use. Reports SQL statements per lookup and the per-region counters from Hibernate's
+ * statistics, and checks that bookings, which advance a vehicle's booking version, leave the
+ * cached vehicles in place.
+ */
+@Component
+@Profile("benchmark")
+@Order(7)
+public class SecondLevelCacheBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheBenchmark.class);
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.benchmark.cache.vehicles:500}")
+    private int vehicleCount;
+
+    @Value("${app.benchmark.cache.rounds:20}")
+    private int rounds;
+
+    @Value("${app.benchmark.cache.bookings:50}")
+    private int bookings;
+
+    @Override
+    public void run(String... args) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String hash = passwordEncoder.encode("Benchmark@1234");
+        User owner = userService.registerUser("cachebench", "cachebench@bench.local", hash, "Cache", "Bench", null, null);
+        User renter = userService.registerUser("cacherenter", "cacherenter@bench.local", hash, "Cache", "Renter", null, null);
+        List<Long> vehicleIds = createVehicles(owner.getId(), vehicleCount);
+        log.info("Second-level cache benchmark: {} vehicles, {} rounds", vehicleCount, rounds);
+
+        measure("warmup", vehicleIds, owner.getUsername(), true, statistics);
+        measure("cache bypassed", vehicleIds, owner.getUsername(), false, statistics);
+        measure("second-level cache", vehicleIds, owner.getUsername(), true, statistics);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        for (Long vehicleId : vehicleIds.subList(0, Math.min(bookings, vehicleIds.size()))) {
+            CreateBookingRequest request = new CreateBookingRequest();
+            request.setVehicleId(vehicleId);
+            request.setStartDate(start.toString());
+            request.setEndDate(start.plusDays(2).toString());
+            request.setPickupLocation("Bench");
+            request.setDropLocation("Bench");
+            bookingService.createBooking(request, renter.getId());
+        }
+        measure("after " + bookings + " bookings", vehicleIds, owner.getUsername(), true, statistics);
+
+        for (String region : List.of("vehicles", "users")) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            log.info("Region {}: {} hits, {} misses, {} puts", region, regionStatistics.getHitCount(),
+                    regionStatistics.getMissCount(), regionStatistics.getPutCount());
+        }
+        log.info("Query cache: {} hits, {} misses, {} puts", statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount());
+    }
+
+    private void measure(String name, List<Long> vehicleIds, String username, boolean useCache,
+                         Statistics statistics) {
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long hitsBefore = statistics.getSecondLevelCacheHitCount();
+        long start = System.nanoTime();
+        int lookups = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (Long vehicleId : vehicleIds) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // The JPA cache modes, since find() applies these over the session's CacheMode
+                    entityManager.setProperty("jakarta.persistence.cache.retrieveMode",
+                            useCache ? CacheRetrieveMode.USE : CacheRetrieveMode.BYPASS);
+                    entityManager.setProperty("jakarta.persistence.cache.storeMode",
+                            useCache ? CacheStoreMode.USE : CacheStoreMode.BYPASS);
+                    Vehicle vehicle = vehicleRepository.findById(vehicleId).orElseThrow();
+                    User caller = userRepository.findByUsername(username).orElseThrow();
+                    if (!vehicle.getOwner().getId().equals(caller.getId()) || vehicle.getOwner().getFirstName() == null) {
+                        throw new IllegalStateException("Vehicle " + vehicleId + " has an unexpected owner");
+                    }
+                });
+                lookups++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        log.info("{}: {} lookups/s, {} SQL statements per lookup, {} second-level cache hits",
+                name, String.format("%.0f", lookups / seconds),
+                String.format("%.2f", (statistics.getPrepareStatementCount() - statementsBefore) / (double) lookups),
+                statistics.getSecondLevelCacheHitCount() - hitsBefore);
+    }
+
+    private List<Long> createVehicles(Long ownerId, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CreateVehicleRequest request = new CreateVehicleRequest();
+            request.setLicensePlate("CACHE" + i);
+            request.setBrand("Bench");
+            request.setModel("Model " + i);
+            request.setYear(2024);
+            request.setColor("Grey");
+            request.setVehicleType(Vehicle.VehicleType.CAR);
+            request.setFuelType(Vehicle.FuelType.PETROL);
+            request.setDailyRate(1000.0);
+            request.setHourlyRate(60.0);
+            request.setLocation("Bench");
+            ids.add(vehicleService.createVehicle(request, ownerId).getId());
+        }
+        return ids;
+    }
+}
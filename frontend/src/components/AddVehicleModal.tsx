@@ -1,5 +1,5 @@
 import React, { useState } from 'react';
-import { vehicleService } from '../services/api';
+import { fileService, vehicleService } from '../services/api';
 import { CreateVehicleRequest } from '../types/api';
 
 interface AddVehicleModalProps {
@@ -32,6 +32,7 @@ const AddVehicleModal: React.FC<AddVehicleModalProps> = ({ isOpen, onClose, onSu
 
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState<string | null>(null);
+  const [uploading, setUploading] = useState(false);
 
   const handleSubmit = async (e: React.FormEvent) => {
     e.preventDefault();
@@ -77,6 +78,20 @@ const AddVehicleModal: React.FC<AddVehicleModalProps> = ({ isOpen, onClose, onSu
     setFormData(prev => ({ ...prev, [field]: value }));
   };
 
+  const handleImageUpload = async (file: File | undefined) => {
+    if (!file) return;
+    setUploading(true);
+    setError(null);
+    try {
+      const response = await fileService.upload(file, 'vehicles');
+      handleInputChange('imageUrl', fileService.getDownloadUrl(response.data.fileName));
+    } catch (err: any) {
+      setError(err.response?.data?.message || 'Failed to upload image. Please try again.');
+    } finally {
+      setUploading(false);
+    }
+  };
+
   if (!isOpen) return null;
 
   return (
@@ -343,6 +358,14 @@ const AddVehicleModal: React.FC<AddVehicleModalProps> = ({ isOpen, onClose, onSu
                   className="w-full border border-gray-300 rounded-md px-3 py-2 focus:outline-none focus:ring-2 focus:ring-indigo-500"
                   placeholder="https://example.com/vehicle-image.jpg"
                 />
+                <input
+                  type="file"
+                  accept="image/jpeg,image/png,image/gif,image/webp"
+                  onChange={(e) => handleImageUpload(e.target.files?.[0])}
+                  disabled={uploading}
+                  className="mt-2 w-full text-sm text-gray-600"
+                />
+                {uploading && <p className="mt-1 text-sm text-gray-500">Uploading image...</p>}
               </div>
             </div>
           </div>
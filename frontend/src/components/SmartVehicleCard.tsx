@@ -57,7 +57,7 @@ const SmartVehicleCard: React.FC<SmartVehicleCardProps> = ({ recommendation, onB
         <div className="h-48 bg-gradient-to-br from-gray-100 to-gray-200 flex items-center justify-center">
           {recommendation.imageUrl ? (
             <img 
-              src={recommendation.imageUrl} 
+              src={recommendation.thumbnailUrl || recommendation.imageUrl}
               alt={`${recommendation.brand} ${recommendation.model}`}
               className="w-full h-full object-cover"
             />
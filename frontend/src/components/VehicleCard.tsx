@@ -20,7 +20,7 @@ const VehicleCard: React.FC<VehicleCardProps> = ({
     <div className="bg-white rounded-lg shadow-md overflow-hidden hover:shadow-lg transition-shadow duration-300">
       <div className="relative">
         <img
-          src={vehicle.imageUrl || '/placeholder-vehicle.jpg'}
+          src={vehicle.thumbnailUrl || vehicle.imageUrl || '/placeholder-vehicle.jpg'}
           alt={`${vehicle.brand} ${vehicle.model}`}
           className="w-full h-48 object-cover"
         />
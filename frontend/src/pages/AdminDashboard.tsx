@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useAuth } from '../context/AuthContext';
 import { User } from '../types/api';
+import { adminService } from '../services/api';
 
 interface DashboardStats {
   totalUsers: number;
@@ -97,16 +98,8 @@ const AdminDashboard: React.FC = () => {
   };
 
   const fetchDashboardStats = async () => {
-    // Mock data
-    const mockStats: DashboardStats = {
-      totalUsers: 1247,
-      totalVehicles: 85,
-      activeBookings: 23,
-      totalRevenue: 2456780,
-      newUsersThisMonth: 156,
-      bookingsThisMonth: 342
-    };
-    setDashboardStats(mockStats);
+    const response = await adminService.getDashboard();
+    setDashboardStats(response.data);
   };
 
   const fetchUsers = async () => {
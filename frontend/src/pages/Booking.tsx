@@ -142,7 +142,7 @@ const Booking: React.FC = () => {
             {/* Vehicle Details */}
             <div className="md:w-1/2 p-6">
               <img
-                src={vehicle.imageUrl || '/placeholder-vehicle.jpg'}
+                src={vehicle.mediumUrl || vehicle.imageUrl || '/placeholder-vehicle.jpg'}
                 alt={`${vehicle.brand} ${vehicle.model}`}
                 className="w-full h-64 object-cover rounded-lg mb-4"
               />
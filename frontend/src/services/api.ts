@@ -294,9 +294,10 @@ export const paymentService = {
     return response.data;
   },
 
-  getUserPaymentsPaged: async (page: number = 0, size: number = 10) => {
+  // Pass the previous page's nextCursor to get the following page
+  getUserPaymentsPaged: async (cursor?: string, size: number = 10) => {
     const response = await api.get('/payments/my-payments/paged', {
-      params: { page, size }
+      params: { cursor, size }
     });
     return response.data;
   },
@@ -329,6 +330,13 @@ export const userService = {
   },
 };
 
+export const adminService = {
+  getDashboard: async () => {
+    const response = await api.get('/admin/dashboard');
+    return response.data;
+  },
+};
+
 export const fileService = {
   upload: async (file: File, subfolder: string = 'general') => {
     const formData = new FormData();
@@ -343,6 +351,44 @@ export const fileService = {
     return response.data;
   },
 
+  // Sends the file in chunks; a failed chunk is retried from the offset the server reports
+  uploadResumable: async (
+    file: File,
+    subfolder: string = 'general',
+    onProgress?: (uploaded: number, total: number) => void
+  ) => {
+    const digest = await crypto.subtle.digest('SHA-256', await file.arrayBuffer());
+    const sha256 = Array.from(new Uint8Array(digest))
+      .map((b) => b.toString(16).padStart(2, '0'))
+      .join('');
+    const started = await api.post('/files/uploads', { fileName: file.name, size: file.size, sha256, subfolder });
+    const session = started.data.data;
+
+    let offset = session.offset;
+    let failures = 0;
+    while (offset < file.size) {
+      try {
+        const chunk = file.slice(offset, Math.min(file.size, offset + session.maxChunkSize));
+        const response = await api.put(`/files/uploads/${session.uploadId}`, chunk, {
+          params: { offset },
+          headers: { 'Content-Type': 'application/octet-stream' },
+        });
+        offset = response.data.data.offset;
+        failures = 0;
+      } catch (error: any) {
+        if (++failures > 5 || (error.response && error.response.status !== 409 && error.response.status < 500)) {
+          throw error;
+        }
+        await new Promise((resolve) => setTimeout(resolve, 1000 * failures));
+        const status = await api.get(`/files/uploads/${session.uploadId}`);
+        offset = status.data.data.offset;
+      }
+      onProgress?.(offset, file.size);
+    }
+    const response = await api.post(`/files/uploads/${session.uploadId}/complete`);
+    return response.data;
+  },
+
   getDownloadUrl: (fileName: string) => {
     return `${API_BASE_URL}/files/download/${fileName}`;
   },
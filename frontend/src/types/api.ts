@@ -70,6 +70,9 @@ export interface Vehicle {
   description?: string;
   features?: string;
   imageUrl?: string;
+  // Downscaled copies, present when the image was uploaded to the file store
+  thumbnailUrl?: string;
+  mediumUrl?: string;
   createdAt: string;
   updatedAt: string;
 }
@@ -119,7 +122,7 @@ export interface Booking {
   totalHours: number;
   totalAmount: number;
   securityDeposit?: number;
-  status: 'PENDING' | 'CONFIRMED' | 'ACTIVE' | 'COMPLETED' | 'CANCELLED';
+  status: 'PENDING' | 'CONFIRMED' | 'ACTIVE' | 'COMPLETED' | 'CANCELLED' | 'EXPIRED';
   notes?: string;
   cancellationReason?: string;
   createdAt: string;
@@ -148,6 +151,8 @@ export interface Payment {
   paymentMethod: 'CREDIT_CARD' | 'DEBIT_CARD' | 'UPI' | 'NET_BANKING' | 'CASH';
   transactionId: string;
   status: 'PENDING' | 'PROCESSING' | 'COMPLETED' | 'FAILED' | 'REFUNDED';
+  cardLast4?: string;
+  failureReason?: string;
   notes?: string;
   createdAt: string;
   updatedAt: string;
@@ -173,6 +178,16 @@ export interface FileUploadResponse {
   contentType: string;
   size: number;
   uploadPath: string;
+  deduplicated?: boolean;
+}
+
+export interface UploadSession {
+  uploadId: string;
+  fileName: string;
+  size: number;
+  offset: number;
+  maxChunkSize: number;
+  expiresAt: string;
 }
 
 // Common Types
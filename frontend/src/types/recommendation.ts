@@ -23,6 +23,7 @@ export interface VehicleRecommendation {
   recommendedAddOns: string[];
   estimatedCost?: number;
   imageUrl?: string;
+  thumbnailUrl?: string;
   location?: string;
   dailyRate: number;
   hourlyRate?: number;
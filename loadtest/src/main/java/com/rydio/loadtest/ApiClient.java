@@ -0,0 +1,110 @@
+package com.rydio.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Pattern;
+
+/**
+ * Asynchronous calls to the API with every outcome recorded in {@link LatencyStats}. A failed
+ * call completes with {@code null} instead of exceptionally, so a scenario can stop at the
+ * first failed step without the error being counted twice.
+ */
+final class ApiClient {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final URI baseUrl;
+    private final Options options;
+    private final LatencyStats stats;
+
+    ApiClient(Options options, LatencyStats stats, ObjectMapper objectMapper, ExecutorService executor) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout)
+                .executor(executor)
+                .build();
+        this.objectMapper = objectMapper;
+        this.baseUrl = options.baseUrl;
+        this.options = options;
+        this.stats = stats;
+    }
+
+    HttpRequest.Builder request(String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(options.timeout)
+                .header("Accept", "application/json");
+    }
+
+    HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    CompletableFuture<HttpResponse<String>> send(HttpRequest request, long intendedNanos) {
+        String endpoint = endpointOf(request.method(), request.uri().getPath().substring(baseUrl.getPath().length()));
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    if (failure != null) {
+                        stats.recordError(endpoint, intendedNanos, describe(failure));
+                        return null;
+                    }
+                    stats.record(endpoint, intendedNanos, response.statusCode());
+                    return response;
+                });
+    }
+
+    // Completes with the JWT, or null when the login failed
+    CompletableFuture<String> login(String username, String password, long intendedNanos) {
+        HttpRequest request = request("/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("usernameOrEmail", username, "password", password)))
+                .build();
+        return send(request, intendedNanos).thenApply(response -> {
+            JsonNode data = dataOf(response);
+            return data == null ? null : data.path("token").asText(null);
+        });
+    }
+
+    // The data of a successful ApiResponse, or null
+    JsonNode dataOf(HttpResponse<String> response) {
+        if (response == null || response.statusCode() / 100 != 2) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(response.body()).path("data");
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // GET /vehicles/{id} rather than one row per vehicle id
+    static String endpointOf(String method, String path) {
+        return method + " " + ID_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    private static String describe(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof HttpTimeoutException) {
+            return "timeout";
+        }
+        return cause.getClass().getSimpleName() + (cause.getMessage() == null ? "" : " " + cause.getMessage());
+    }
+}
@@ -0,0 +1,63 @@
+package com.rydio.loadtest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Starts work at fixed points in time whether or not earlier work has finished, so a slow
+ * server sees the same arrivals as a fast one (an open model) instead of a fixed set of
+ * clients slowing down with it. Past the in-flight limit, arrivals are counted as errors
+ * rather than queued.
+ */
+final class Dispatcher {
+
+    private final LatencyStats stats;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    Dispatcher(LatencyStats stats, int maxInFlight) {
+        this.stats = stats;
+        this.maxInFlight = maxInFlight;
+    }
+
+    // Waits until dueNanos (System.nanoTime based), then starts the task with that as its intended start
+    void dispatch(long dueNanos, String name, LongFunction<CompletableFuture<?>> task) {
+        long wait;
+        while ((wait = dueNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            stats.recordError(name, dueNanos, "not sent, " + maxInFlight + " already in flight");
+            return;
+        }
+        CompletableFuture<?> started;
+        try {
+            started = task.apply(dueNanos);
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            stats.recordError(name, dueNanos, e.toString());
+            return;
+        }
+        started.whenComplete((result, failure) -> inFlight.decrementAndGet());
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    // Returns false if work is still running after the timeout
+    boolean awaitIdle(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+package com.rydio.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Latency histograms and outcome counts per endpoint. Latencies are recorded in microseconds
+ * from the moment a request was due to be sent, not from when it actually went out, so time
+ * spent queued behind a slow server is counted rather than hidden.
+ */
+final class LatencyStats {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long intendedNanos, int status) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.histogram.recordValue(Math.min(elapsedMicros(intendedNanos), HIGHEST_MICROS));
+        stats.statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    // No response at all: connection refused, timeout, or dropped because too many were in flight
+    void recordError(String endpoint, long intendedNanos, String reason) {
+        record(endpoint, intendedNanos, 0);
+        errors.computeIfAbsent(endpoint + ": " + reason, key -> new LongAdder()).increment();
+    }
+
+    long total() {
+        return endpoints.values().stream().mapToLong(endpoint -> endpoint.histogram.getTotalCount()).sum();
+    }
+
+    long failures() {
+        return endpoints.values().stream().mapToLong(Endpoint::failures).sum();
+    }
+
+    void print(PrintStream out, double seconds) {
+        out.printf("%n%-36s %8s %8s %7s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "req/s", "4xx", "5xx+err", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(HIGHEST_MICROS, 3);
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram histogram = entry.getValue().histogram.copy();
+            all.add(histogram);
+            printRow(out, entry.getKey(), histogram, entry.getValue().clientErrors(), entry.getValue().failures(), seconds);
+        }
+        printRow(out, "all", all, endpoints.values().stream().mapToLong(Endpoint::clientErrors).sum(), failures(), seconds);
+
+        out.printf("%nStatus codes (0 = no response)%n");
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Map<Integer, Long> statuses = new TreeMap<>();
+            entry.getValue().statuses.forEach((status, count) -> statuses.put(status, count.sum()));
+            out.printf("  %-36s %s%n", entry.getKey(), statuses);
+        }
+        if (!errors.isEmpty()) {
+            out.printf("%nErrors%n");
+            new TreeMap<>(errors).forEach((reason, count) -> out.printf("  %8d  %s%n", count.sum(), reason));
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram,
+                                 long clientErrors, long failures, double seconds) {
+        out.printf("%-36s %8d %8.1f %7d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds, clientErrors, failures,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static long elapsedMicros(long intendedNanos) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        final ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        long clientErrors() {
+            return count(status -> status >= 400 && status < 500);
+        }
+
+        long failures() {
+            return count(status -> status == 0 || status >= 500);
+        }
+
+        private long count(IntPredicate matches) {
+            return statuses.entrySet().stream()
+                    .filter(entry -> matches.test(entry.getKey()))
+                    .mapToLong(entry -> entry.getValue().sum())
+                    .sum();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.rydio.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator for the Rydio API, meant for a locally started backend, e.g. with the fleet
+ * profile for realistic data volumes:
+ *
+ * <pre>
+ * scenario [--rate 10] [--duration 60s] [--users 10000] [--user-prefix fleetuser] [--password password123]
+ * replay capture.ndjson [--speed 1] [--password password123]
+ *
+ * common: [--base-url http://localhost:8080/api] [--max-in-flight 1000] [--timeout 30s] [--seed n]
+ * </pre>
+ *
+ * Prints progress every five seconds and, at the end, latency percentiles and status counts per
+ * endpoint. Exits with status 1 if any request failed with a 5xx or got no response.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        LatencyStats stats = new LatencyStats();
+        Dispatcher dispatcher = new Dispatcher(stats, options.maxInFlight);
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()), daemon("http-client"));
+        ApiClient client = new ApiClient(options, stats, objectMapper, httpExecutor);
+
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(daemon("progress"));
+        long start = System.nanoTime();
+        progress.scheduleAtFixedRate(() -> System.out.printf("%5ds  %8d done  %6d failed  %5d in flight%n",
+                        TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), stats.total(), stats.failures(),
+                        dispatcher.inFlight()),
+                5, 5, TimeUnit.SECONDS);
+
+        ReplayRun replay = null;
+        if (options.mode.equals("scenario")) {
+            System.out.printf("Running scenario sessions at %.1f/s for %ds against %s%n",
+                    options.rate, options.duration.toSeconds(), options.baseUrl);
+            new ScenarioRun(options, client, dispatcher).run();
+        } else {
+            replay = new ReplayRun(options, client, dispatcher, stats, objectMapper);
+            replay.run();
+        }
+        if (!dispatcher.awaitIdle(options.timeout.toMillis() * 2, TimeUnit.MILLISECONDS)) {
+            System.out.printf("%d sessions still in flight, reporting without them%n", dispatcher.inFlight());
+        }
+        progress.shutdownNow();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        stats.print(System.out, seconds);
+        if (replay != null) {
+            replay.printMismatches(System.out);
+        }
+        System.exit(stats.failures() > 0 ? 1 : 0);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.rydio.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options, given as {@code --name value} or {@code --name=value} after the mode.
+ */
+final class Options {
+
+    final String mode;
+    final Path replayFile;
+    final URI baseUrl;
+    final double rate;
+    final Duration duration;
+    final int users;
+    final String userPrefix;
+    final String password;
+    final int maxInFlight;
+    final double speed;
+    final Duration timeout;
+    final long seed;
+
+    private Options(String mode, Path replayFile, Map<String, String> values) {
+        this.mode = mode;
+        this.replayFile = replayFile;
+        String base = values.getOrDefault("base-url", "http://localhost:8080/api");
+        this.baseUrl = URI.create(base.endsWith("/") ? base.substring(0, base.length() - 1) : base);
+        this.rate = Double.parseDouble(values.getOrDefault("rate", "10"));
+        this.duration = parseDuration(values.getOrDefault("duration", "60s"));
+        this.users = Integer.parseInt(values.getOrDefault("users", "10000"));
+        this.userPrefix = values.getOrDefault("user-prefix", "fleetuser");
+        this.password = values.getOrDefault("password", "password123");
+        this.maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", "1000"));
+        this.speed = Double.parseDouble(values.getOrDefault("speed", "1"));
+        this.timeout = parseDuration(values.getOrDefault("timeout", "30s"));
+        this.seed = Long.parseLong(values.getOrDefault("seed", String.valueOf(System.nanoTime())));
+        if (rate <= 0 || speed <= 0 || users <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("--rate, --speed, --users and --max-in-flight must be positive");
+        }
+    }
+
+    static Options parse(String[] args) {
+        List<String> positional = new ArrayList<>();
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                positional.add(arg);
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (equals > 0) {
+                values.put(arg.substring(2, equals), arg.substring(equals + 1));
+            } else if (i + 1 < args.length) {
+                values.put(arg.substring(2), args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+        }
+
+        String mode = positional.isEmpty() ? "" : positional.get(0);
+        if (mode.equals("scenario") && positional.size() == 1) {
+            return new Options(mode, null, values);
+        }
+        if (mode.equals("replay") && positional.size() == 2) {
+            return new Options(mode, Path.of(positional.get(1)), values);
+        }
+        throw new IllegalArgumentException("Usage: scenario [options] | replay <capture.ndjson> [options]");
+    }
+
+    // 90s, 5m, 500ms or a plain number of seconds
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,153 @@
+package com.rydio.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The replay mode: sends the requests of a capture file (written by the backend's
+ * RequestCaptureFilter) at their recorded offsets from the first one, divided by
+ * {@code --speed}. Requests made by a signed-in user are sent with a token for that user,
+ * logged in once with {@code --password}; redacted passwords in login bodies are replaced
+ * the same way, and redacted card details with a test card. Redacted tokens are sent as they
+ * are, and requests captured without their body are sent without one.
+ *
+ * The target's data will rarely match the one the capture was taken from, so responses whose
+ * status differs from the recorded one are counted per endpoint.
+ */
+final class ReplayRun {
+
+    private static final String REDACTED = "<redacted>";
+    private static final Set<String> PASSWORD_FIELDS = Set.of("password", "currentPassword", "newPassword");
+    private static final Map<String, String> TEST_CARD = Map.of(
+            "cardNumber", "4242424242424242",
+            "cvv", "123",
+            "expiryMonth", "12",
+            "expiryYear", String.valueOf(Year.now().getValue() + 5));
+
+    private final Options options;
+    private final ApiClient client;
+    private final Dispatcher dispatcher;
+    private final LatencyStats stats;
+    private final ObjectMapper objectMapper;
+    private final Map<String, CompletableFuture<String>> tokens = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> mismatches = new ConcurrentHashMap<>();
+
+    ReplayRun(Options options, ApiClient client, Dispatcher dispatcher, LatencyStats stats, ObjectMapper objectMapper) {
+        this.options = options;
+        this.client = client;
+        this.dispatcher = dispatcher;
+        this.stats = stats;
+        this.objectMapper = objectMapper;
+    }
+
+    void run() throws IOException {
+        List<JsonNode> requests = read();
+        System.out.printf("Replaying %d requests from %s at %.1fx%n", requests.size(), options.replayFile, options.speed);
+        long start = System.nanoTime();
+        long firstAt = requests.isEmpty() ? 0 : requests.get(0).path("at").asLong();
+        for (JsonNode captured : requests) {
+            long due = start + (long) ((captured.path("at").asLong() - firstAt) * 1_000_000 / options.speed);
+            String endpoint = ApiClient.endpointOf(captured.path("method").asText(), captured.path("path").asText());
+            dispatcher.dispatch(due, endpoint, intended -> replay(captured, endpoint, intended));
+        }
+    }
+
+    void printMismatches(PrintStream out) {
+        if (mismatches.isEmpty()) {
+            return;
+        }
+        out.printf("%nStatus different from the capture%n");
+        new TreeMap<>(mismatches).forEach((endpoint, count) -> out.printf("  %8d  %s%n", count.sum(), endpoint));
+    }
+
+    private CompletableFuture<?> replay(JsonNode captured, String endpoint, long intendedNanos) {
+        String user = captured.path("user").asText(null);
+        if (user == null || captured.path("path").asText().startsWith("/auth/")) {
+            return send(captured, endpoint, null, intendedNanos);
+        }
+        return tokens.computeIfAbsent(user, name -> client.login(name, options.password, intendedNanos))
+                .thenCompose(token -> {
+                    if (token == null) {
+                        stats.recordError(endpoint, intendedNanos, "not sent, login failed");
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return send(captured, endpoint, token, intendedNanos);
+                });
+    }
+
+    private CompletableFuture<?> send(JsonNode captured, String endpoint, String token, long intendedNanos) {
+        String pathAndQuery = captured.path("path").asText()
+                + (captured.hasNonNull("query") ? "?" + captured.get("query").asText() : "");
+        HttpRequest.Builder request = client.request(pathAndQuery);
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        JsonNode body = captured.get("body");
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(captured.path("method").asText(), client.json(unredact(body.deepCopy())));
+        } else {
+            request.method(captured.path("method").asText(), HttpRequest.BodyPublishers.noBody());
+        }
+
+        int recorded = captured.path("status").asInt();
+        return client.send(request.build(), intendedNanos).thenAccept(response -> {
+            if (response != null && recorded != 0 && response.statusCode() != recorded) {
+                mismatches.computeIfAbsent(endpoint + " " + recorded + " -> " + response.statusCode(),
+                        key -> new LongAdder()).increment();
+            }
+        });
+    }
+
+    private JsonNode unredact(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            object.fields().forEachRemaining(field -> {
+                if (REDACTED.equals(field.getValue().asText(null))) {
+                    String value = PASSWORD_FIELDS.contains(field.getKey())
+                            ? options.password : TEST_CARD.get(field.getKey());
+                    if (value != null) {
+                        object.put(field.getKey(), value);
+                    }
+                } else {
+                    unredact(field.getValue());
+                }
+            });
+        } else if (node.isArray()) {
+            node.elements().forEachRemaining(this::unredact);
+        }
+        return node;
+    }
+
+    // Lines are written as requests complete, so they are sorted back into arrival order
+    private List<JsonNode> read() throws IOException {
+        List<JsonNode> requests = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(options.replayFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    requests.add(objectMapper.readTree(line));
+                }
+            }
+        }
+        requests.sort(Comparator.comparingLong(request -> request.path("at").asLong()));
+        return requests;
+    }
+}
@@ -0,0 +1,129 @@
+package com.rydio.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The scripted mode: new sessions arrive as a Poisson process at {@code --rate} per second, and
+ * each logs in as a random generated user, searches a city for free vehicles on dates one to
+ * four months out, opens one of them, asks for quick recommendations and books it. A session
+ * stops at its first failed step.
+ *
+ * The first step is timed from the session's arrival; later steps from when the step before
+ * returned, since a real client would not send them any earlier.
+ */
+final class ScenarioRun {
+
+    private static final String[] CITIES = {"Mumbai", "Delhi", "Bangalore", "Hyderabad", "Chennai", "Pune",
+            "Kolkata", "Ahmedabad", "Jaipur", "Goa", "Kochi", "Chandigarh", "Lucknow", "Indore"};
+    private static final String[] VEHICLE_TYPES = {"CAR", "BIKE", "SCOOTER"};
+    private static final String[] TRIP_TYPES = {"city", "business", "family", "leisure", "long_distance"};
+    private static final String[] DURATIONS = {"short", "medium", "long"};
+
+    private final Options options;
+    private final ApiClient client;
+    private final Dispatcher dispatcher;
+
+    ScenarioRun(Options options, ApiClient client, Dispatcher dispatcher) {
+        this.options = options;
+        this.client = client;
+        this.dispatcher = dispatcher;
+    }
+
+    void run() {
+        Random arrivals = new Random(options.seed);
+        double meanGapNanos = 1e9 / options.rate;
+        long start = System.nanoTime();
+        long end = start + options.duration.toNanos();
+        long due = start;
+        while (true) {
+            // Exponential gaps between arrivals make a Poisson process
+            due += (long) (-Math.log(1 - arrivals.nextDouble()) * meanGapNanos);
+            if (due >= end) {
+                break;
+            }
+            dispatcher.dispatch(due, "POST /auth/login", this::session);
+        }
+    }
+
+    private CompletableFuture<?> session(long arrivalNanos) {
+        String username = options.userPrefix + random().nextInt(options.users);
+        String city = pick(CITIES);
+        LocalDate startDate = LocalDate.now().plusDays(30 + random().nextInt(91));
+        LocalDate endDate = startDate.plusDays(1 + random().nextInt(5));
+
+        return client.login(username, options.password, arrivalNanos).thenCompose(token -> {
+            if (token == null) {
+                return done();
+            }
+            String search = "/vehicles/search?location=" + encode(city) + "&vehicleType=" + pick(VEHICLE_TYPES)
+                    + "&startDate=" + startDate + "&endDate=" + endDate;
+            return get(search, token).thenCompose(results -> {
+                if (results == null || results.isEmpty()) {
+                    return done();
+                }
+                long vehicleId = results.get(random().nextInt(results.size())).path("id").asLong();
+                return get("/vehicles/" + vehicleId, token)
+                        .thenCompose(vehicle -> vehicle == null ? done() : get("/recommendations/quick?tripType="
+                                + pick(TRIP_TYPES) + "&passengers=" + (1 + random().nextInt(6))
+                                + "&duration=" + pick(DURATIONS), token))
+                        .thenCompose(recommendations -> recommendations == null
+                                ? done()
+                                : book(token, vehicleId, city, startDate, endDate));
+            });
+        });
+    }
+
+    private CompletableFuture<JsonNode> get(String pathAndQuery, String token) {
+        HttpRequest request = client.request(pathAndQuery)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return client.send(request, System.nanoTime()).thenApply(client::dataOf);
+    }
+
+    private CompletableFuture<JsonNode> book(String token, long vehicleId, String city,
+                                             LocalDate startDate, LocalDate endDate) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("vehicleId", vehicleId);
+        body.put("startDate", startDate.toString());
+        body.put("endDate", endDate.toString());
+        body.put("pickupLocation", city);
+        body.put("dropLocation", city);
+        body.put("notes", "load test");
+        HttpRequest request = client.request("/bookings")
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(client.json(body))
+                .build();
+        return client.send(request, System.nanoTime()).thenApply(client::dataOf);
+    }
+
+    private static CompletableFuture<JsonNode> done() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static String pick(String[] values) {
+        return values[random().nextInt(values.length)];
+    }
+
+    // Callbacks run on the HTTP client's threads, so never hold on to another thread's instance
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}